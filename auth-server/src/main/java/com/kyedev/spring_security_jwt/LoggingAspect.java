@@ -3,7 +3,10 @@ package com.kyedev.spring_security_jwt;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -16,9 +19,11 @@ import java.util.Arrays;
 
 @Aspect
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class LoggingAspect {
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Spring's mapper, so java.time arguments and results serialize like they do in responses
+    private final ObjectMapper objectMapper;
 
     // Log all controller methods
     @Pointcut("within(@org.springframework.web.bind.annotation.RestController *)")
@@ -47,7 +52,8 @@ public class LoggingAspect {
             Object[] args = joinPoint.getArgs();
             if (args != null && args.length > 0) {
                 Arrays.stream(args).forEach(arg -> {
-                    if (arg != null) {
+                    // Servlet request/response arguments are not bodies and cannot be serialized
+                    if (arg != null && !(arg instanceof ServletRequest) && !(arg instanceof ServletResponse)) {
                         try {
                             // Don't log sensitive data like password
                             String argString = objectMapper.writeValueAsString(arg);
@@ -0,0 +1,120 @@
+package com.kyedev.spring_security_jwt.config;
+
+import com.kyedev.spring_security_jwt.entity.Role;
+import com.kyedev.spring_security_jwt.entity.User;
+import com.kyedev.spring_security_jwt.repository.RoleRepository;
+import com.kyedev.spring_security_jwt.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DataInitializer implements CommandLineRunner {
+
+    // Precomputed BCrypt (strength 10) hashes of admin123, moderator123 and user123,
+    // so seeding never pays for hashing on boot
+    private static final String ADMIN_PASSWORD_HASH = "$2a$10$/1LLkrlIMW9oBu.WINDUgOapXXsLJnKWH1r6HcVbkPVyeckfb3atm";
+    private static final String MODERATOR_PASSWORD_HASH = "$2a$10$.II4csslcv5eaYBnPthHceqCJyTTv3IfdNcS3P.Gh9pvx43wJTNS.";
+    private static final String USER_PASSWORD_HASH = "$2a$10$t9G/WX00gd56lq.aZUlJ5uuzlMSRiiqeCpFVJjjwNVPwfcI01f6ym";
+
+    private final UserRepository  userRepository;
+    private final RoleRepository roleRepository;
+
+    // When true seeding runs on a background thread instead of delaying startup
+    @Value("${app.seed.async:false}")
+    private boolean async;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (async) {
+            Thread.ofVirtual().name("data-initializer").start(this::seed);
+        } else {
+            seed();
+        }
+    }
+
+    private void seed() {
+        try {
+            initializeRoles();
+            initializeDefaultUsers();
+        } catch (RuntimeException e) {
+            log.error("Data initialization failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Idempotent: each role and user is only created when missing
+    private void initializeRoles() {
+        createRoleIfMissing("ROLE_USER", null);
+        createRoleIfMissing("ROLE_MODERATOR", "Moderator role");
+        createRoleIfMissing("ROLE_ADMIN", "Administrator role");
+        createRoleIfMissing("ROLE_VERIFIER", "Downstream token verifier, reads the revocation feed");
+        log.info("Roles initialized successfully");
+    }
+
+    private void createRoleIfMissing(String name, String description) {
+        if (roleRepository.findByName(name).isEmpty()) {
+            roleRepository.save(Role.builder()
+                    .name(name)
+                    .description(description)
+                    .build());
+        }
+    }
+
+    private void initializeDefaultUsers() {
+        boolean created = createUserIfMissing("admin", "admin@example.com", ADMIN_PASSWORD_HASH,
+                "Admin", "User", "ROLE_ADMIN");
+        created |= createUserIfMissing("moderator", "moderator@example.com", MODERATOR_PASSWORD_HASH,
+                "Moderator", "User", "ROLE_MODERATOR");
+        created |= createUserIfMissing("user", "user@example.com", USER_PASSWORD_HASH,
+                "Regular", "User", "ROLE_USER");
+
+        if (created) {
+            log.info("Default users initialized successfully");
+            log.info("Admin: admin/admin123");
+            log.info("Moderator: moderator/moderator123");
+            log.info("User: user/user123");
+        }
+    }
+
+    private boolean createUserIfMissing(
+            String username,
+            String email,
+            String passwordHash,
+            String firstName,
+            String lastName,
+            String roleName
+    ) {
+        if (userRepository.existsByUsername(username)) {
+            return false;
+        }
+
+        Role role = roleRepository.findByName(roleName)
+                .orElseThrow(() -> new RuntimeException(roleName + " not found"));
+
+        Set<Role> roles = new HashSet<>();
+        roles.add(role);
+
+        User user = User.builder()
+                .username(username)
+                .email(email)
+                .password(passwordHash)
+                .firstName(firstName)
+                .lastName(lastName)
+                .roles(roles)
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .build();
+
+        userRepository.save(user);
+        return true;
+    }
+}
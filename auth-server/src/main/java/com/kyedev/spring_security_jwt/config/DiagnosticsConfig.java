@@ -0,0 +1,17 @@
+package com.kyedev.spring_security_jwt.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kyedev.spring_security_jwt.diagnostics.JfrJacksonHttpMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+@Configuration
+public class DiagnosticsConfig {
+
+    // Replaces Spring Boot's JSON converter so response serialization shows up in flight recordings
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new JfrJacksonHttpMessageConverter(objectMapper);
+    }
+}
@@ -0,0 +1,183 @@
+package com.kyedev.spring_security_jwt.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kyedev.spring_security_jwt.dto.response.ApiResponse;
+import com.kyedev.spring_security_jwt.dto.response.AuthResponse;
+import com.kyedev.spring_security_jwt.entity.Role;
+import com.kyedev.spring_security_jwt.entity.User;
+import com.kyedev.spring_security_jwt.security.CompiledRoleHierarchy;
+import com.kyedev.spring_security_jwt.security.RoleBitsAuthenticationToken;
+import com.kyedev.spring_security_jwt.security.RoleBitsAuthorizationManager;
+import com.kyedev.spring_security_jwt.security.RoleRegistry;
+import com.kyedev.spring_security_jwt.service.JwtService;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Runs the hot paths (JWT signing and verification, role checks, JSON serialization of auth responses
+// and BCrypt) against a synthetic in-memory user until the iteration count or the time budget is
+// reached, so the first real requests after a deploy hit JIT-compiled code. Runs last among the runners;
+// the application only turns ready (and /public/health reports UP) once it is done.
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@Slf4j
+public class JitWarmup implements ApplicationRunner {
+
+    private static final String WARMUP_PASSWORD = "warmup-password";
+
+    private final JwtService jwtService;
+    private final RoleRegistry roleRegistry;
+    private final CompiledRoleHierarchy roleHierarchy;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration timeBudget;
+    private final int iterations;
+    private final int passwordChecks;
+
+    private volatile boolean complete;
+    private volatile int completedIterations;
+    private volatile Duration took;
+
+    public JitWarmup(
+            JwtService jwtService,
+            RoleRegistry roleRegistry,
+            CompiledRoleHierarchy roleHierarchy,
+            PasswordEncoder passwordEncoder,
+            ObjectMapper objectMapper,
+            @Value("${app.warmup.enabled:true}") boolean enabled,
+            @Value("${app.warmup.time-budget:20s}") Duration timeBudget,
+            @Value("${app.warmup.iterations:10000}") int iterations,
+            @Value("${app.warmup.password-checks:5}") int passwordChecks
+    ) {
+        this.jwtService = jwtService;
+        this.roleRegistry = roleRegistry;
+        this.roleHierarchy = roleHierarchy;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.timeBudget = timeBudget;
+        this.iterations = iterations;
+        this.passwordChecks = passwordChecks;
+        this.complete = !enabled;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + timeBudget.toNanos();
+        try {
+            warmUp(deadline);
+        } catch (Exception e) {
+            // A failed warm-up only costs latency, it must never keep the application from starting
+            log.warn("JIT warm-up aborted: {}", e.getMessage(), e);
+        } finally {
+            took = Duration.ofNanos(System.nanoTime() - start);
+            complete = true;
+        }
+        log.info("JIT warm-up finished: {} of {} iterations in {} ms",
+                completedIterations, iterations, took.toMillis());
+    }
+
+    private void warmUp(long deadline) throws Exception {
+        User user = syntheticUser();
+        Map<String, Object> extraClaims = extraClaims(user);
+        RoleBitsAuthorizationManager<Object> adminCheck = roleHierarchy.hasRole("ADMIN");
+        RoleBitsAuthorizationManager<Object> moderatorCheck = roleHierarchy.hasAnyRole("MODERATOR", "ADMIN");
+        String cachedToken = jwtService.generateAccessToken(new HashMap<>(extraClaims), user);
+
+        int done = 0;
+        while (done < iterations && System.nanoTime() < deadline) {
+            // Sign, then verify with and without the verified-token cache, as the filter does
+            String token = jwtService.generateAccessToken(new HashMap<>(extraClaims), user);
+            Claims claims = jwtService.verifyClaims(token);
+            Claims cachedClaims = jwtService.extractAllClaims(cachedToken);
+
+            List<GrantedAuthority> authorities = jwtService.extractAuthorities(claims);
+            Authentication authentication = new RoleBitsAuthenticationToken(
+                    user,
+                    jwtService.extractUserId(cachedClaims),
+                    roleHierarchy.expand(roleRegistry.maskOf(authorities)),
+                    authorities
+            );
+            adminCheck.authorize(() -> authentication, null);
+            moderatorCheck.authorize(() -> authentication, null);
+
+            objectMapper.writeValueAsBytes(ApiResponse.success("Login successful", AuthResponse.builder()
+                    .accessToken(token)
+                    .refreshToken(cachedToken)
+                    .expiresIn(jwtService.getAccessTokenExpiration())
+                    .username(user.getUsername())
+                    .email(user.getEmail())
+                    .roles(jwtService.extractRoles(claims))
+                    .build()));
+            completedIterations = ++done;
+        }
+
+        // Each BCrypt check costs tens of milliseconds and its inner loop compiles after a few calls
+        String hash = passwordEncoder.encode(WARMUP_PASSWORD);
+        for (int i = 0; i < passwordChecks && System.nanoTime() < deadline; i++) {
+            passwordEncoder.matches(WARMUP_PASSWORD, hash);
+        }
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", enabled);
+        status.put("complete", complete);
+        status.put("iterations", completedIterations);
+        if (took != null) {
+            status.put("tookMillis", took.toMillis());
+        }
+        return status;
+    }
+
+    private User syntheticUser() {
+        return User.builder()
+                .id(0L)
+                .username("warmup")
+                .email("warmup@localhost")
+                .firstName("Warm")
+                .lastName("Up")
+                .password(WARMUP_PASSWORD)
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .roles(Set.of(
+                        Role.builder().id(0L).name("ROLE_USER").build(),
+                        Role.builder().id(1L).name("ROLE_ADMIN").build()
+                ))
+                .build();
+    }
+
+    private static Map<String, Object> extraClaims(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtService.CLAIM_USER_ID, user.getId());
+        claims.put(JwtService.CLAIM_EMAIL, user.getEmail());
+        claims.put(JwtService.CLAIM_FIRST_NAME, user.getFirstName());
+        claims.put(JwtService.CLAIM_LAST_NAME, user.getLastName());
+        return claims;
+    }
+}
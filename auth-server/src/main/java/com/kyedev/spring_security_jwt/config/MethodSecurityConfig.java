@@ -0,0 +1,34 @@
+package com.kyedev.spring_security_jwt.config;
+
+import com.kyedev.spring_security_jwt.security.CompiledRoleHierarchy;
+import com.kyedev.spring_security_jwt.security.RequireRole;
+import com.kyedev.spring_security_jwt.security.RequireRoleAuthorizationManager;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.Pointcuts;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.util.function.SingletonSupplier;
+
+// Method security for @RequireRole, replacing @EnableMethodSecurity's SpEL-based @PreAuthorize
+@Configuration
+public class MethodSecurityConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor requireRoleAuthorizationAdvisor(ObjectProvider<CompiledRoleHierarchy> roleHierarchy) {
+        Pointcut pointcut = Pointcuts.union(
+                new AnnotationMatchingPointcut(RequireRole.class, true),
+                new AnnotationMatchingPointcut(null, RequireRole.class, true)
+        );
+        // Resolved lazily so the advisor itself does not force early initialization of the hierarchy
+        RequireRoleAuthorizationManager manager =
+                new RequireRoleAuthorizationManager(SingletonSupplier.of(roleHierarchy::getObject));
+        return new AuthorizationManagerBeforeMethodInterceptor(pointcut, manager);
+    }
+}
@@ -0,0 +1,63 @@
+package com.kyedev.spring_security_jwt.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Remembers keys written in the last max-replica-lag window so that reads of them can be pinned
+// to the primary, e.g. loading a user right after registration or a refresh token right after login.
+@Component
+public class ReadYourWritesGuard {
+
+    private static final int MAX_TRACKED_KEYS = 100_000;
+
+    private final boolean enabled;
+    private final long windowMillis;
+    private final ConcurrentHashMap<String, Long> recentWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesGuard(
+            @Value("${app.datasource.routing.enabled:false}") boolean enabled,
+            @Value("${app.datasource.routing.max-replica-lag:2s}") Duration maxReplicaLag
+    ) {
+        this.enabled = enabled;
+        this.windowMillis = maxReplicaLag.toMillis();
+    }
+
+    public void recordWrite(String key) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (recentWrites.size() >= MAX_TRACKED_KEYS) {
+            recentWrites.values().removeIf(writtenAt -> now - writtenAt > windowMillis);
+        }
+        recentWrites.put(key, now);
+    }
+
+    public RoutingDataSource.Pin pinIfRecentlyWritten(String key) {
+        if (!enabled) {
+            return RoutingDataSource.Pin.NONE;
+        }
+        Long writtenAt = recentWrites.get(key);
+        if (writtenAt == null) {
+            return RoutingDataSource.Pin.NONE;
+        }
+        if (System.currentTimeMillis() - writtenAt > windowMillis) {
+            recentWrites.remove(key, writtenAt);
+            return RoutingDataSource.Pin.NONE;
+        }
+        return RoutingDataSource.pinToPrimary();
+    }
+
+    public static String userKey(String username) {
+        return "user:" + username;
+    }
+
+    // Keyed by the stored digest, so live refresh tokens are never held in memory as keys
+    public static String refreshTokenKey(byte[] tokenHash) {
+        return "refresh-token:" + HexFormat.of().formatHex(tokenHash);
+    }
+}
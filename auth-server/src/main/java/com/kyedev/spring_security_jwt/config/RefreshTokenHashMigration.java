@@ -0,0 +1,71 @@
+package com.kyedev.spring_security_jwt.config;
+
+import com.kyedev.spring_security_jwt.security.TokenDigests;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// One-off upgrade of REFRESH_TOKEN from plaintext tokens to digests. Existing rows get the SHA-256 of
+// their token in token_hash (so tokens already handed out keep working), then the plaintext column is
+// dropped. Runs after the schema is in place but before the web server accepts requests, and is a
+// no-op once the legacy column is gone.
+@Component
+@Slf4j
+public class RefreshTokenHashMigration implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public RefreshTokenHashMigration(
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.refresh-tokens.migration-batch-size:500}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!columnExists("token")) {
+            return;
+        }
+        log.info("Migrating REFRESH_TOKEN to hashed token storage");
+
+        // ddl-auto adds token_hash itself; with ddl-auto none (prod profile) it is added here
+        if (!columnExists("token_hash")) {
+            jdbcTemplate.execute("ALTER TABLE refresh_token ADD COLUMN token_hash BINARY(32)");
+            jdbcTemplate.execute("CREATE UNIQUE INDEX UK_REFRESH_TOKEN_TOKEN_HASH ON refresh_token (token_hash)");
+        }
+
+        int migrated = 0;
+        List<Object[]> batch;
+        do {
+            batch = jdbcTemplate.query(
+                    "SELECT id, token FROM refresh_token WHERE token_hash IS NULL AND token IS NOT NULL LIMIT ?",
+                    (rs, rowNum) -> new Object[]{TokenDigests.sha256(rs.getString("token")), rs.getLong("id")},
+                    batchSize
+            );
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE refresh_token SET token_hash = ? WHERE id = ?", batch);
+                migrated += batch.size();
+            }
+        } while (batch.size() == batchSize);
+
+        jdbcTemplate.execute("ALTER TABLE refresh_token DROP COLUMN token");
+        log.info("Hashed {} refresh tokens and dropped the plaintext token column", migrated);
+    }
+
+    private boolean columnExists(String column) {
+        try {
+            jdbcTemplate.queryForList("SELECT " + column + " FROM refresh_token WHERE 1 = 0");
+            return true;
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+}
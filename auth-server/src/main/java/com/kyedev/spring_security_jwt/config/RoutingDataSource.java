@@ -0,0 +1,42 @@
+package com.kyedev.spring_security_jwt.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Sends read-only transactions to the replica pool and everything else to the primary.
+// Must sit behind a LazyConnectionDataSourceProxy so the decision is made after the transaction
+// has been marked read-only, i.e. when the first statement actually needs a connection.
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = ThreadLocal.withInitial(() -> false);
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (PINNED_TO_PRIMARY.get()) {
+            return Target.PRIMARY;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Target.REPLICA : Target.PRIMARY;
+    }
+
+    // Forces reads on the current thread to the primary until the returned pin is closed
+    public static Pin pinToPrimary() {
+        boolean previous = PINNED_TO_PRIMARY.get();
+        PINNED_TO_PRIMARY.set(true);
+        return () -> PINNED_TO_PRIMARY.set(previous);
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get();
+    }
+
+    @FunctionalInterface
+    public interface Pin extends AutoCloseable {
+
+        Pin NONE = () -> { };
+
+        @Override
+        void close();
+    }
+}
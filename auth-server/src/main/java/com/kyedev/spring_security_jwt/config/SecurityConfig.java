@@ -1,16 +1,22 @@
 package com.kyedev.spring_security_jwt.config;
 
 
+import com.kyedev.spring_security_jwt.diagnostics.JfrPasswordEncoder;
+import com.kyedev.spring_security_jwt.security.ApiKeyAuthenticationFilter;
+import com.kyedev.spring_security_jwt.security.CompiledRoleHierarchy;
+import com.kyedev.spring_security_jwt.security.ConcurrencyLimitFilter;
 import com.kyedev.spring_security_jwt.security.JwtAuthenticationFilter;
 import com.kyedev.spring_security_jwt.security.JwtAuthenticationEntryPoint;
+import com.kyedev.spring_security_jwt.security.PublicRouteMatcher;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -21,22 +27,17 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
-@EnableMethodSecurity(prePostEnabled = true)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final ApiKeyAuthenticationFilter apiKeyAuthFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
     private final UserDetailsService userDetailsService;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
-
-    // Public endpoints that don't require authentication
-    private static final String[] PUBLIC_URLS = {
-            "/api/v1/auth/**",
-            "/api/v1/public/**",
-            "/actuator/**",
-            "/swagger-ui/**",
-            "/v3/api-docs/**"
-    };
+    // Also used by JwtAuthenticationFilter to skip token processing on these routes
+    private final PublicRouteMatcher publicRouteMatcher;
+    private final CompiledRoleHierarchy roleHierarchy;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -44,13 +45,17 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
                         // Public endpoints
-                        .requestMatchers(PUBLIC_URLS).permitAll()
+                        .requestMatchers(publicRouteMatcher).permitAll()
+
+                        // Streaming responses (revocation feed) finish on an async dispatch that carries no
+                        // token; the request was authorized when the stream was opened
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
 
                         // Admin only endpoints
-                        .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/api/v1/admin/**").access(roleHierarchy.hasRole("ADMIN"))
 
                         // Moderator and Admin endpoints
-                        .requestMatchers("/api/v1/moderator/**").hasAnyRole("MODERATOR", "ADMIN")
+                        .requestMatchers("/api/v1/moderator/**").access(roleHierarchy.hasAnyRole("MODERATOR", "ADMIN"))
 
                         // Authenticated endpoints
                         .anyRequest().authenticated()
@@ -62,11 +67,23 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authenticationProvider(authenticationProvider())
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // Shed load before any token parsing or user lookup happens
+                .addFilterBefore(concurrencyLimitFilter, JwtAuthenticationFilter.class)
+                // Partner API keys resolve from memory; requests without X-API-Key skip straight to JWT
+                .addFilterBefore(apiKeyAuthFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
+    // Only runs inside the security filter chain; a second servlet registration would count every request twice
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration() {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(concurrencyLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(userDetailsService);
@@ -76,7 +93,8 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        // Hashing and checks show up as JFR events, see FlightRecordingService
+        return new JfrPasswordEncoder(new BCryptPasswordEncoder());
     }
 
     @Bean
@@ -0,0 +1,82 @@
+package com.kyedev.spring_security_jwt.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+// Logs where boot time went: total time to ready, time per startup phase and the slowest individual steps
+@Component
+@Slf4j
+public class StartupTimingReporter {
+
+    @Value("${app.startup.report.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.startup.report.top-steps:15}")
+    private int topSteps;
+
+    private Duration startedIn;
+
+    @EventListener
+    public void onApplicationStarted(ApplicationStartedEvent event) {
+        this.startedIn = event.getTimeTaken();
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        // Anything between started and ready is spent in runners (e.g. synchronous data seeding)
+        log.info("Startup: context started in {} ms, ready in {} ms",
+                millis(startedIn), millis(event.getTimeTaken()));
+
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            log.info("Startup: step timeline unavailable, start the application with a BufferingApplicationStartup");
+            return;
+        }
+
+        StartupTimeline timeline = startup.getBufferedTimeline();
+
+        // Steps are nested, so per-name totals overlap; they still show which phase dominates
+        Map<String, Long> totalsByStep = timeline.getEvents().stream()
+                .collect(Collectors.groupingBy(e -> e.getStartupStep().getName(),
+                        Collectors.summingLong(e -> e.getDuration().toMillis())));
+        totalsByStep.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(topSteps)
+                .forEach(e -> log.info("Startup phase {}: {} ms", e.getKey(), e.getValue()));
+
+        timeline.getEvents().stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(topSteps)
+                .forEach(e -> log.info("Startup step {} {}: {} ms",
+                        e.getStartupStep().getName(),
+                        tags(e.getStartupStep()),
+                        e.getDuration().toMillis()));
+    }
+
+    private static Map<String, String> tags(StartupStep step) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        StreamSupport.stream(step.getTags().spliterator(), false)
+                .forEach(tag -> tags.put(tag.getKey(), tag.getValue()));
+        return tags;
+    }
+
+    private static long millis(Duration duration) {
+        return duration == null ? 0 : duration.toMillis();
+    }
+}
@@ -0,0 +1,187 @@
+package com.kyedev.spring_security_jwt.controller;
+
+
+import com.kyedev.spring_security_jwt.dto.request.ApiKeyRequest;
+import com.kyedev.spring_security_jwt.dto.request.BulkRoleRequest;
+import com.kyedev.spring_security_jwt.dto.request.BulkUserRequest;
+import com.kyedev.spring_security_jwt.dto.request.ServiceClientRequest;
+import com.kyedev.spring_security_jwt.dto.response.ApiKeyResponse;
+import com.kyedev.spring_security_jwt.dto.response.ApiResponse;
+import com.kyedev.spring_security_jwt.dto.response.BulkUserResponse;
+import com.kyedev.spring_security_jwt.dto.response.ServiceClientResponse;
+import com.kyedev.spring_security_jwt.entity.User;
+import com.kyedev.spring_security_jwt.exceptions.ResourceNotFoundException;
+import com.kyedev.spring_security_jwt.repository.UserRepository;
+import com.kyedev.spring_security_jwt.security.ConcurrencyLimitFilter;
+import com.kyedev.spring_security_jwt.security.RequireRole;
+import com.kyedev.spring_security_jwt.security.RoleBitsAuthenticationToken;
+import com.kyedev.spring_security_jwt.service.ApiKeyService;
+import com.kyedev.spring_security_jwt.service.DashboardService;
+import com.kyedev.spring_security_jwt.service.EntityCacheService;
+import com.kyedev.spring_security_jwt.service.ServiceClientService;
+import com.kyedev.spring_security_jwt.service.UserAdminService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+@RequiredArgsConstructor
+@RequireRole("ADMIN") // All methods require ADMIN role
+public class AdminController {
+
+    private final UserRepository userRepository;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+    private final UserAdminService userAdminService;
+    private final EntityCacheService entityCacheService;
+    private final ServiceClientService serviceClientService;
+    private final ApiKeyService apiKeyService;
+    private final DashboardService dashboardService;
+
+    @GetMapping("/users")
+    public ResponseEntity<ApiResponse<List<User>>> getAllUsers() {
+        List<User> users = userRepository.findAll();
+        return ResponseEntity.ok(
+                ApiResponse.success("Users retrieved successfully", users)
+        );
+    }
+
+    @GetMapping("/users/{id}")
+    public ResponseEntity<ApiResponse<User>> getUserById(@PathVariable Long id) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return ResponseEntity.ok(
+                ApiResponse.success("User retrieved successfully", user)
+        );
+    }
+
+    // Also deletes the user's refresh tokens and revokes their sessions
+    @DeleteMapping("/users/{id}")
+    public ResponseEntity<ApiResponse<?>> deleteUser(@PathVariable Long id) {
+        BulkUserResponse result = userAdminService.delete(
+                BulkUserRequest.builder().userIds(List.of(id)).build(), currentUserId());
+        if (result.getMatchedUsers() == 0) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        return ResponseEntity.ok(
+                ApiResponse.success("User deleted successfully", null)
+        );
+    }
+
+    // Disabled users lose access right away: refresh tokens are revoked and access tokens stop authenticating
+    @PostMapping("/users/bulk/disable")
+    public ResponseEntity<ApiResponse<BulkUserResponse>> disableUsers(@RequestBody BulkUserRequest request) {
+        return ResponseEntity.ok(
+                ApiResponse.success("Users disabled successfully", userAdminService.disable(request, currentUserId()))
+        );
+    }
+
+    @PostMapping("/users/bulk/enable")
+    public ResponseEntity<ApiResponse<BulkUserResponse>> enableUsers(@RequestBody BulkUserRequest request) {
+        return ResponseEntity.ok(
+                ApiResponse.success("Users enabled successfully", userAdminService.enable(request, currentUserId()))
+        );
+    }
+
+    @PostMapping("/users/bulk/delete")
+    public ResponseEntity<ApiResponse<BulkUserResponse>> deleteUsers(@RequestBody BulkUserRequest request) {
+        return ResponseEntity.ok(
+                ApiResponse.success("Users deleted successfully", userAdminService.delete(request, currentUserId()))
+        );
+    }
+
+    @PostMapping("/users/bulk/roles")
+    public ResponseEntity<ApiResponse<BulkUserResponse>> reassignRoles(@Valid @RequestBody BulkRoleRequest request) {
+        return ResponseEntity.ok(
+                ApiResponse.success("Roles updated successfully", userAdminService.reassignRoles(request, currentUserId()))
+        );
+    }
+
+    // The generated secret is only part of this response
+    @PostMapping("/service-clients")
+    public ResponseEntity<ApiResponse<ServiceClientResponse>> createServiceClient(
+            @Valid @RequestBody ServiceClientRequest request
+    ) {
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Service client created successfully", serviceClientService.create(request)));
+    }
+
+    @GetMapping("/service-clients")
+    public ResponseEntity<ApiResponse<List<ServiceClientResponse>>> getServiceClients() {
+        return ResponseEntity.ok(
+                ApiResponse.success("Service clients retrieved successfully", serviceClientService.findAll())
+        );
+    }
+
+    // Tokens already issued to the client stop authenticating immediately
+    @DeleteMapping("/service-clients/{clientId}")
+    public ResponseEntity<ApiResponse<?>> disableServiceClient(@PathVariable String clientId) {
+        serviceClientService.disable(clientId);
+        return ResponseEntity.ok(
+                ApiResponse.success("Service client disabled successfully", null)
+        );
+    }
+
+    // The full key is only part of this response
+    @PostMapping("/api-keys")
+    public ResponseEntity<ApiResponse<ApiKeyResponse>> issueApiKey(@Valid @RequestBody ApiKeyRequest request) {
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(ApiResponse.success("API key issued successfully", apiKeyService.issue(request)));
+    }
+
+    // Usage counts lag behind by up to app.api-keys.usage-flush-interval
+    @GetMapping("/api-keys")
+    public ResponseEntity<ApiResponse<List<ApiKeyResponse>>> getApiKeys() {
+        return ResponseEntity.ok(
+                ApiResponse.success("API keys retrieved successfully", apiKeyService.findAll())
+        );
+    }
+
+    @DeleteMapping("/api-keys/{id}")
+    public ResponseEntity<ApiResponse<?>> revokeApiKey(@PathVariable Long id) {
+        apiKeyService.revoke(id);
+        return ResponseEntity.ok(
+                ApiResponse.success("API key revoked successfully", null)
+        );
+    }
+
+    // Current adaptive limits, in-flight requests and shed counts per route class
+    @GetMapping("/concurrency-limits")
+    public ResponseEntity<ApiResponse<Map<String, Map<String, Object>>>> getConcurrencyLimits() {
+        return ResponseEntity.ok(
+                ApiResponse.success("Concurrency limits retrieved successfully", concurrencyLimitFilter.stats())
+        );
+    }
+
+    // Second-level cache hits and misses, in total and per region (roles, user-roles, role-by-name)
+    @GetMapping("/cache-stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCacheStats() {
+        return ResponseEntity.ok(
+                ApiResponse.success("Cache statistics retrieved successfully", entityCacheService.stats())
+        );
+    }
+
+    // Login/refresh rates, lockouts and latency percentiles over 1m/5m/15m, active sessions and cache hit
+    // ratios; served from memory, never from the database
+    @GetMapping("/dashboard")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAdminDashboard() {
+        return ResponseEntity.ok(
+                ApiResponse.success("Admin dashboard accessed successfully", dashboardService.adminDashboard())
+        );
+    }
+
+    private static Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth instanceof RoleBitsAuthenticationToken token ? token.getUserId() : null;
+    }
+}
+
@@ -1,11 +1,16 @@
 package com.kyedev.spring_security_jwt.controller;
 
+import com.kyedev.spring_security_jwt.dto.request.ClientCredentialsRequest;
 import com.kyedev.spring_security_jwt.dto.request.LoginRequest;
 import com.kyedev.spring_security_jwt.dto.request.RefreshTokenRequest;
 import com.kyedev.spring_security_jwt.dto.request.RegisterRequest;
 import com.kyedev.spring_security_jwt.dto.response.ApiResponse;
 import com.kyedev.spring_security_jwt.dto.response.AuthResponse;
+import com.kyedev.spring_security_jwt.dto.response.ClientTokenResponse;
 import com.kyedev.spring_security_jwt.service.AuthService;
+import com.kyedev.spring_security_jwt.service.RefreshCoalescer;
+import com.kyedev.spring_security_jwt.service.ServiceClientService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -20,12 +25,15 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class AuthController {
     private final AuthService authService;
+    private final RefreshCoalescer refreshCoalescer;
+    private final ServiceClientService serviceClientService;
 
     @PostMapping("/register")
     public ResponseEntity<ApiResponse<AuthResponse>> register(
-            @Valid @RequestBody RegisterRequest request
+            @Valid @RequestBody RegisterRequest request,
+            HttpServletRequest httpRequest
             ) {
-        AuthResponse authResponse = authService.register(request);
+        AuthResponse authResponse = authService.register(request, httpRequest.getHeader("User-Agent"), httpRequest.getRemoteAddr());
         return  ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(ApiResponse.success("User registered successfully", authResponse));
@@ -33,17 +41,29 @@ public class AuthController {
 
     @PostMapping("/login")
     public ResponseEntity<ApiResponse<AuthResponse>> login(
-            @Valid @RequestBody LoginRequest request
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest
     ) {
-        AuthResponse authResponse = authService.login(request);
+        AuthResponse authResponse = authService.login(request, httpRequest.getHeader("User-Agent"), httpRequest.getRemoteAddr());
         return ResponseEntity.ok(ApiResponse.success("User logged successfully", authResponse));
     }
 
+    // Client-credentials grant for service accounts: no BCrypt, no refresh token, and a still fresh
+    // token for the same client and scope is returned again instead of signing a new one
+    @PostMapping("/token")
+    public ResponseEntity<ApiResponse<ClientTokenResponse>> clientToken(
+            @Valid @RequestBody ClientCredentialsRequest request
+    ) {
+        ClientTokenResponse tokenResponse = serviceClientService.issueToken(request);
+        return ResponseEntity.ok(ApiResponse.success("Token issued successfully", tokenResponse));
+    }
+
     @PostMapping("/refresh-token")
     public ResponseEntity<ApiResponse<AuthResponse>> refreshToken(
             @Valid @RequestBody RefreshTokenRequest request
     ) {
-        AuthResponse authResponse = authService.refreshToken(request.getRefreshToken());
+        // Concurrent refreshes of the same token (e.g. several tabs waking up) share one result
+        AuthResponse authResponse = refreshCoalescer.refresh(request.getRefreshToken(), request.getTokenFormat());
         return ResponseEntity.ok(ApiResponse.success("Token refreshed successfully", authResponse));
     }
 
@@ -52,6 +72,7 @@ public class AuthController {
             @Valid @RequestBody RefreshTokenRequest request
     ) {
         authService.logout(request.getRefreshToken());
+        refreshCoalescer.invalidate(request.getRefreshToken());
         return ResponseEntity.ok(ApiResponse.success("Logout successful", null));
     }
 }
@@ -0,0 +1,66 @@
+package com.kyedev.spring_security_jwt.controller;
+
+import com.kyedev.spring_security_jwt.dto.response.ApiResponse;
+import com.kyedev.spring_security_jwt.dto.response.AuthEventBucketResponse;
+import com.kyedev.spring_security_jwt.dto.response.AuthEventResponse;
+import com.kyedev.spring_security_jwt.entity.AuthEvent;
+import com.kyedev.spring_security_jwt.security.RequireRole;
+import com.kyedev.spring_security_jwt.service.AuthEventLog;
+import com.kyedev.spring_security_jwt.service.AuthEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+// Authentication audit trail; windows default to the last 24 hours
+@RestController
+@RequestMapping("/api/v1/admin/auth-events")
+@RequiredArgsConstructor
+@RequireRole("ADMIN")
+public class AuthEventController {
+
+    private static final Duration DEFAULT_WINDOW = Duration.ofHours(24);
+
+    private final AuthEventService authEventService;
+    private final AuthEventLog authEventLog;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<AuthEventResponse>>> getEvents(
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) AuthEvent.Type type,
+            @RequestParam(required = false) String username,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_WINDOW);
+        return ResponseEntity.ok(ApiResponse.success("Auth events retrieved successfully",
+                authEventService.findRecent(start, end, type, username, limit)));
+    }
+
+    @GetMapping("/histogram")
+    public ResponseEntity<ApiResponse<List<AuthEventBucketResponse>>> getHistogram(
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(defaultValue = "PT1H") Duration bucket
+    ) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_WINDOW);
+        return ResponseEntity.ok(ApiResponse.success("Auth event histogram retrieved successfully",
+                authEventService.histogram(start, end, bucket)));
+    }
+
+    // Queue depth, drops and writer throughput of the asynchronous event log
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getStats() {
+        return ResponseEntity.ok(ApiResponse.success("Auth event log stats retrieved successfully",
+                authEventLog.stats()));
+    }
+}
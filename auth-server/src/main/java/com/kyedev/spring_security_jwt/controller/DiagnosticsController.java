@@ -0,0 +1,65 @@
+package com.kyedev.spring_security_jwt.controller;
+
+import com.kyedev.spring_security_jwt.dto.response.ApiResponse;
+import com.kyedev.spring_security_jwt.dto.response.SlowPathSummaryResponse;
+import com.kyedev.spring_security_jwt.security.RequireRole;
+import com.kyedev.spring_security_jwt.service.FlightRecordingService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// JDK Flight Recorder controls for diagnosing latency in production without a profiler or restart
+@RestController
+@RequestMapping("/api/v1/admin/diagnostics")
+@RequiredArgsConstructor
+@RequireRole("ADMIN")
+public class DiagnosticsController {
+
+    private final FlightRecordingService flightRecordingService;
+
+    @PostMapping("/recording/start")
+    public ResponseEntity<ApiResponse<SlowPathSummaryResponse>> startRecording() {
+        return ResponseEntity.ok(ApiResponse.success("Flight recording started",
+                flightRecordingService.start()));
+    }
+
+    @PostMapping("/recording/stop")
+    public ResponseEntity<ApiResponse<SlowPathSummaryResponse>> stopRecording() {
+        return ResponseEntity.ok(ApiResponse.success("Flight recording stopped",
+                flightRecordingService.stop()));
+    }
+
+    // The .jfr file, openable in JDK Mission Control or with `jfr print`
+    // Written synchronously: an async dispatch would be re-authorized without the caller's bearer token
+    @GetMapping("/recording")
+    public void downloadRecording(HttpServletResponse response) throws IOException {
+        Path file = flightRecordingService.dump();
+        try {
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setContentLengthLong(Files.size(file));
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.attachment().filename("auth-diagnostics.jfr").build().toString());
+            Files.copy(file, response.getOutputStream());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Live while a recording runs, frozen at the final totals once it is stopped
+    @GetMapping("/slow-paths")
+    public ResponseEntity<ApiResponse<SlowPathSummaryResponse>> getSlowPaths() {
+        return ResponseEntity.ok(ApiResponse.success("Slow paths retrieved successfully",
+                flightRecordingService.summary()));
+    }
+}
@@ -0,0 +1,34 @@
+package com.kyedev.spring_security_jwt.controller;
+
+import com.kyedev.spring_security_jwt.exceptions.ResourceNotFoundException;
+import com.kyedev.spring_security_jwt.security.RequireRole;
+import com.kyedev.spring_security_jwt.service.KeySetService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+// Verification key for services embedding the token-verifier library. Served as a bare JWK set rather
+// than wrapped in ApiResponse so standard JWK tooling can read it.
+@RestController
+@RequestMapping("/api/v1/keys")
+@RequiredArgsConstructor
+@RequireRole("VERIFIER")
+public class KeySetController {
+
+    private final KeySetService keySetService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> keySet() {
+        if (!keySetService.isEnabled()) {
+            throw new ResourceNotFoundException("Key set endpoint is disabled");
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(keySetService.keySet());
+    }
+}
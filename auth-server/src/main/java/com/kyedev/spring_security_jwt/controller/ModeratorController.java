@@ -1,22 +1,27 @@
 package com.kyedev.spring_security_jwt.controller;
 
 import com.kyedev.spring_security_jwt.dto.response.ApiResponse;
+import com.kyedev.spring_security_jwt.security.RequireRole;
+import com.kyedev.spring_security_jwt.service.DashboardService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/v1/moderator")
 @RequiredArgsConstructor
-@PreAuthorize("hasAnyRole('MODERATOR', 'ADMIN')") // MODERATOR or ADMIN can access
+@RequireRole({"MODERATOR", "ADMIN"}) // MODERATOR or ADMIN can access
 public class ModeratorController {
 
+    private final DashboardService dashboardService;
+
+    // Login/refresh rates, lockouts and active sessions, without the admin-only latency and cache figures
     @GetMapping("/dashboard")
-    public ResponseEntity<ApiResponse<String>> getModeratorDashboard() {
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getModeratorDashboard() {
         return ResponseEntity.ok(
-                ApiResponse.success("Moderator dashboard accessed successfully",
-                        "Welcome to moderator dashboard")
+                ApiResponse.success("Moderator dashboard accessed successfully", dashboardService.moderatorDashboard())
         );
     }
 
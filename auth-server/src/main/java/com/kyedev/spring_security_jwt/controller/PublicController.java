@@ -0,0 +1,85 @@
+package com.kyedev.spring_security_jwt.controller;
+
+import com.kyedev.spring_security_jwt.config.JitWarmup;
+import com.kyedev.spring_security_jwt.dto.response.ApiResponse;
+import com.kyedev.spring_security_jwt.dto.response.AvailabilityResponse;
+import com.kyedev.spring_security_jwt.service.AccountAvailabilityService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/public")
+@RequiredArgsConstructor
+public class PublicController {
+
+    private final ApplicationAvailability applicationAvailability;
+    private final JitWarmup jitWarmup;
+    private final AccountAvailabilityService accountAvailabilityService;
+
+    // 503 until startup, including the JIT warm-up, has finished, so load balancers hold traffic back
+    @GetMapping("/health")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> health() {
+        boolean ready = jitWarmup.isComplete()
+                && applicationAvailability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC;
+
+        Map<String, Object> health = new HashMap<>();
+        health.put("status", ready ? "UP" : "WARMING_UP");
+        health.put("ready", ready);
+        health.put("warmup", jitWarmup.status());
+        health.put("timestamp", LocalDateTime.now());
+        health.put("service", "Spring Boot JWT Authentication");
+
+        if (!ready) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ApiResponse.<Map<String, Object>>builder()
+                    .success(String.valueOf(false))
+                    .message("Service is warming up")
+                    .data(health)
+                    .statusCode(HttpStatus.SERVICE_UNAVAILABLE.value())
+                    .build());
+        }
+        return ResponseEntity.ok(
+                ApiResponse.success("Service is running", health)
+        );
+    }
+
+    // Sign-up form check, throttled per client address
+    @GetMapping("/availability")
+    public ResponseEntity<ApiResponse<AvailabilityResponse>> availability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email,
+            HttpServletRequest request
+    ) {
+        AvailabilityResponse availability = accountAvailabilityService.check(request.getRemoteAddr(), username, email);
+        return ResponseEntity.ok(
+                ApiResponse.success("Availability checked", availability)
+        );
+    }
+
+    @GetMapping("/info")
+    public ResponseEntity<ApiResponse<Map<String, String>>> info() {
+        Map<String, String> info = new HashMap<>();
+        info.put("application", "Spring Boot JWT Auth");
+        info.put("version", "1.0.0");
+        info.put("description", "JWT Authentication with Role-Based Access Control");
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Application info", info)
+        );
+    }
+
+    @GetMapping("/welcome")
+    public ResponseEntity<ApiResponse<String>> welcome() {
+        return ResponseEntity.ok(
+                ApiResponse.success("Welcome!", "This is a public endpoint")
+        );
+    }
+}
\ No newline at end of file
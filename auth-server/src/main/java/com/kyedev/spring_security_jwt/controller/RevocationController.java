@@ -0,0 +1,50 @@
+package com.kyedev.spring_security_jwt.controller;
+
+import com.kyedev.spring_security_jwt.dto.response.ApiResponse;
+import com.kyedev.spring_security_jwt.dto.response.RevocationSnapshotResponse;
+import com.kyedev.spring_security_jwt.exceptions.ResourceNotFoundException;
+import com.kyedev.spring_security_jwt.security.RequireRole;
+import com.kyedev.spring_security_jwt.service.RevocationFeed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Feed for downstream services that verify access tokens themselves: a snapshot to start from, then
+// every revocation as it commits. ADMIN implies VERIFIER through the role hierarchy.
+@RestController
+@RequestMapping("/api/v1/revocations")
+@RequiredArgsConstructor
+@RequireRole("VERIFIER")
+public class RevocationController {
+
+    private final RevocationFeed revocationFeed;
+
+    // Resumes after the given sequence; EventSource clients send it back as Last-Event-ID on reconnect
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        requireEnabled();
+        return revocationFeed.subscribe(after != null ? after : lastEventId);
+    }
+
+    @GetMapping("/snapshot")
+    public ResponseEntity<ApiResponse<RevocationSnapshotResponse>> snapshot() {
+        requireEnabled();
+        return ResponseEntity.ok(ApiResponse.success("Revocation snapshot retrieved successfully",
+                revocationFeed.snapshot()));
+    }
+
+    private void requireEnabled() {
+        if (!revocationFeed.isEnabled()) {
+            throw new ResourceNotFoundException("Revocation feed is disabled");
+        }
+    }
+}
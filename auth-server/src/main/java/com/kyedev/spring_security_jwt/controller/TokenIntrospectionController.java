@@ -0,0 +1,35 @@
+package com.kyedev.spring_security_jwt.controller;
+
+import com.kyedev.spring_security_jwt.dto.request.TokenIntrospectionRequest;
+import com.kyedev.spring_security_jwt.dto.response.ApiResponse;
+import com.kyedev.spring_security_jwt.dto.response.TokenIntrospectionResponse;
+import com.kyedev.spring_security_jwt.security.RequireRole;
+import com.kyedev.spring_security_jwt.service.TokenIntrospectionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Batch token verification for the API gateway and internal services. It reveals whose a token is, so
+// it is limited to verifiers like /keys and /revocations; ADMIN implies VERIFIER through the role hierarchy.
+@RestController
+@RequestMapping("/api/v1/tokens")
+@RequiredArgsConstructor
+@RequireRole("VERIFIER")
+public class TokenIntrospectionController {
+
+    private final TokenIntrospectionService tokenIntrospectionService;
+
+    @PostMapping("/introspect")
+    public ResponseEntity<ApiResponse<List<TokenIntrospectionResponse>>> introspect(
+            @Valid @RequestBody TokenIntrospectionRequest request
+    ) {
+        List<TokenIntrospectionResponse> results = tokenIntrospectionService.introspect(request.getTokens());
+        return ResponseEntity.ok(ApiResponse.success("Tokens introspected successfully", results));
+    }
+}
@@ -1,9 +1,13 @@
 package com.kyedev.spring_security_jwt.controller;
 
 import com.kyedev.spring_security_jwt.dto.response.ApiResponse;
+import com.kyedev.spring_security_jwt.dto.response.SessionResponse;
+import com.kyedev.spring_security_jwt.exceptions.UnauthorizedException;
+import com.kyedev.spring_security_jwt.security.RoleBitsAuthenticationToken;
+import com.kyedev.spring_security_jwt.security.RequireRole;
+import com.kyedev.spring_security_jwt.service.RefreshTokenService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -18,6 +23,8 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class UserController {
 
+    private final RefreshTokenService refreshTokenService;
+
     // Accessible by any authenticated user
     @GetMapping("/profile")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getProfile() {
@@ -33,15 +40,26 @@ public class UserController {
 
     // Only users with ROLE_USER can access
     @GetMapping("/dashboard")
-    @PreAuthorize("hasRole('USER')")
+    @RequireRole("USER")
     public ResponseEntity<ApiResponse<String>> getDashboard() {
         return ResponseEntity.ok(ApiResponse.success("Dashboard retrieved successfully", "Welcome to user dashboard"));
     }
 
     // Only users with ROLE_USER or ROLE_ADMIN
     @GetMapping("/data")
-    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @RequireRole({"USER", "ADMIN"})
     public ResponseEntity<ApiResponse<String>> getUserData() {
         return ResponseEntity.ok(ApiResponse.success("Data retrieved successfully", "Welcome to user data"));
     }
+
+    // Active devices/sessions of the current user, newest first
+    @GetMapping("/sessions")
+    public ResponseEntity<ApiResponse<List<SessionResponse>>> getSessions() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (!(auth instanceof RoleBitsAuthenticationToken token) || token.getUserId() == null) {
+            throw new UnauthorizedException("Sessions are only available to user accounts");
+        }
+        return ResponseEntity.ok(ApiResponse.success("Sessions retrieved successfully",
+                refreshTokenService.findActiveSessions(token.getUserId())));
+    }
 }
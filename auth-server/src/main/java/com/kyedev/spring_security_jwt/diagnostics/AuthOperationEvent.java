@@ -0,0 +1,68 @@
+package com.kyedev.spring_security_jwt.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// JFR event timing one step of the authentication pipeline. Costs next to nothing unless a recording
+// has it enabled (see FlightRecordingService); usage: start(...) before the step, finish(...) after it.
+@Name(AuthOperationEvent.NAME)
+@Label("Authentication Operation")
+@Category({"Spring Security JWT", "Authentication"})
+@Description("Duration and outcome of token, user, password and refresh-token operations")
+@StackTrace(false)
+public class AuthOperationEvent extends Event {
+
+    public static final String NAME = "com.kyedev.auth.Operation";
+
+    // Operations
+    public static final String JWT_SIGN = "jwt.sign";
+    public static final String JWT_VERIFY = "jwt.verify";
+    public static final String USER_LOAD = "user.load";
+    public static final String PASSWORD_CHECK = "password.check";
+    public static final String PASSWORD_ENCODE = "password.encode";
+    public static final String REFRESH_LOOKUP = "refresh.lookup";
+    public static final String REFRESH_REVOKE = "refresh.revoke";
+    public static final String RESPONSE_SERIALIZE = "response.serialize";
+
+    // Outcomes
+    public static final String SUCCESS = "SUCCESS";
+    public static final String FAILURE = "FAILURE";
+    public static final String CACHED = "CACHED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String MISMATCH = "MISMATCH";
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Outcome")
+    private String outcome;
+
+    @Label("Token Size")
+    @DataAmount(DataAmount.BYTES)
+    private int tokenSize;
+
+    public static AuthOperationEvent start(String operation) {
+        AuthOperationEvent event = new AuthOperationEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    public void finish(String outcome, int tokenSize) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            this.tokenSize = tokenSize;
+            commit();
+        }
+    }
+
+    public void finish(String outcome) {
+        finish(outcome, 0);
+    }
+}
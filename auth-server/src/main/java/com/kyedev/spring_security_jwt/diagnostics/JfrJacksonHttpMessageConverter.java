@@ -0,0 +1,30 @@
+package com.kyedev.spring_security_jwt.diagnostics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+// Spring Boot's JSON converter with response serialization timed as an AuthOperationEvent
+public class JfrJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public JfrJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        AuthOperationEvent event = AuthOperationEvent.start(AuthOperationEvent.RESPONSE_SERIALIZE);
+        String outcome = AuthOperationEvent.FAILURE;
+        try {
+            super.writeInternal(object, type, outputMessage);
+            outcome = AuthOperationEvent.SUCCESS;
+        } finally {
+            event.finish(outcome);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.kyedev.spring_security_jwt.diagnostics;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// Times password hashing and checks (BCrypt by default) as AuthOperationEvents
+public class JfrPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    public JfrPasswordEncoder(PasswordEncoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        AuthOperationEvent event = AuthOperationEvent.start(AuthOperationEvent.PASSWORD_ENCODE);
+        String encoded = delegate.encode(rawPassword);
+        event.finish(AuthOperationEvent.SUCCESS);
+        return encoded;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        AuthOperationEvent event = AuthOperationEvent.start(AuthOperationEvent.PASSWORD_CHECK);
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        event.finish(matches ? AuthOperationEvent.SUCCESS : AuthOperationEvent.MISMATCH);
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
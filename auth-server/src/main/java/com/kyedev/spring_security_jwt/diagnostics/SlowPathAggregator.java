@@ -0,0 +1,104 @@
+package com.kyedev.spring_security_jwt.diagnostics;
+
+import com.kyedev.spring_security_jwt.dto.response.SlowEventResponse;
+import com.kyedev.spring_security_jwt.dto.response.SlowPathResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Running totals per operation/outcome plus the N slowest individual events, fed from a JFR RecordingStream
+public class SlowPathAggregator {
+
+    private record Path(String operation, String outcome) {
+    }
+
+    private static class Totals {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    }
+
+    private record Sample(String operation, String outcome, int tokenSize, String thread,
+                          Instant startTime, long durationNanos) {
+    }
+
+    private final int topN;
+    private final ConcurrentHashMap<Path, Totals> totals = new ConcurrentHashMap<>();
+    private final LongAdder events = new LongAdder();
+    // Min-heap on duration, so the fastest of the retained samples is the one evicted; guarded by itself
+    private final PriorityQueue<Sample> slowest = new PriorityQueue<>(Comparator.comparingLong(Sample::durationNanos));
+
+    public SlowPathAggregator(int topN) {
+        this.topN = Math.max(1, topN);
+    }
+
+    public void record(String operation, String outcome, int tokenSize, String thread,
+                       Instant startTime, Duration duration) {
+        long nanos = duration.toNanos();
+        Totals pathTotals = totals.computeIfAbsent(new Path(operation, outcome), path -> new Totals());
+        pathTotals.count.increment();
+        pathTotals.totalNanos.add(nanos);
+        pathTotals.maxNanos.accumulate(nanos);
+        events.increment();
+
+        synchronized (slowest) {
+            if (slowest.size() < topN) {
+                slowest.add(new Sample(operation, outcome, tokenSize, thread, startTime, nanos));
+            } else if (nanos > slowest.peek().durationNanos()) {
+                slowest.poll();
+                slowest.add(new Sample(operation, outcome, tokenSize, thread, startTime, nanos));
+            }
+        }
+    }
+
+    public long events() {
+        return events.sum();
+    }
+
+    public List<SlowPathResponse> paths() {
+        List<SlowPathResponse> paths = new ArrayList<>();
+        totals.forEach((path, pathTotals) -> {
+            long count = pathTotals.count.sum();
+            long totalNanos = pathTotals.totalNanos.sum();
+            paths.add(SlowPathResponse.builder()
+                    .operation(path.operation())
+                    .outcome(path.outcome())
+                    .count(count)
+                    .totalMillis(toMillis(totalNanos))
+                    .avgMillis(count == 0 ? 0 : toMillis(totalNanos / count))
+                    .maxMillis(toMillis(pathTotals.maxNanos.get()))
+                    .build());
+        });
+        paths.sort(Comparator.comparingDouble(SlowPathResponse::getTotalMillis).reversed());
+        return paths;
+    }
+
+    public List<SlowEventResponse> slowest() {
+        List<Sample> samples;
+        synchronized (slowest) {
+            samples = new ArrayList<>(slowest);
+        }
+        samples.sort(Comparator.comparingLong(Sample::durationNanos).reversed());
+        return samples.stream()
+                .map(sample -> SlowEventResponse.builder()
+                        .operation(sample.operation())
+                        .outcome(sample.outcome())
+                        .tokenSize(sample.tokenSize())
+                        .thread(sample.thread())
+                        .startTime(sample.startTime())
+                        .durationMillis(toMillis(sample.durationNanos()))
+                        .build())
+                .toList();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,31 @@
+package com.kyedev.spring_security_jwt.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRoleRequest {
+
+    public enum Operation { ADD, REMOVE, REPLACE }
+
+    @Valid
+    @NotNull(message = "users is required")
+    private BulkUserRequest users;
+
+    // With or without the ROLE_ prefix
+    @NotEmpty(message = "At least one role is required")
+    private List<String> roles;
+
+    @NotNull(message = "operation is required")
+    private Operation operation;
+}
@@ -0,0 +1,27 @@
+package com.kyedev.spring_security_jwt.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Selects users for a bulk admin operation: the users listed by id or username (either list), narrowed by
+// any filters given. At least one list or filter is required, so an empty request never matches everyone.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserRequest {
+    private List<Long> userIds;
+    private List<String> usernames;
+
+    // Filters
+    private String role;
+    private Boolean enabled;
+    private String emailDomain;
+    private LocalDateTime createdAfter;
+    private LocalDateTime createdBefore;
+}
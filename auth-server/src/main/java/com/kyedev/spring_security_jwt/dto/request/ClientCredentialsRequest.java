@@ -0,0 +1,24 @@
+package com.kyedev.spring_security_jwt.dto.request;
+
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientCredentialsRequest {
+
+    @NotBlank(message = "Client id is required")
+    private String clientId;
+
+    @NotBlank(message = "Client secret is required")
+    private String clientSecret;
+
+    // Optional, space-separated roles with or without the ROLE_ prefix; defaults to every allowed role
+    private String scope;
+}
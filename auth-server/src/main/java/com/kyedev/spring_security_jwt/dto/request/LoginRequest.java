@@ -18,4 +18,7 @@ public class LoginRequest {
 
     @NotBlank(message = "Password is required")
     private String password;
+
+    // Optional, defaults to JWT
+    private TokenFormat tokenFormat;
 }
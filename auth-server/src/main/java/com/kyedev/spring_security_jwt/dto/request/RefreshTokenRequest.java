@@ -14,4 +14,7 @@ public class RefreshTokenRequest {
 
     @NotBlank(message = "Refresh token is required")
     private String refreshToken;
+
+    // Optional, defaults to JWT
+    private TokenFormat tokenFormat;
 }
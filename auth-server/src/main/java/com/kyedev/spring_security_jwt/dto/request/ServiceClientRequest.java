@@ -0,0 +1,29 @@
+package com.kyedev.spring_security_jwt.dto.request;
+
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceClientRequest {
+
+    @NotBlank(message = "Client id is required")
+    @Size(max = 64, message = "Client id must be at most 64 characters")
+    @Pattern(regexp = "[A-Za-z0-9._-]+", message = "Client id may only contain letters, digits, '.', '_' and '-'")
+    private String clientId;
+
+    // With or without the ROLE_ prefix
+    @NotEmpty(message = "At least one scope is required")
+    private List<String> scopes;
+}
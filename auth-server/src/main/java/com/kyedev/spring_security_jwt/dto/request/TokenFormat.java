@@ -0,0 +1,7 @@
+package com.kyedev.spring_security_jwt.dto.request;
+
+// Access token format requested by the client; REFERENCE tokens are opaque and resolved server-side
+public enum TokenFormat {
+    JWT,
+    REFERENCE
+}
@@ -0,0 +1,27 @@
+package com.kyedev.spring_security_jwt.dto.response;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiKeyResponse {
+    private Long id;
+    private String name;
+    private String prefix;
+    // Only returned when the key is issued, it cannot be recovered later
+    private String key;
+    private List<String> scopes;
+    private Boolean revoked;
+    private Instant createdAt;
+    private Long usageCount;
+    private Instant lastUsedAt;
+}
@@ -0,0 +1,20 @@
+package com.kyedev.spring_security_jwt.dto.response;
+
+import com.kyedev.spring_security_jwt.entity.AuthEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthEventBucketResponse {
+    private Instant start;
+    private long total;
+    private Map<AuthEvent.Type, Long> counts;
+}
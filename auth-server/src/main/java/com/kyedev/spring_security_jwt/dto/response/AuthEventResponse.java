@@ -0,0 +1,24 @@
+package com.kyedev.spring_security_jwt.dto.response;
+
+import com.kyedev.spring_security_jwt.entity.AuthEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthEventResponse {
+    private Long id;
+    private AuthEvent.Type type;
+    private Long userId;
+    private String username;
+    private String ipAddress;
+    private String userAgent;
+    private String detail;
+    private Instant occurredAt;
+}
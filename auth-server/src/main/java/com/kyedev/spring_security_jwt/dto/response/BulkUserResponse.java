@@ -0,0 +1,21 @@
+package com.kyedev.spring_security_jwt.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserResponse {
+    private String action;
+    private int matchedUsers;
+    private int updatedUsers;
+    // Refresh tokens revoked (disable) or deleted (delete)
+    private int refreshTokens;
+    private List<Long> userIds;
+}
@@ -0,0 +1,22 @@
+package com.kyedev.spring_security_jwt.dto.response;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientTokenResponse {
+    private String accessToken;
+    private String tokenType;
+    // Remaining lifetime in milliseconds; less than the full lifetime when a cached token is re-served
+    private Long expiresIn;
+    private String clientId;
+    private List<String> scopes;
+}
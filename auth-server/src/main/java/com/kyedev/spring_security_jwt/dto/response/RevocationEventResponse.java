@@ -0,0 +1,23 @@
+package com.kyedev.spring_security_jwt.dto.response;
+
+
+import com.kyedev.spring_security_jwt.entity.RevocationEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationEventResponse {
+    private Long sequence;
+    private RevocationEvent.Type type;
+    private Long userId;
+    // SESSION_REVOKED only, matches the sid claim of access tokens
+    private Long sessionId;
+    private Instant occurredAt;
+}
@@ -0,0 +1,22 @@
+package com.kyedev.spring_security_jwt.dto.response;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationSnapshotResponse {
+    // Every event up to this sequence is reflected in entries; stream with after=sequence to continue
+    private Long sequence;
+    private Instant generatedAt;
+    // Latest event per session and per user that can still affect an unexpired access token
+    private List<RevocationEventResponse> entries;
+}
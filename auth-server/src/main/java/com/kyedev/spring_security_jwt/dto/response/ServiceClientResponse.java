@@ -0,0 +1,23 @@
+package com.kyedev.spring_security_jwt.dto.response;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceClientResponse {
+    private String clientId;
+    // Only returned when the client is created, it cannot be recovered later
+    private String clientSecret;
+    private List<String> scopes;
+    private Boolean enabled;
+    private Instant createdAt;
+}
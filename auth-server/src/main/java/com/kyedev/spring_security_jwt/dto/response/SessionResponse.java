@@ -0,0 +1,20 @@
+package com.kyedev.spring_security_jwt.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionResponse {
+    private Long id;
+    private String userAgent;
+    private String ipAddress;
+    private Instant createdAt;
+    private Instant expiresAt;
+}
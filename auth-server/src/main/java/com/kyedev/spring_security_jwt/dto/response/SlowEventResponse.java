@@ -0,0 +1,21 @@
+package com.kyedev.spring_security_jwt.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowEventResponse {
+    private String operation;
+    private String outcome;
+    private int tokenSize;
+    private String thread;
+    private Instant startTime;
+    private double durationMillis;
+}
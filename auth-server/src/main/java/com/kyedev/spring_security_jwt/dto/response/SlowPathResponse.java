@@ -0,0 +1,19 @@
+package com.kyedev.spring_security_jwt.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowPathResponse {
+    private String operation;
+    private String outcome;
+    private long count;
+    private double totalMillis;
+    private double avgMillis;
+    private double maxMillis;
+}
@@ -0,0 +1,24 @@
+package com.kyedev.spring_security_jwt.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowPathSummaryResponse {
+    private boolean recording;
+    private Instant startedAt;
+    private Instant stoppedAt;
+    private long events;
+    // Operation/outcome pairs, most total time first
+    private List<SlowPathResponse> paths;
+    // Individual slowest events, slowest first
+    private List<SlowEventResponse> slowest;
+}
@@ -0,0 +1,29 @@
+package com.kyedev.spring_security_jwt.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospectionResponse {
+    private boolean active;
+    private String tokenType;
+    private String subject;
+    private List<String> roles;
+    private Long exp;
+    private Boolean revoked;
+
+    public static TokenIntrospectionResponse inactive() {
+        return TokenIntrospectionResponse.builder()
+                .active(false)
+                .build();
+    }
+}
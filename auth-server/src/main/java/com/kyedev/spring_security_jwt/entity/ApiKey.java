@@ -0,0 +1,58 @@
+package com.kyedev.spring_security_jwt.entity;
+
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Long-lived partner credential of the form ak_<prefix>.<secret>; the prefix is the lookup key
+@Entity
+@Table(name = "API_KEY")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiKey {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false, length = 16)
+    private String prefix;
+
+    // SHA-256 of the secret part (see TokenDigests); the key itself is only shown once
+    @Column(nullable = false, columnDefinition = "BINARY(32)")
+    private byte[] secretHash;
+
+    // Partner the key was issued to, also the authenticated principal name
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    // Roles granted to the key, comma-separated
+    @Column(nullable = false)
+    private String scopes;
+
+    @Column(nullable = false)
+    private Boolean revoked;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Maintained by ApiKeyService in batches, so both lag behind by up to the flush interval
+    @Column(nullable = false)
+    private Long usageCount;
+
+    private Instant lastUsedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+        if (usageCount == null) {
+            usageCount = 0L;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.kyedev.spring_security_jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Append-only audit trail of authentication events, written in batches by AuthEventLog
+@Entity
+@Table(name = "AUTH_EVENT", indexes = {
+        // Time-bucketed counts group by minute and type straight off this index
+        @Index(name = "IDX_AUTH_EVENT_MINUTE_TYPE", columnList = "epochMinute, type"),
+        @Index(name = "IDX_AUTH_EVENT_USERNAME_OCCURRED", columnList = "username, occurredAt")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthEvent {
+
+    public enum Type {
+        LOGIN_SUCCESS,
+        LOGIN_FAILURE,
+        LOCKOUT,
+        REFRESH,
+        REFRESH_FAILURE,
+        LOGOUT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Type type;
+
+    private Long userId;
+
+    @Column(length = 100)
+    private String username;
+
+    @Column(length = 45)
+    private String ipAddress;
+
+    private String userAgent;
+
+    private String detail;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    // occurredAt truncated to whole minutes since the epoch
+    @Column(nullable = false)
+    private Long epochMinute;
+}
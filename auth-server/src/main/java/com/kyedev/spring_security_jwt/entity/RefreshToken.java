@@ -10,7 +10,10 @@ import lombok.NoArgsConstructor;
 import java.time.Instant;
 
 @Entity
-@Table(name = "REFRESH_TOKEN")
+@Table(name = "REFRESH_TOKEN", indexes = {
+        // Active sessions of a user in age order: cap enforcement and session listing are range scans
+        @Index(name = "IDX_REFRESH_TOKEN_USER_ACTIVE_CREATED", columnList = "UserId, revoked, createdAt")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -20,7 +23,13 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    // SHA-256 of the token; the token itself is never stored (see TokenDigests).
+    // Nullable at the schema level only so the column can be added to existing tables before they are backfilled.
+    @Column(name = "token_hash", unique = true, columnDefinition = "BINARY(32)")
+    private byte[] tokenHash;
+
+    // The raw token, only known to the request that created or presented it
+    @Transient
     private String token;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -36,6 +45,12 @@ public class RefreshToken {
     @Column(nullable = false)
     private Instant createdAt;
 
+    // Device information captured at login
+    private String userAgent;
+
+    @Column(length = 45)
+    private String ipAddress;
+
     @PrePersist
     protected void onCreate() {
         createdAt = Instant.now();
@@ -0,0 +1,48 @@
+package com.kyedev.spring_security_jwt.entity;
+
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Append-only log behind the revocation feed; the id is the sequence downstream verifiers resume from.
+// Written with JDBC by RevocationFeed, the entity only defines the table.
+@Entity
+@Table(name = "REVOCATION_EVENT", indexes = {
+        @Index(name = "IDX_REVOCATION_EVENT_OCCURRED", columnList = "occurredAt")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationEvent {
+
+    public enum Type {
+        // Access tokens of the session (sid claim) are no longer valid
+        SESSION_REVOKED,
+        // Access tokens of the user issued up to occurredAt are no longer valid
+        USER_DISABLED,
+        USER_DELETED,
+        USER_ROLES_CHANGED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Type type;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    private Long sessionId;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+}
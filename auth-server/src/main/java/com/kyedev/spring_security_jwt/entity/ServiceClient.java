@@ -0,0 +1,45 @@
+package com.kyedev.spring_security_jwt.entity;
+
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Machine client of the client-credentials grant (batch jobs, other services)
+@Entity
+@Table(name = "SERVICE_CLIENT")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceClient {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false, length = 64)
+    private String clientId;
+
+    // HMAC-SHA256 of the secret under a server-side key; secrets are random, so no slow hash is needed
+    @Column(nullable = false, columnDefinition = "BINARY(32)")
+    private byte[] secretHash;
+
+    // Roles the client may request, comma-separated
+    @Column(nullable = false)
+    private String scopes;
+
+    @Column(nullable = false)
+    private Boolean enabled;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+}
@@ -6,6 +6,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -52,7 +54,9 @@ public class User implements UserDetails {
     @Column(nullable=false)
     private Boolean accountNonLocked;
 
+    // Cached role ids per user; code changing user_roles with native statements must evict the affected users
     @SuppressWarnings("JpaAttributeTypeInspection")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
     @ManyToMany(fetch = FetchType.EAGER, cascade = {CascadeType.DETACH, CascadeType.MERGE, CascadeType.REFRESH})
     @JoinTable(
             name = "USER_ROLES",
@@ -83,4 +87,26 @@ public class User implements UserDetails {
                 .map(role -> new SimpleGrantedAuthority(role.getName()))
                 .collect(Collectors.toSet());
     }
+
+    // Lombok only generates getEnabled() etc. for Boolean fields, so without these UserDetails would
+    // report every account as enabled and unlocked
+    @Override
+    public boolean isEnabled() {
+        return Boolean.TRUE.equals(enabled);
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return Boolean.TRUE.equals(accountNonExpired);
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return Boolean.TRUE.equals(accountNonLocked);
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return Boolean.TRUE.equals(credentialsNonExpired);
+    }
 }
@@ -0,0 +1,14 @@
+package com.kyedev.spring_security_jwt.repository;
+
+import com.kyedev.spring_security_jwt.entity.ApiKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ApiKeyRepository extends JpaRepository<ApiKey, Long> {
+    List<ApiKey> findAllByRevokedFalse();
+
+    List<ApiKey> findAllByOrderByCreatedAtDesc();
+}
@@ -0,0 +1,25 @@
+package com.kyedev.spring_security_jwt.repository;
+
+import com.kyedev.spring_security_jwt.entity.AuthEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface AuthEventRepository extends JpaRepository<AuthEvent, Long> {
+
+    @Query("SELECT e FROM AuthEvent e WHERE e.occurredAt >= :from AND e.occurredAt < :to " +
+            "AND (:type IS NULL OR e.type = :type) AND (:username IS NULL OR e.username = :username) " +
+            "ORDER BY e.occurredAt DESC")
+    List<AuthEvent> findRecent(Instant from, Instant to, AuthEvent.Type type, String username, Pageable pageable);
+
+    // One row per (minute, type) that has events: [epochMinute, type, count]
+    @Query("SELECT e.epochMinute, e.type, COUNT(e) FROM AuthEvent e " +
+            "WHERE e.epochMinute >= :fromMinute AND e.epochMinute < :toMinute " +
+            "GROUP BY e.epochMinute, e.type")
+    List<Object[]> countPerMinute(long fromMinute, long toMinute);
+}
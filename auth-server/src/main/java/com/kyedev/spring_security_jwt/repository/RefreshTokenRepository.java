@@ -0,0 +1,51 @@
+package com.kyedev.spring_security_jwt.repository;
+
+
+import com.kyedev.spring_security_jwt.entity.RefreshToken;
+import com.kyedev.spring_security_jwt.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
+
+    @Query("SELECT rt FROM RefreshToken rt JOIN FETCH rt.user WHERE rt.tokenHash = :tokenHash")
+    Optional<RefreshToken> findWithUserByTokenHash(byte[] tokenHash);
+
+    @Query("SELECT COUNT(rt) FROM RefreshToken rt WHERE rt.user.id = :userId AND rt.revoked = false AND rt.expiryDate > :now")
+    long countActiveByUserId(Long userId, Instant now);
+
+    @Query("SELECT COUNT(rt) FROM RefreshToken rt WHERE rt.revoked = false AND rt.expiryDate > :now")
+    long countActive(Instant now);
+
+    @Query("SELECT rt FROM RefreshToken rt WHERE rt.user.id = :userId AND rt.revoked = false AND rt.expiryDate > :now ORDER BY rt.createdAt DESC, rt.id DESC")
+    List<RefreshToken> findActiveByUserId(Long userId, Instant now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.id IN :ids")
+    int revokeAllById(List<Long> ids);
+
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.user.id IN :userIds AND rt.revoked = false")
+    int revokeAllByUserIdIn(Collection<Long> userIds);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.user.id IN :userIds")
+    int deleteAllByUserIdIn(Collection<Long> userIds);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.user = :user")
+    void deleteByUser(User user);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.expiryDate < CURRENT_TIMESTAMP")
+    void deleteExpiredTokens();
+}
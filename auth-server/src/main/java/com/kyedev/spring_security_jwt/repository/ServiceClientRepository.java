@@ -0,0 +1,14 @@
+package com.kyedev.spring_security_jwt.repository;
+
+import com.kyedev.spring_security_jwt.entity.ServiceClient;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ServiceClientRepository extends JpaRepository<ServiceClient, Long> {
+    Optional<ServiceClient> findByClientId(String clientId);
+
+    boolean existsByClientId(String clientId);
+}
@@ -0,0 +1,88 @@
+package com.kyedev.spring_security_jwt.repository;
+
+import com.kyedev.spring_security_jwt.entity.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+
+@Repository
+public interface UserRepository extends JpaRepository<User, Long> {
+    Optional<User> findByUsername(String username);
+    Optional<User> findByEmail(String email);
+    Boolean existsByUsername(String username);
+    Boolean existsByEmail(String email);
+
+    // Row lock held until commit; serializes work that must see a user's sessions one request at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(Long id);
+
+    // [id, username, email] in id order after the given id, for walking the whole table in batches
+    @Query("SELECT u.id, u.username, u.email FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Object[]> findIdentifiersAfter(Long afterId, Pageable pageable);
+
+    // [id, username] of the users matching a bulk selection; a list only applies when its match flag is set
+    @Query("SELECT u.id, u.username FROM User u " +
+            "WHERE ((:matchIds = false AND :matchUsernames = false) " +
+            "OR (:matchIds = true AND u.id IN :ids) OR (:matchUsernames = true AND u.username IN :usernames)) " +
+            "AND (:enabled IS NULL OR u.enabled = :enabled) " +
+            "AND (:emailPattern IS NULL OR u.email LIKE :emailPattern) " +
+            "AND (:createdAfter IS NULL OR u.createdAt >= :createdAfter) " +
+            "AND (:createdBefore IS NULL OR u.createdAt < :createdBefore) " +
+            "AND (:role IS NULL OR EXISTS (SELECT r FROM u.roles r WHERE r.name = :role)) " +
+            "ORDER BY u.id")
+    List<Object[]> findBulkTargets(
+            boolean matchIds, Collection<Long> ids,
+            boolean matchUsernames, Collection<String> usernames,
+            Boolean enabled, String emailPattern,
+            LocalDateTime createdAfter, LocalDateTime createdBefore,
+            String role, Pageable pageable
+    );
+
+    @Modifying
+    @Query("UPDATE User u SET u.enabled = :enabled, u.updatedAt = :now WHERE u.id IN :ids AND u.enabled <> :enabled")
+    int updateEnabled(Collection<Long> ids, boolean enabled, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE User u SET u.updatedAt = :now WHERE u.id IN :ids")
+    int touch(Collection<Long> ids, LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id IN :ids")
+    int deleteAllByIdIn(Collection<Long> ids);
+
+    // USER_ROLES has no entity of its own, so role assignments are changed with native statements.
+    // Declaring the table as the query space keeps Hibernate from clearing every second-level cache region
+    // on each statement. Callers evict the affected users' cached roles (EntityCacheService).
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_roles"))
+    @Query(value = "INSERT INTO user_roles (user_id, role_id) " +
+            "SELECT u.id, r.id FROM users u CROSS JOIN roles r " +
+            "WHERE u.id IN (:ids) AND r.id IN (:roleIds) " +
+            "AND NOT EXISTS (SELECT 1 FROM user_roles ur WHERE ur.user_id = u.id AND ur.role_id = r.id)",
+            nativeQuery = true)
+    int addRoles(Collection<Long> ids, Collection<Long> roleIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_roles"))
+    @Query(value = "DELETE FROM user_roles WHERE user_id IN (:ids) AND role_id IN (:roleIds)", nativeQuery = true)
+    int removeRoles(Collection<Long> ids, Collection<Long> roleIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_roles"))
+    @Query(value = "DELETE FROM user_roles WHERE user_id IN (:ids)", nativeQuery = true)
+    int removeAllRoles(Collection<Long> ids);
+}
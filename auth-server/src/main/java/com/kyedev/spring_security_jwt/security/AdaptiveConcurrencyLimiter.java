@@ -0,0 +1,127 @@
+package com.kyedev.spring_security_jwt.security;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Concurrency limit that adapts to latency, after the gradient controller of Netflix's concurrency-limits.
+// A long-term average RTT stands in for the no-load latency; while recent latency stays within
+// `tolerance` of it the limit grows by sqrt(limit), and as queueing pushes latency up the gradient
+// (long / short RTT) shrinks the limit down to as little as half. Requests over the limit are rejected
+// immediately instead of queueing on a slow dependency.
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    // Guarded by this
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(
+            String name,
+            int initialLimit,
+            int minLimit,
+            int maxLimit,
+            double tolerance,
+            double smoothing
+    ) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid limits for " + name + ": require 1 <= min <= initial <= max");
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return true;
+            }
+        }
+    }
+
+    // dropped: the request failed in a way that suggests overload (5xx, exception)
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightAtRelease = inFlight.getAndDecrement();
+        onSample(rttNanos, inFlightAtRelease, dropped);
+    }
+
+    synchronized void onSample(long rttNanos, int inFlightAtRelease, boolean dropped) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        shortRttNanos = ema(shortRttNanos, rttNanos, SHORT_WINDOW);
+        longRttNanos = ema(longRttNanos, rttNanos, LONG_WINDOW);
+
+        // After a sustained slowdown the long average lags far behind, let it recover toward the current latency
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        double newLimit;
+        if (dropped) {
+            newLimit = estimatedLimit * DROP_BACKOFF;
+        } else if (inFlightAtRelease < estimatedLimit / 2) {
+            // Not using the current limit, so latency says nothing about whether a higher one is safe
+            return;
+        } else {
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+            newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public synchronized Map<String, Object> snapshot() {
+        return Map.of(
+                "limit", limit,
+                "inFlight", inFlight.get(),
+                "accepted", accepted.sum(),
+                "rejected", rejected.sum(),
+                "shortRttMillis", shortRttNanos / 1_000_000,
+                "longRttMillis", longRttNanos / 1_000_000
+        );
+    }
+
+    private static double ema(double current, long sample, int window) {
+        return current == 0 ? sample : current + (sample - current) * 2.0 / (window + 1);
+    }
+}
@@ -0,0 +1,60 @@
+package com.kyedev.spring_security_jwt.security;
+
+import com.kyedev.spring_security_jwt.service.ApiKeyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Authenticates partner calls carrying an X-API-Key header from ApiKeyService's in-memory index.
+// Requests without the header pass through untouched to JwtAuthenticationFilter.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-API-Key";
+
+    private final ApiKeyService apiKeyService;
+    private final PublicRouteMatcher publicRouteMatcher;
+    private final CompiledRoleHierarchy roleHierarchy;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return request.getHeader(HEADER) == null || publicRouteMatcher.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            ApiKeyService.Principal principal = apiKeyService.resolve(request.getHeader(HEADER));
+            if (principal != null) {
+                RoleBitsAuthenticationToken authToken = new RoleBitsAuthenticationToken(
+                        principal.name(),
+                        null,
+                        roleHierarchy.expand(principal.roleMask()),
+                        principal.authorities()
+                );
+                authToken.setDetails(new WebAuthenticationDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                log.debug("Authentication Successfully for API key of {}", principal.name());
+            } else {
+                log.debug("Unknown, malformed or revoked API key");
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
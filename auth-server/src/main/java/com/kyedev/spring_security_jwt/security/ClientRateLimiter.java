@@ -0,0 +1,61 @@
+package com.kyedev.spring_security_jwt.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.kyedev.spring_security_jwt.service.BoundedCaches;
+
+import java.time.Duration;
+
+// Token bucket per client key (usually the remote address): up to burst requests at once, refilled at
+// permitsPerPeriod per period. A bucket idle long enough to refill completely carries no state and is
+// dropped; beyond maxClients the least recently and frequently used buckets are evicted one at a time,
+// so a flood of new addresses never resets the buckets of clients that are being throttled.
+public class ClientRateLimiter {
+
+    private final int burst;
+    private final double permitsPerNano;
+    private final Cache<String, Bucket> buckets;
+
+    public ClientRateLimiter(int burst, int permitsPerPeriod, Duration period, int maxClients) {
+        this.burst = burst;
+        this.permitsPerNano = (double) permitsPerPeriod / period.toNanos();
+        this.buckets = BoundedCaches.expiringAfterAccess(maxClients, Duration.ofNanos((long) Math.ceil(burst / permitsPerNano)));
+    }
+
+    public boolean tryAcquire(String client) {
+        long now = System.nanoTime();
+        return buckets.get(client, ignored -> new Bucket(burst, now)).tryAcquire(now);
+    }
+
+    // Seconds until the client has a permit again, for Retry-After
+    public long retryAfterSeconds() {
+        return Math.max(1, (long) Math.ceil(1 / permitsPerNano / 1_000_000_000d));
+    }
+
+    int trackedClients() {
+        return (int) buckets.estimatedSize();
+    }
+
+    private final class Bucket {
+        private double permits;
+        private long refilledAt;
+
+        Bucket(double permits, long now) {
+            this.permits = permits;
+            this.refilledAt = now;
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            refill(now);
+            if (permits < 1) {
+                return false;
+            }
+            permits--;
+            return true;
+        }
+
+        private void refill(long now) {
+            permits = Math.min(burst, permits + (now - refilledAt) * permitsPerNano);
+            refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.kyedev.spring_security_jwt.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+// Role hierarchy declared once (e.g. "ROLE_ADMIN > ROLE_MODERATOR > ROLE_USER") and compiled against the
+// RoleRegistry bit positions. The transitive closure is precomputed, so expanding a principal's roles and
+// answering hasRole/hasAnyRole are plain bitwise operations.
+@Component
+public class CompiledRoleHierarchy {
+
+    private final RoleRegistry roleRegistry;
+    // impliedByBit[i] = mask of role i plus every role it (transitively) includes
+    private final long[] impliedByBit;
+    // Closure for every possible mask when the registry is small enough, empty otherwise
+    private final long[] closureByMask;
+
+    public CompiledRoleHierarchy(
+            RoleRegistry roleRegistry,
+            @Value("${app.security.role-hierarchy:ROLE_ADMIN > ROLE_MODERATOR > ROLE_USER, ROLE_ADMIN > ROLE_VERIFIER}") String hierarchy
+    ) {
+        this.roleRegistry = roleRegistry;
+        int roles = roleRegistry.getRoleNames().size();
+        this.impliedByBit = new long[roles];
+        for (int bit = 0; bit < roles; bit++) {
+            impliedByBit[bit] = 1L << bit;
+        }
+        parse(hierarchy);
+        computeTransitiveClosure();
+
+        int combinations = roles <= 12 ? 1 << roles : 0;
+        this.closureByMask = new long[combinations];
+        for (int mask = 0; mask < combinations; mask++) {
+            closureByMask[mask] = expandBits(mask);
+        }
+    }
+
+    // Each line or "," separated chain reads "A > B > C": A includes B, B includes C
+    private void parse(String hierarchy) {
+        for (String chain : hierarchy.split("[\\n,]")) {
+            String[] roles = chain.split(">");
+            for (int i = 0; i < roles.length - 1; i++) {
+                int higher = requireBit(roles[i].trim());
+                int lower = requireBit(roles[i + 1].trim());
+                impliedByBit[higher] |= 1L << lower;
+            }
+        }
+    }
+
+    private void computeTransitiveClosure() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int bit = 0; bit < impliedByBit.length; bit++) {
+                long expanded = expandOnce(impliedByBit[bit]);
+                if (expanded != impliedByBit[bit]) {
+                    impliedByBit[bit] = expanded;
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    private long expandOnce(long mask) {
+        long expanded = mask;
+        for (int bit = 0; bit < impliedByBit.length; bit++) {
+            if ((mask & (1L << bit)) != 0) {
+                expanded |= impliedByBit[bit];
+            }
+        }
+        return expanded;
+    }
+
+    private long expandBits(long mask) {
+        long expanded = 0L;
+        for (int bit = 0; bit < impliedByBit.length; bit++) {
+            if ((mask & (1L << bit)) != 0) {
+                expanded |= impliedByBit[bit];
+            }
+        }
+        return expanded;
+    }
+
+    // Directly held roles to effective roles
+    public long expand(long mask) {
+        if (mask >= 0 && mask < closureByMask.length) {
+            return closureByMask[(int) mask];
+        }
+        return expandBits(mask);
+    }
+
+    // Effective role bits of an authentication, computed at authentication time when possible
+    public long effectiveBits(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return 0L;
+        }
+        if (authentication instanceof RoleBitsAuthenticationToken token) {
+            return token.getRoleBits();
+        }
+        return expand(roleRegistry.maskOf(authentication.getAuthorities()));
+    }
+
+    // Accepts "ADMIN" or "ROLE_ADMIN", like hasRole/hasAnyRole
+    public long requiredMask(String... roles) {
+        long mask = 0L;
+        for (String role : roles) {
+            mask |= 1L << requireBit(RoleNames.withPrefix(role));
+        }
+        return mask;
+    }
+
+    public <T> RoleBitsAuthorizationManager<T> hasRole(String role) {
+        return new RoleBitsAuthorizationManager<>(this, requiredMask(role));
+    }
+
+    public <T> RoleBitsAuthorizationManager<T> hasAnyRole(String... roles) {
+        return new RoleBitsAuthorizationManager<>(this, requiredMask(roles));
+    }
+
+    private int requireBit(String roleName) {
+        int bit = roleRegistry.bitOf(roleName);
+        if (bit < 0) {
+            throw new IllegalArgumentException("Role " + roleName + " is not in jwt.claims.role-registry");
+        }
+        return bit;
+    }
+}
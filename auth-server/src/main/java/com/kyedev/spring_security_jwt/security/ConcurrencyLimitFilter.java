@@ -0,0 +1,120 @@
+package com.kyedev.spring_security_jwt.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kyedev.spring_security_jwt.dto.response.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+// Load shedding ahead of JwtAuthenticationFilter. Login and register (BCrypt, user writes) and every other
+// non-public route get their own adaptive limit; once in-flight requests reach it, more are answered with
+// 503 straight away instead of piling up on Tomcat threads behind a slow database.
+@Component
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> EXPENSIVE_ROUTES = Set.of("/api/v1/auth/login", "/api/v1/auth/register");
+    private static final String AUTH_ROUTES = "/api/v1/auth/";
+
+    private final PublicRouteMatcher publicRouteMatcher;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final AdaptiveConcurrencyLimiter expensiveLimiter;
+    private final AdaptiveConcurrencyLimiter standardLimiter;
+
+    public ConcurrencyLimitFilter(
+            PublicRouteMatcher publicRouteMatcher,
+            ObjectMapper objectMapper,
+            @Value("${app.concurrency-limit.enabled:true}") boolean enabled,
+            @Value("${app.concurrency-limit.tolerance:1.5}") double tolerance,
+            @Value("${app.concurrency-limit.smoothing:0.2}") double smoothing,
+            @Value("${app.concurrency-limit.expensive.initial-limit:20}") int expensiveInitial,
+            @Value("${app.concurrency-limit.expensive.min-limit:2}") int expensiveMin,
+            @Value("${app.concurrency-limit.expensive.max-limit:100}") int expensiveMax,
+            @Value("${app.concurrency-limit.standard.initial-limit:100}") int standardInitial,
+            @Value("${app.concurrency-limit.standard.min-limit:10}") int standardMin,
+            @Value("${app.concurrency-limit.standard.max-limit:1000}") int standardMax
+    ) {
+        this.publicRouteMatcher = publicRouteMatcher;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.expensiveLimiter = new AdaptiveConcurrencyLimiter(
+                "expensive", expensiveInitial, expensiveMin, expensiveMax, tolerance, smoothing);
+        this.standardLimiter = new AdaptiveConcurrencyLimiter(
+                "standard", standardInitial, standardMin, standardMax, tolerance, smoothing);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = limiterFor(request);
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!limiter.tryAcquire()) {
+            reject(response, limiter);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        } finally {
+            limiter.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    // Health, docs and other public routes are never shed; /auth routes other than login/register
+    // (refresh, logout) count as standard traffic
+    private AdaptiveConcurrencyLimiter limiterFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (EXPENSIVE_ROUTES.contains(path)) {
+            return expensiveLimiter;
+        }
+        if (path.startsWith(AUTH_ROUTES) || !publicRouteMatcher.matches(request)) {
+            return standardLimiter;
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, AdaptiveConcurrencyLimiter limiter) throws IOException {
+        log.warn("Shedding request: {} concurrency limit {} reached", limiter.getName(), limiter.getLimit());
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(
+                "Server is overloaded, please retry shortly",
+                HttpServletResponse.SC_SERVICE_UNAVAILABLE
+        ));
+    }
+
+    public Map<String, Map<String, Object>> stats() {
+        return Map.of(
+                expensiveLimiter.getName(), expensiveLimiter.snapshot(),
+                standardLimiter.getName(), standardLimiter.snapshot()
+        );
+    }
+}
@@ -0,0 +1,154 @@
+package com.kyedev.spring_security_jwt.security;
+
+import com.kyedev.spring_security_jwt.service.JwtService;
+import com.kyedev.spring_security_jwt.service.RevocationFeed;
+import com.kyedev.spring_security_jwt.service.ServiceClientService;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private final JwtService jwtService;
+    private final UserDetailsService userDetailsService;
+    private final PublicRouteMatcher publicRouteMatcher;
+    private final RoleRegistry roleRegistry;
+    private final CompiledRoleHierarchy roleHierarchy;
+    private final ReferenceTokenStore referenceTokenStore;
+    private final ServiceClientService serviceClientService;
+    private final RevocationFeed revocationFeed;
+
+    // Public routes never need an authentication, so stale Bearer headers on them are not parsed,
+    // verified or backed by a user lookup
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return publicRouteMatcher.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(
+          @NonNull HttpServletRequest request,
+          @NonNull  HttpServletResponse response,
+          @NonNull  FilterChain filterChain
+    ) throws ServletException, IOException {
+        final String header = request.getHeader("Authorization");
+        final String jwt;
+        final String username;
+
+        // Check if Authorization header is present and valid
+        if (header == null || !header.startsWith("Bearer ")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        jwt = header.substring(7);
+
+        // Opaque reference tokens resolve from memory, no signature check or user lookup
+        if (ReferenceTokenStore.isReferenceToken(jwt)) {
+            authenticateReferenceToken(jwt, request);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            Claims claims = jwtService.extractAllClaims(jwt);
+
+            // Client-credentials tokens name a service client, never a user
+            String clientId = jwtService.extractClientId(claims);
+            if (clientId != null) {
+                authenticateClient(clientId, claims, request);
+            }
+            username = clientId == null ? claims.getSubject() : null;
+
+            // The token carries everything needed: no user lookup, roles straight from its role mask
+            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                Long userId = jwtService.extractUserId(claims);
+                if (isAvailable(username, userId, claims)) {
+                    RoleBitsAuthenticationToken authToken = new RoleBitsAuthenticationToken(
+                            username,
+                            userId,
+                            roleHierarchy.expand(jwtService.extractRoleMask(claims)),
+                            jwtService.extractAuthorities(claims)
+                    );
+
+                    authToken.setDetails(
+                            new WebAuthenticationDetails(request)
+                    );
+
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    log.debug("Authentication Successfully for user {}", username);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Cannot set user authentication: {}", e.getMessage());
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // A disabled or deleted account, a demoted user and a revoked session all lose access right away,
+    // not when the token expires. With the revocation feed on, those are all events it already holds in
+    // memory; without it the account is loaded to check it is still enabled.
+    private boolean isAvailable(String username, Long userId, Claims claims) {
+        if (revocationFeed.isEnabled()) {
+            return userId != null && !revocationFeed.denies(userId, jwtService.extractSessionId(claims),
+                    jwtService.extractIssuedAtMillis(claims));
+        }
+        return userDetailsService.loadUserByUsername(username).isEnabled();
+    }
+
+    // The client must still be enabled; expiry was already checked when the claims were parsed
+    private void authenticateClient(String clientId, Claims claims, HttpServletRequest request) {
+        if (SecurityContextHolder.getContext().getAuthentication() != null || !serviceClientService.isActive(clientId)) {
+            return;
+        }
+        List<GrantedAuthority> authorities = jwtService.extractAuthorities(claims);
+        RoleBitsAuthenticationToken authToken = new RoleBitsAuthenticationToken(
+                clientId,
+                null,
+                roleHierarchy.expand(roleRegistry.maskOf(authorities)),
+                authorities
+        );
+        authToken.setDetails(new WebAuthenticationDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+        log.debug("Authentication Successfully for service client {}", clientId);
+    }
+
+    private void authenticateReferenceToken(String token, HttpServletRequest request) {
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            return;
+        }
+        ReferenceTokenStore.Principal principal = referenceTokenStore.resolve(token);
+        if (principal == null) {
+            log.debug("Unknown, expired or revoked reference token");
+            return;
+        }
+        RoleBitsAuthenticationToken authToken = new RoleBitsAuthenticationToken(
+                principal.username(),
+                principal.userId(),
+                roleHierarchy.expand(principal.roleMask()),
+                roleRegistry.authoritiesOf(principal.roleMask())
+        );
+        authToken.setDetails(new WebAuthenticationDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+        log.debug("Authentication Successfully for user {} (reference token)", principal.username());
+    }
+}
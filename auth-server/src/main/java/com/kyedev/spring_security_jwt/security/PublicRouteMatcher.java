@@ -0,0 +1,107 @@
+package com.kyedev.spring_security_jwt.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Public endpoints compiled once into a character trie. Matching walks the request path a single time
+// without allocating, so it is cheap enough to run for every request in JwtAuthenticationFilter.
+// Supports literal paths and literal prefixes ending in "/**".
+@Component
+public class PublicRouteMatcher implements RequestMatcher {
+
+    // Public endpoints that don't require authentication
+    public static final List<String> PUBLIC_URLS = List.of(
+            "/api/v1/auth/**",
+            "/api/v1/public/**",
+            "/actuator/**",
+            "/swagger-ui/**",
+            "/v3/api-docs/**"
+    );
+
+    private final Node root = new Node();
+
+    public PublicRouteMatcher() {
+        this(PUBLIC_URLS);
+    }
+
+    PublicRouteMatcher(List<String> patterns) {
+        patterns.forEach(this::add);
+    }
+
+    private void add(String pattern) {
+        boolean prefix = pattern.endsWith("/**");
+        String literal = prefix ? pattern.substring(0, pattern.length() - 3) : pattern;
+        if (literal.contains("*") || literal.contains("{")) {
+            throw new IllegalArgumentException("Only literal paths and '/**' prefixes are supported: " + pattern);
+        }
+        Node node = root;
+        for (int i = 0; i < literal.length(); i++) {
+            node = node.childOrCreate(literal.charAt(i));
+        }
+        if (prefix) {
+            node.prefixEnd = true;
+        } else {
+            node.exactEnd = true;
+        }
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        int offset = request.getContextPath() == null ? 0 : request.getContextPath().length();
+        return matches(uri, offset);
+    }
+
+    public boolean matches(String path) {
+        return matches(path, 0);
+    }
+
+    private boolean matches(String path, int offset) {
+        Node node = root;
+        for (int i = offset; i < path.length(); i++) {
+            // "/prefix/**" covers "/prefix" itself and anything below "/prefix/"
+            if (node.prefixEnd && path.charAt(i) == '/') {
+                return true;
+            }
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                return false;
+            }
+        }
+        return node.prefixEnd || node.exactEnd;
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private boolean prefixEnd;
+        private boolean exactEnd;
+
+        // Fan-out is tiny for route tables, so a linear scan beats hashing
+        Node child(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node childOrCreate(char c) {
+            Node existing = child(c);
+            if (existing != null) {
+                return existing;
+            }
+            Node created = new Node();
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = c;
+            children[children.length - 1] = created;
+            return created;
+        }
+    }
+}
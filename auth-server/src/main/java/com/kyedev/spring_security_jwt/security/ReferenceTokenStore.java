@@ -0,0 +1,176 @@
+package com.kyedev.spring_security_jwt.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// In-memory store for opaque reference access tokens. Tokens are random and only their SHA-256 is kept,
+// so resolving one is a single hash plus a map lookup and revoking one takes effect immediately.
+// Entries are indexed by expiry bucket, so the sweeper drops whole buckets instead of scanning the map.
+// The store is per instance: reference tokens only resolve on the node that issued them.
+@Component
+@Slf4j
+public class ReferenceTokenStore {
+
+    public static final String TOKEN_PREFIX = "ref_";
+
+    // What a reference token resolves to: enough to authenticate without loading the user
+    public record Principal(long userId, String username, long roleMask, long sessionId, long expiresAtMillis) {
+    }
+
+    // First 128 bits of the token digest
+    private record Key(long high, long low) {
+    }
+
+    private final Map<Key, Principal>[] shards;
+    private final int shardMask;
+    private final long bucketMillis;
+    // Expiry bucket (expiresAt / bucketMillis) -> keys expiring within it
+    private final ConcurrentHashMap<Long, ConcurrentLinkedQueue<Key>> expiryBuckets = new ConcurrentHashMap<>();
+    // Refresh token id -> access token currently issued for that session
+    private final ConcurrentHashMap<Long, Key> sessions = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public ReferenceTokenStore(
+            @Value("${app.reference-tokens.shards:16}") int shardCount,
+            @Value("${app.reference-tokens.expiry-bucket:1m}") Duration expiryBucket
+    ) {
+        int shardsPowerOfTwo = shardCount <= 1 ? 1 : Integer.highestOneBit((shardCount - 1) << 1);
+        this.shards = new Map[shardsPowerOfTwo];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+        this.shardMask = shardsPowerOfTwo - 1;
+        this.bucketMillis = expiryBucket.toMillis();
+    }
+
+    // Issues a new token for the session, replacing the one previously issued for it
+    public String issue(long userId, String username, long roleMask, long sessionId, Duration ttl) {
+        String token = TOKEN_PREFIX + TokenDigests.randomToken();
+
+        Key key = keyOf(token);
+        long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        shard(key).put(key, new Principal(userId, username, roleMask, sessionId, expiresAt));
+        expiryBuckets.computeIfAbsent(expiresAt / bucketMillis, bucket -> new ConcurrentLinkedQueue<>()).add(key);
+
+        Key previous = sessions.put(sessionId, key);
+        if (previous != null) {
+            shard(previous).remove(previous);
+        }
+        return token;
+    }
+
+    public Principal resolve(String token) {
+        if (!isReferenceToken(token)) {
+            return null;
+        }
+        Key key = keyOf(token);
+        Principal principal = shard(key).get(key);
+        if (principal == null) {
+            return null;
+        }
+        if (principal.expiresAtMillis() <= System.currentTimeMillis()) {
+            remove(key, principal);
+            return null;
+        }
+        return principal;
+    }
+
+    public void revoke(String token) {
+        if (!isReferenceToken(token)) {
+            return;
+        }
+        Key key = keyOf(token);
+        Principal principal = shard(key).get(key);
+        if (principal != null) {
+            remove(key, principal);
+        }
+    }
+
+    // Called when the refresh token backing a session is revoked
+    public void revokeSession(long sessionId) {
+        Key key = sessions.remove(sessionId);
+        if (key != null) {
+            shard(key).remove(key);
+        }
+    }
+
+    // One pass over the store for bulk admin operations; returns how many tokens were revoked
+    public int revokeUsers(Set<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        int revoked = 0;
+        for (Map<Key, Principal> shard : shards) {
+            for (Map.Entry<Key, Principal> entry : shard.entrySet()) {
+                if (userIds.contains(entry.getValue().userId()) && remove(entry.getKey(), entry.getValue())) {
+                    revoked++;
+                }
+            }
+        }
+        return revoked;
+    }
+
+    public static boolean isReferenceToken(String token) {
+        return token != null && token.startsWith(TOKEN_PREFIX);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<Key, Principal> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    // Drops every bucket that has fully expired; entries revoked or replaced earlier are simply absent
+    @Scheduled(fixedDelayString = "${app.reference-tokens.sweep-interval:30s}")
+    public void sweepExpired() {
+        long now = System.currentTimeMillis();
+        long currentBucket = now / bucketMillis;
+        int removed = 0;
+        for (Long bucket : expiryBuckets.keySet()) {
+            if (bucket >= currentBucket) {
+                continue;
+            }
+            ConcurrentLinkedQueue<Key> keys = expiryBuckets.remove(bucket);
+            if (keys == null) {
+                continue;
+            }
+            for (Key key : keys) {
+                Principal principal = shard(key).get(key);
+                if (principal != null && principal.expiresAtMillis() <= now && remove(key, principal)) {
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            log.debug("Swept {} expired reference tokens", removed);
+        }
+    }
+
+    private boolean remove(Key key, Principal principal) {
+        if (!shard(key).remove(key, principal)) {
+            return false;
+        }
+        sessions.remove(principal.sessionId(), key);
+        return true;
+    }
+
+    private Map<Key, Principal> shard(Key key) {
+        return shards[(int) key.low() & shardMask];
+    }
+
+    private static Key keyOf(String token) {
+        ByteBuffer hash = ByteBuffer.wrap(TokenDigests.sha256(token));
+        return new Key(hash.getLong(), hash.getLong());
+    }
+}
@@ -0,0 +1,18 @@
+package com.kyedev.spring_security_jwt.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Method security without SpEL: access is granted when the caller has any of the listed roles
+// (hierarchy applied). A method-level annotation replaces the class-level one.
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequireRole {
+
+    // Role names with or without the ROLE_ prefix
+    String[] value();
+}
@@ -0,0 +1,55 @@
+package com.kyedev.spring_security_jwt.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Resolves @RequireRole once per method into a role mask; every later call is a map lookup and an AND
+public class RequireRoleAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final long NO_REQUIREMENT = -1L;
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final Supplier<CompiledRoleHierarchy> roleHierarchy;
+    private final ConcurrentHashMap<Method, Long> masksByMethod = new ConcurrentHashMap<>();
+
+    public RequireRoleAuthorizationManager(Supplier<CompiledRoleHierarchy> roleHierarchy) {
+        this.roleHierarchy = roleHierarchy;
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        long requiredMask = masksByMethod.computeIfAbsent(invocation.getMethod(), method -> resolveMask(method, invocation));
+        if (requiredMask == NO_REQUIREMENT) {
+            return null;
+        }
+        return (roleHierarchy.get().effectiveBits(authentication.get()) & requiredMask) != 0 ? GRANTED : DENIED;
+    }
+
+    // Still abstract in AuthorizationManager; Spring Security itself only calls authorize
+    @Deprecated
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        return (AuthorizationDecision) authorize(authentication, invocation);
+    }
+
+    private long resolveMask(Method method, MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis()) : method.getDeclaringClass();
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+
+        RequireRole annotation = AnnotatedElementUtils.findMergedAnnotation(specificMethod, RequireRole.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, RequireRole.class);
+        }
+        return annotation == null ? NO_REQUIREMENT : roleHierarchy.get().requiredMask(annotation.value());
+    }
+}
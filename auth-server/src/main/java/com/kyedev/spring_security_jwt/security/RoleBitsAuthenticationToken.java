@@ -0,0 +1,27 @@
+package com.kyedev.spring_security_jwt.security;
+
+import lombok.Getter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+// Authentication carrying the principal's effective roles (hierarchy already applied) as a bitset,
+// so authorization checks never walk the authority collection
+@Getter
+public class RoleBitsAuthenticationToken extends UsernamePasswordAuthenticationToken {
+
+    private final Long userId;
+    private final long roleBits;
+
+    public RoleBitsAuthenticationToken(
+            Object principal,
+            Long userId,
+            long roleBits,
+            Collection<? extends GrantedAuthority> authorities
+    ) {
+        super(principal, null, authorities);
+        this.userId = userId;
+        this.roleBits = roleBits;
+    }
+}
@@ -0,0 +1,35 @@
+package com.kyedev.spring_security_jwt.security;
+
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+
+import java.util.function.Supplier;
+
+// hasRole/hasAnyRole answered with a single AND against the principal's precomputed role bits
+public class RoleBitsAuthorizationManager<T> implements AuthorizationManager<T> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final CompiledRoleHierarchy roleHierarchy;
+    private final long requiredMask;
+
+    RoleBitsAuthorizationManager(CompiledRoleHierarchy roleHierarchy, long requiredMask) {
+        this.roleHierarchy = roleHierarchy;
+        this.requiredMask = requiredMask;
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, T object) {
+        return (roleHierarchy.effectiveBits(authentication.get()) & requiredMask) != 0 ? GRANTED : DENIED;
+    }
+
+    // Still abstract in AuthorizationManager; Spring Security itself only calls authorize
+    @Deprecated
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, T object) {
+        return (AuthorizationDecision) authorize(authentication, object);
+    }
+}
@@ -0,0 +1,22 @@
+package com.kyedev.spring_security_jwt.security;
+
+import java.util.Locale;
+
+// Role names as stored and granted carry Spring Security's "ROLE_" prefix; callers may give either form
+public final class RoleNames {
+
+    public static final String PREFIX = "ROLE_";
+
+    private RoleNames() {
+    }
+
+    // For names from requests: "admin", " Admin " and "ROLE_ADMIN" all become "ROLE_ADMIN"
+    public static String normalize(String name) {
+        return withPrefix(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    // Adds the prefix when missing and otherwise keeps the name as given, like hasRole/hasAnyRole
+    public static String withPrefix(String role) {
+        return role.startsWith(PREFIX) ? role : PREFIX + role;
+    }
+}
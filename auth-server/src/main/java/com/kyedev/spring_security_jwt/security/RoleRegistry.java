@@ -0,0 +1,104 @@
+package com.kyedev.spring_security_jwt.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Fixed ordering of role names; a role's position is its bit in compact role masks.
+// Append new roles at the end so masks in already issued tokens keep their meaning.
+@Component
+public class RoleRegistry {
+
+    // Every combination is precomputed up to this many roles, beyond that masks are decoded on demand
+    private static final int PRECOMPUTED_ROLE_LIMIT = 12;
+
+    private final List<String> roleNames;
+    private final Map<String, Integer> bitByName = new HashMap<>();
+    private final List<String>[] namesByMask;
+    private final List<GrantedAuthority>[] authoritiesByMask;
+
+    @SuppressWarnings("unchecked")
+    public RoleRegistry(@Value("${jwt.claims.role-registry:ROLE_USER,ROLE_MODERATOR,ROLE_ADMIN,ROLE_VERIFIER}") List<String> roleNames) {
+        if (roleNames.size() > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " roles can be registered");
+        }
+        this.roleNames = List.copyOf(roleNames);
+        for (int i = 0; i < this.roleNames.size(); i++) {
+            bitByName.put(this.roleNames.get(i), i);
+        }
+
+        int combinations = this.roleNames.size() <= PRECOMPUTED_ROLE_LIMIT ? 1 << this.roleNames.size() : 0;
+        this.namesByMask = new List[combinations];
+        this.authoritiesByMask = new List[combinations];
+        for (int mask = 0; mask < combinations; mask++) {
+            namesByMask[mask] = decodeNames(mask);
+            authoritiesByMask[mask] = namesByMask[mask].stream()
+                    .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                    .toList();
+        }
+    }
+
+    public List<String> getRoleNames() {
+        return roleNames;
+    }
+
+    // Returns -1 for roles that are not registered
+    public int bitOf(String roleName) {
+        Integer bit = bitByName.get(roleName);
+        return bit == null ? -1 : bit;
+    }
+
+    public long maskOf(Collection<? extends GrantedAuthority> authorities) {
+        long mask = 0L;
+        for (GrantedAuthority authority : authorities) {
+            mask |= maskOfName(authority.getAuthority());
+        }
+        return mask;
+    }
+
+    public long maskOfNames(Collection<String> names) {
+        long mask = 0L;
+        for (String name : names) {
+            mask |= maskOfName(name);
+        }
+        return mask;
+    }
+
+    public long maskOfName(String name) {
+        int bit = bitOf(name);
+        return bit < 0 ? 0L : 1L << bit;
+    }
+
+    public List<String> namesOf(long mask) {
+        if (mask >= 0 && mask < namesByMask.length) {
+            return namesByMask[(int) mask];
+        }
+        return decodeNames(mask);
+    }
+
+    public List<GrantedAuthority> authoritiesOf(long mask) {
+        if (mask >= 0 && mask < authoritiesByMask.length) {
+            return authoritiesByMask[(int) mask];
+        }
+        return decodeNames(mask).stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+
+    private List<String> decodeNames(long mask) {
+        List<String> names = new ArrayList<>(Long.bitCount(mask));
+        for (int bit = 0; bit < roleNames.size(); bit++) {
+            if ((mask & (1L << bit)) != 0) {
+                names.add(roleNames.get(bit));
+            }
+        }
+        return List.copyOf(names);
+    }
+}
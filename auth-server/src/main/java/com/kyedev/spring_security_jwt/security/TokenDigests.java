@@ -0,0 +1,50 @@
+package com.kyedev.spring_security_jwt.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+// Random opaque tokens and the SHA-256 digests they are stored under. Tokens carry 256 bits of entropy,
+// so a plain (unsalted, fast) digest is enough to make stored values useless without the token itself.
+public final class TokenDigests {
+
+    public static final int TOKEN_BYTES = 32;
+    public static final int DIGEST_BYTES = 32;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    // One generator per thread: no lock shared between request threads, and never blocks on entropy
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(TokenDigests::newRandom);
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private TokenDigests() {
+    }
+
+    // 256 random bits, URL-safe base64 without padding (43 characters)
+    public static String randomToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.get().nextBytes(bytes);
+        return ENCODER.encodeToString(bytes);
+    }
+
+    public static byte[] sha256(String token) {
+        return SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SecureRandom newRandom() {
+        try {
+            return SecureRandom.getInstance("NativePRNGNonBlocking");
+        } catch (NoSuchAlgorithmException e) {
+            // Not available outside Unix-like systems; the default is non-blocking there too
+            return new SecureRandom();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.dto.response.AvailabilityResponse;
+import com.kyedev.spring_security_jwt.exceptions.BadRequestException;
+import com.kyedev.spring_security_jwt.exceptions.TooManyRequestsException;
+import com.kyedev.spring_security_jwt.repository.UserRepository;
+import com.kyedev.spring_security_jwt.security.ClientRateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Username/email availability for the sign-up form. Bloom filters of every normalized username and email
+// answer "definitely free" from memory; only possible hits are checked against the database. Bloom filters
+// cannot forget, so deletes only mark them stale and they are rebuilt in the background. Registration
+// still enforces uniqueness, the answer here is a hint.
+@Service
+@Slf4j
+public class AccountAvailabilityService {
+
+    private record Filters(BloomFilter usernames, BloomFilter emails, long builtAtMillis) {
+
+        void add(String username, String email) {
+            if (username != null) {
+                usernames.add(normalize(username));
+            }
+            if (email != null) {
+                emails.add(normalize(email));
+            }
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final ClientRateLimiter rateLimiter;
+    private final double falsePositiveRate;
+    private final int batchSize;
+    private final long maxAgeMillis;
+
+    // Null until the first build has finished; until then every check goes to the database
+    private volatile Filters current;
+    // Non-null while a rebuild runs, so additions made meanwhile land in the new filters as well
+    private volatile Filters building;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicBoolean stale = new AtomicBoolean();
+
+    private final LongAdder answeredFromFilter = new LongAdder();
+    private final LongAdder databaseChecks = new LongAdder();
+
+    public AccountAvailabilityService(
+            UserRepository userRepository,
+            @Value("${app.availability.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${app.availability.rebuild-batch-size:1000}") int batchSize,
+            @Value("${app.availability.max-age:1h}") Duration maxAge,
+            @Value("${app.availability.rate-limit.burst:10}") int burst,
+            @Value("${app.availability.rate-limit.permits-per-minute:30}") int permitsPerMinute,
+            @Value("${app.availability.rate-limit.max-clients:100000}") int maxClients
+    ) {
+        this.userRepository = userRepository;
+        this.falsePositiveRate = falsePositiveRate;
+        this.batchSize = batchSize;
+        this.maxAgeMillis = maxAge.toMillis();
+        this.rateLimiter = new ClientRateLimiter(burst, permitsPerMinute, Duration.ofMinutes(1), maxClients);
+    }
+
+    public AvailabilityResponse check(String clientAddress, String username, String email) {
+        boolean hasUsername = username != null && !username.isBlank();
+        boolean hasEmail = email != null && !email.isBlank();
+        if (!hasUsername && !hasEmail) {
+            throw new BadRequestException("Provide a username, an email or both");
+        }
+        // Throttled per client so the endpoint cannot be used to enumerate accounts
+        if (!rateLimiter.tryAcquire(clientAddress)) {
+            throw new TooManyRequestsException("Too many availability checks, please slow down",
+                    rateLimiter.retryAfterSeconds());
+        }
+
+        Filters filters = current;
+        AvailabilityResponse.AvailabilityResponseBuilder response = AvailabilityResponse.builder();
+        if (hasUsername) {
+            String value = username.trim();
+            response.username(value).usernameAvailable(
+                    isFree(filters == null ? null : filters.usernames(), value, userRepository::existsByUsername));
+        }
+        if (hasEmail) {
+            String value = email.trim();
+            response.email(value).emailAvailable(
+                    isFree(filters == null ? null : filters.emails(), value, userRepository::existsByEmail));
+        }
+        return response.build();
+    }
+
+    private boolean isFree(BloomFilter filter, String value, Function<String, Boolean> exists) {
+        if (filter != null && !filter.mightContain(normalize(value))) {
+            answeredFromFilter.increment();
+            return true;
+        }
+        databaseChecks.increment();
+        return !Boolean.TRUE.equals(exists.apply(value));
+    }
+
+    // Added once the registering transaction has committed, so a concurrent rebuild cannot miss it
+    public void registered(String username, String email) {
+        TransactionCallbacks.afterCommit(() -> {
+            Filters filters = current;
+            if (filters != null) {
+                filters.add(username, email);
+            }
+            Filters next = building;
+            if (next != null) {
+                next.add(username, email);
+            }
+        });
+    }
+
+    public void deleted() {
+        TransactionCallbacks.afterCommit(() -> stale.set(true));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread.ofVirtual().name("availability-filter").start(this::rebuild);
+    }
+
+    // Rebuilds after deletes and periodically, which also picks up users registered on other instances
+    @Scheduled(fixedDelayString = "${app.availability.check-interval:1m}")
+    public void rebuildIfStale() {
+        Filters filters = current;
+        if (filters != null && (stale.get() || System.currentTimeMillis() - filters.builtAtMillis() > maxAgeMillis)) {
+            rebuild();
+        }
+    }
+
+    void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            stale.set(false);
+            long start = System.currentTimeMillis();
+            // Sized with headroom so registrations until the next rebuild keep the false-positive rate
+            long expected = Math.max(10_000, userRepository.count() * 2);
+            Filters next = new Filters(new BloomFilter(expected, falsePositiveRate),
+                    new BloomFilter(expected, falsePositiveRate), start);
+            building = next;
+
+            long lastId = 0;
+            long loaded = 0;
+            List<Object[]> rows;
+            do {
+                rows = userRepository.findIdentifiersAfter(lastId, PageRequest.of(0, batchSize));
+                for (Object[] row : rows) {
+                    lastId = (Long) row[0];
+                    next.add((String) row[1], (String) row[2]);
+                }
+                loaded += rows.size();
+            } while (rows.size() == batchSize);
+
+            current = next;
+            log.info("Availability filters built from {} users in {} ms", loaded, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            // The previous filters (or the database, before the first build) keep answering
+            stale.set(true);
+            log.warn("Rebuilding availability filters failed", e);
+        } finally {
+            building = null;
+            rebuilding.set(false);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Filters filters = current;
+        return Map.of(
+                "ready", filters != null,
+                "answeredFromFilter", answeredFromFilter.sum(),
+                "databaseChecks", databaseChecks.sum(),
+                "filterBits", filters == null ? 0L : filters.usernames().bitCount() + filters.emails().bitCount()
+        );
+    }
+
+    static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,272 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.dto.request.ApiKeyRequest;
+import com.kyedev.spring_security_jwt.dto.response.ApiKeyResponse;
+import com.kyedev.spring_security_jwt.entity.ApiKey;
+import com.kyedev.spring_security_jwt.exceptions.BadRequestException;
+import com.kyedev.spring_security_jwt.exceptions.ResourceNotFoundException;
+import com.kyedev.spring_security_jwt.repository.ApiKeyRepository;
+import com.kyedev.spring_security_jwt.security.RoleNames;
+import com.kyedev.spring_security_jwt.security.RoleRegistry;
+import com.kyedev.spring_security_jwt.security.TokenDigests;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.MessageDigest;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// API keys for partners that cannot run a refresh flow. Active keys are indexed in memory by their
+// prefix, so authenticating one is a map lookup, a SHA-256 of the secret and a constant-time compare,
+// with no database round trip. Keys issued or revoked on other instances are picked up by sync().
+// Usage is counted in memory and written back in batches.
+@Service
+@Slf4j
+public class ApiKeyService {
+
+    public static final String KEY_MARKER = "ak_";
+    private static final int PREFIX_LENGTH = 12;
+    private static final char SEPARATOR = '.';
+    private static final String SCOPE_SEPARATOR = ",";
+    private static final String USAGE_SQL =
+            "UPDATE api_key SET usage_count = usage_count + ?, last_used_at = ? WHERE id = ?";
+
+    // What a key authenticates as, shared by every request made with it
+    public record Principal(String name, long roleMask, List<GrantedAuthority> authorities) {
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final byte[] secretHash;
+        private final Principal principal;
+        private final LongAdder pendingUses = new LongAdder();
+        private volatile long lastUsedMillis;
+
+        Entry(long id, byte[] secretHash, Principal principal) {
+            this.id = id;
+            this.secretHash = secretHash;
+            this.principal = principal;
+        }
+    }
+
+    private final ApiKeyRepository apiKeyRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final RoleRegistry roleRegistry;
+
+    private volatile Map<String, Entry> index = new ConcurrentHashMap<>();
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder usageFlushes = new LongAdder();
+
+    public ApiKeyService(ApiKeyRepository apiKeyRepository, JdbcTemplate jdbcTemplate, RoleRegistry roleRegistry) {
+        this.apiKeyRepository = apiKeyRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.roleRegistry = roleRegistry;
+    }
+
+    public static boolean isApiKey(String value) {
+        return value.startsWith(KEY_MARKER);
+    }
+
+    // Null for malformed, unknown or revoked keys
+    public Principal resolve(String key) {
+        int separator = KEY_MARKER.length() + PREFIX_LENGTH;
+        if (!isApiKey(key) || key.length() <= separator + 1 || key.charAt(separator) != SEPARATOR) {
+            rejected.increment();
+            return null;
+        }
+        Entry entry = index.get(key.substring(KEY_MARKER.length(), separator));
+        if (entry == null
+                || !MessageDigest.isEqual(entry.secretHash, TokenDigests.sha256(key.substring(separator + 1)))) {
+            rejected.increment();
+            return null;
+        }
+        entry.pendingUses.increment();
+        entry.lastUsedMillis = System.currentTimeMillis();
+        accepted.increment();
+        return entry.principal;
+    }
+
+    @Transactional
+    public ApiKeyResponse issue(ApiKeyRequest request) {
+        Set<String> scopes = new LinkedHashSet<>();
+        for (String scope : request.getScopes()) {
+            String name = RoleNames.normalize(scope);
+            if (roleRegistry.bitOf(name) < 0) {
+                throw new BadRequestException("Unknown role: " + name);
+            }
+            scopes.add(name);
+        }
+
+        String prefix = TokenDigests.randomToken().substring(0, PREFIX_LENGTH);
+        String secret = TokenDigests.randomToken();
+        ApiKey apiKey = apiKeyRepository.save(ApiKey.builder()
+                .prefix(prefix)
+                .secretHash(TokenDigests.sha256(secret))
+                .name(request.getName().trim())
+                .scopes(String.join(SCOPE_SEPARATOR, scopes))
+                .revoked(false)
+                .build());
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                index.put(prefix, toEntry(apiKey));
+            }
+        });
+        log.info("API key {} issued to {}", prefix, apiKey.getName());
+
+        ApiKeyResponse response = toResponse(apiKey);
+        response.setKey(KEY_MARKER + prefix + SEPARATOR + secret);
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ApiKeyResponse> findAll() {
+        return apiKeyRepository.findAllByOrderByCreatedAtDesc().stream().map(ApiKeyService::toResponse).toList();
+    }
+
+    // Immediate on this instance, other instances drop the key on their next sync
+    @Transactional
+    public void revoke(Long id) {
+        ApiKey apiKey = apiKeyRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("API key not found"));
+        apiKey.setRevoked(true);
+        TransactionCallbacks.afterCommit(() -> {
+            Entry removed;
+            synchronized (this) {
+                removed = index.remove(apiKey.getPrefix());
+            }
+            if (removed != null) {
+                flushUsage(List.of(removed));
+            }
+        });
+        log.info("API key {} revoked", apiKey.getPrefix());
+    }
+
+    @PostConstruct
+    void load() {
+        sync();
+    }
+
+    // Rebuilds the index from the database. Entries of unchanged keys are carried over with their counters.
+    // Holds the lock while reading, so a local issue or revoke committed meanwhile is applied after it.
+    @Scheduled(fixedDelayString = "${app.api-keys.sync-interval:30s}", initialDelayString = "${app.api-keys.sync-interval:30s}")
+    public synchronized void sync() {
+        try {
+            Map<String, Entry> current = index;
+            Map<String, Entry> next = new ConcurrentHashMap<>();
+            for (ApiKey apiKey : apiKeyRepository.findAllByRevokedFalse()) {
+                Entry existing = current.get(apiKey.getPrefix());
+                next.put(apiKey.getPrefix(), existing != null ? existing : toEntry(apiKey));
+            }
+            index = next;
+            // Keys revoked elsewhere still owe their last uses
+            List<Entry> dropped = new ArrayList<>();
+            current.forEach((prefix, entry) -> {
+                if (!next.containsKey(prefix)) {
+                    dropped.add(entry);
+                }
+            });
+            flushUsage(dropped);
+        } catch (RuntimeException e) {
+            // The current index keeps answering until the next attempt
+            log.warn("Syncing API keys failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.api-keys.usage-flush-interval:10s}")
+    public void flushUsage() {
+        flushUsage(index.values());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushUsage();
+    }
+
+    // One JDBC batch for every key used since the last flush; failed counts are kept for the next one
+    private void flushUsage(Iterable<Entry> entries) {
+        List<Entry> used = new ArrayList<>();
+        List<Long> uses = new ArrayList<>();
+        for (Entry entry : entries) {
+            long count = entry.pendingUses.sumThenReset();
+            if (count > 0) {
+                used.add(entry);
+                uses.add(count);
+            }
+        }
+        if (used.isEmpty()) {
+            return;
+        }
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        try {
+            jdbcTemplate.batchUpdate(USAGE_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setLong(1, uses.get(i));
+                    ps.setTimestamp(2, new Timestamp(used.get(i).lastUsedMillis), utc);
+                    ps.setLong(3, used.get(i).id);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return used.size();
+                }
+            });
+            usageFlushes.increment();
+        } catch (RuntimeException e) {
+            for (int i = 0; i < used.size(); i++) {
+                used.get(i).pendingUses.add(uses.get(i));
+            }
+            log.warn("Writing usage of {} API keys failed: {}", used.size(), e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("activeKeys", index.size());
+        stats.put("accepted", accepted.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("usageFlushes", usageFlushes.sum());
+        return stats;
+    }
+
+    private Entry toEntry(ApiKey apiKey) {
+        List<String> scopes = Arrays.asList(apiKey.getScopes().split(SCOPE_SEPARATOR));
+        long roleMask = roleRegistry.maskOfNames(scopes);
+        return new Entry(apiKey.getId(), apiKey.getSecretHash(),
+                new Principal(apiKey.getName(), roleMask, roleRegistry.authoritiesOf(roleMask)));
+    }
+
+    private static ApiKeyResponse toResponse(ApiKey apiKey) {
+        return ApiKeyResponse.builder()
+                .id(apiKey.getId())
+                .name(apiKey.getName())
+                .prefix(apiKey.getPrefix())
+                .scopes(List.of(apiKey.getScopes().split(SCOPE_SEPARATOR)))
+                .revoked(apiKey.getRevoked())
+                .createdAt(apiKey.getCreatedAt())
+                .usageCount(apiKey.getUsageCount())
+                .lastUsedAt(apiKey.getLastUsedAt())
+                .build();
+    }
+}
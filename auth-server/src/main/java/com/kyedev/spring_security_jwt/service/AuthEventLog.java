@@ -0,0 +1,272 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.entity.AuthEvent;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Write path of the AUTH_EVENT audit trail. Request threads only append to a bounded lock-free queue;
+// a single background writer drains it and persists events with one multi-row INSERT per batch.
+@Component
+@Slf4j
+public class AuthEventLog implements SmartLifecycle {
+
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO auth_event (type, user_id, username, ip_address, user_agent, detail, occurred_at, epoch_minute) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final String fullBatchSql;
+    // Only touched by the writer thread
+    private final Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+    // The queue is unbounded on its own, size is the reservation counter that bounds it
+    private final ConcurrentLinkedQueue<AuthEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    public AuthEventLog(
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.auth-events.enabled:true}") boolean enabled,
+            @Value("${app.auth-events.queue-capacity:10000}") int capacity,
+            @Value("${app.auth-events.batch-size:200}") int batchSize,
+            @Value("${app.auth-events.flush-interval:200ms}") Duration flushInterval,
+            @Value("${app.auth-events.overflow-policy:DROP}") OverflowPolicy overflowPolicy,
+            @Value("${app.auth-events.block-timeout:5ms}") Duration blockTimeout
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.fullBatchSql = insertSql(batchSize);
+    }
+
+    public void record(AuthEvent.Type type, Long userId, String username, String detail) {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        HttpServletRequest request = RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest()
+                : null;
+        enqueue(AuthEvent.builder()
+                .type(type)
+                .userId(userId)
+                .username(truncate(username, 100))
+                .ipAddress(request != null ? request.getRemoteAddr() : null)
+                .userAgent(request != null ? truncate(request.getHeader("User-Agent"), 255) : null)
+                .detail(truncate(detail, 255))
+                .occurredAt(now)
+                .epochMinute(now.getEpochSecond() / 60)
+                .build());
+    }
+
+    boolean enqueue(AuthEvent event) {
+        if (!reserveSlot()) {
+            dropped.increment();
+            return false;
+        }
+        queue.offer(event);
+        enqueued.increment();
+        Thread current = writer;
+        if (current != null && size.get() >= batchSize) {
+            LockSupport.unpark(current);
+        }
+        return true;
+    }
+
+    // DROP gives up immediately when full; BLOCK waits up to block-timeout for the writer to make room
+    private boolean reserveSlot() {
+        if (tryReserve()) {
+            return true;
+        }
+        if (overflowPolicy == OverflowPolicy.DROP || blockTimeoutNanos <= 0) {
+            return false;
+        }
+        blocked.increment();
+        Thread current = writer;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(50_000);
+            if (tryReserve()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean tryReserve() {
+        while (true) {
+            int current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+            if (size.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::drainLoop, "auth-event-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+    }
+
+    // Flushes whatever is still queued before the datasource goes away
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writer;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drainLoop() {
+        List<AuthEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (size.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            flushAll(batch);
+        }
+        flushAll(batch);
+    }
+
+    private void flushAll(List<AuthEvent> batch) {
+        while (drainTo(batch) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    int drainTo(List<AuthEvent> batch) {
+        AuthEvent event;
+        while (batch.size() < batchSize && (event = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(event);
+        }
+        return batch.size();
+    }
+
+    void flush(List<AuthEvent> batch) {
+        String sql = batch.size() == batchSize ? fullBatchSql : insertSql(batch.size());
+        try {
+            jdbcTemplate.update(sql, ps -> {
+                int p = 1;
+                for (AuthEvent event : batch) {
+                    ps.setString(p++, event.getType().name());
+                    if (event.getUserId() != null) {
+                        ps.setLong(p++, event.getUserId());
+                    } else {
+                        ps.setNull(p++, Types.BIGINT);
+                    }
+                    ps.setString(p++, event.getUsername());
+                    ps.setString(p++, event.getIpAddress());
+                    ps.setString(p++, event.getUserAgent());
+                    ps.setString(p++, event.getDetail());
+                    ps.setTimestamp(p++, Timestamp.from(event.getOccurredAt()), utc);
+                    ps.setLong(p++, event.getEpochMinute());
+                }
+            });
+            written.add(batch.size());
+            batches.increment();
+        } catch (RuntimeException e) {
+            // Audit writes must never take the writer down; the batch is counted and discarded
+            failed.add(batch.size());
+            log.error("Failed to write {} auth events: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "enabled", enabled,
+                "overflowPolicy", overflowPolicy,
+                "capacity", capacity,
+                "queued", size.get(),
+                "enqueued", enqueued.sum(),
+                "dropped", dropped.sum(),
+                "blocked", blocked.sum(),
+                "written", written.sum(),
+                "failed", failed.sum(),
+                "batches", batches.sum()
+        );
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 2))
+                .append(INSERT_PREFIX);
+        for (int row = 0; row < rows; row++) {
+            if (row > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
@@ -0,0 +1,90 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.dto.response.AuthEventBucketResponse;
+import com.kyedev.spring_security_jwt.dto.response.AuthEventResponse;
+import com.kyedev.spring_security_jwt.entity.AuthEvent;
+import com.kyedev.spring_security_jwt.exceptions.BadRequestException;
+import com.kyedev.spring_security_jwt.repository.AuthEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+
+// Read side of the AUTH_EVENT audit trail
+@Service
+@RequiredArgsConstructor
+public class AuthEventService {
+
+    private static final int MAX_BUCKETS = 1440;
+
+    private final AuthEventRepository authEventRepository;
+
+    @Value("${app.auth-events.max-page-size:500}")
+    private int maxPageSize;
+
+    @Transactional(readOnly = true)
+    public List<AuthEventResponse> findRecent(Instant from, Instant to, AuthEvent.Type type, String username, int limit) {
+        validateWindow(from, to);
+        if (limit < 1 || limit > maxPageSize) {
+            throw new BadRequestException("limit must be between 1 and " + maxPageSize);
+        }
+        return authEventRepository.findRecent(from, to, type, username, PageRequest.of(0, limit)).stream()
+                .map(event -> AuthEventResponse.builder()
+                        .id(event.getId())
+                        .type(event.getType())
+                        .userId(event.getUserId())
+                        .username(event.getUsername())
+                        .ipAddress(event.getIpAddress())
+                        .userAgent(event.getUserAgent())
+                        .detail(event.getDetail())
+                        .occurredAt(event.getOccurredAt())
+                        .build())
+                .toList();
+    }
+
+    // The database groups by (minute, type) on an index; minutes are then folded into the requested buckets here
+    @Transactional(readOnly = true)
+    public List<AuthEventBucketResponse> histogram(Instant from, Instant to, Duration bucket) {
+        validateWindow(from, to);
+        if (bucket.isNegative() || bucket.toMinutes() < 1 || !bucket.equals(Duration.ofMinutes(bucket.toMinutes()))) {
+            throw new BadRequestException("bucket must be a whole number of minutes");
+        }
+        long bucketMinutes = bucket.toMinutes();
+        long fromMinute = from.getEpochSecond() / 60 / bucketMinutes * bucketMinutes;
+        long toMinute = Math.ceilDiv(to.getEpochSecond(), 60L);
+        int bucketCount = (int) Math.min(Integer.MAX_VALUE, Math.ceilDiv(toMinute - fromMinute, bucketMinutes));
+        if (bucketCount > MAX_BUCKETS) {
+            throw new BadRequestException("At most " + MAX_BUCKETS + " buckets can be requested, use a larger bucket");
+        }
+
+        List<AuthEventBucketResponse> buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(AuthEventBucketResponse.builder()
+                    .start(Instant.ofEpochSecond((fromMinute + i * bucketMinutes) * 60))
+                    .counts(new EnumMap<>(AuthEvent.Type.class))
+                    .build());
+        }
+        for (Object[] row : authEventRepository.countPerMinute(fromMinute, toMinute)) {
+            long minute = ((Number) row[0]).longValue();
+            AuthEvent.Type type = (AuthEvent.Type) row[1];
+            long count = ((Number) row[2]).longValue();
+            AuthEventBucketResponse target = buckets.get((int) ((minute - fromMinute) / bucketMinutes));
+            target.getCounts().merge(type, count, Long::sum);
+            target.setTotal(target.getTotal() + count);
+        }
+        return buckets;
+    }
+
+    private static void validateWindow(Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("from must be before to");
+        }
+    }
+}
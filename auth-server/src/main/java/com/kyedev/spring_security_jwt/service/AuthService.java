@@ -0,0 +1,228 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.config.ReadYourWritesGuard;
+import com.kyedev.spring_security_jwt.config.RoutingDataSource;
+import com.kyedev.spring_security_jwt.dto.request.LoginRequest;
+import com.kyedev.spring_security_jwt.dto.request.RegisterRequest;
+import com.kyedev.spring_security_jwt.dto.request.TokenFormat;
+import com.kyedev.spring_security_jwt.dto.response.AuthResponse;
+import com.kyedev.spring_security_jwt.entity.AuthEvent;
+import com.kyedev.spring_security_jwt.entity.RefreshToken;
+import com.kyedev.spring_security_jwt.entity.Role;
+import com.kyedev.spring_security_jwt.entity.User;
+import com.kyedev.spring_security_jwt.exceptions.BadRequestException;
+import com.kyedev.spring_security_jwt.exceptions.TokenRefreshException;
+import com.kyedev.spring_security_jwt.repository.RoleRepository;
+import com.kyedev.spring_security_jwt.repository.UserRepository;
+import com.kyedev.spring_security_jwt.security.ReferenceTokenStore;
+import com.kyedev.spring_security_jwt.security.RoleRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class AuthService {
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final AuthenticationManager authenticationManager;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final AuthEventLog authEventLog;
+    private final ReferenceTokenStore referenceTokenStore;
+    private final RoleRegistry roleRegistry;
+    private final AccountAvailabilityService accountAvailabilityService;
+    private final DashboardMetrics dashboardMetrics;
+
+    @Value("${app.reference-tokens.enabled:true}")
+    private boolean referenceTokensEnabled;
+
+
+    @Transactional
+    public AuthResponse register(RegisterRequest request, String userAgent, String ipAddress) {
+        // Check if you use already exists
+        if (userRepository.existsByUsername(request.getUsername())) {
+            throw new BadRequestException("Username is already in use");
+        }
+        if (userRepository.existsByEmail(request.getEmail())) {
+            throw new BadRequestException("Email is already in use");
+        }
+
+        // Get default role
+        Role userRole = roleRepository.findByName("ROLE_USER")
+                .orElseThrow(() -> new BadRequestException("Role is not found"));
+
+        Set<Role> roles = new HashSet<>();
+        roles.add(userRole);
+
+        // Create user
+        User user = User.builder()
+                .username(request.getUsername())
+                .password(passwordEncoder.encode(request.getPassword()))
+                .email(request.getEmail())
+                .firstName(request.getFirstName())
+                .lastName(request.getLastName())
+                .roles(roles)
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .build();
+
+        User savedUser = userRepository.save(user);
+        readYourWritesGuard.recordWrite(ReadYourWritesGuard.userKey(savedUser.getUsername()));
+        accountAvailabilityService.registered(savedUser.getUsername(), savedUser.getEmail());
+
+        // Generate tokens custom claims
+        RefreshToken refreshToken = refreshTokenService.createRefreshToken(savedUser.getId(), userAgent, ipAddress);
+        String accessToken = generateAccessToken(savedUser, refreshToken, TokenFormat.JWT);
+
+        return AuthResponse.builder()
+                .accessToken(accessToken)
+                .refreshToken(refreshToken.getToken())
+                .expiresIn(jwtService.getAccessTokenExpiration())
+                .username(savedUser.getUsername())
+                .email(savedUser.getEmail())
+                .roles(savedUser.getRoles().stream()
+                        .map(Role::getName)
+                        .toList()
+                )
+                .build();
+    }
+
+    @Transactional
+    public AuthResponse login(LoginRequest request, String userAgent, String ipAddress) {
+        long start = System.nanoTime();
+
+        // Authenticate user
+        try {
+            authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            request.getUsername(),
+                            request.getPassword()
+                    )
+            );
+        } catch (LockedException e) {
+            authEventLog.record(AuthEvent.Type.LOCKOUT, null, request.getUsername(), e.getMessage());
+            dashboardMetrics.record(AuthEvent.Type.LOCKOUT, start);
+            throw e;
+        } catch (AuthenticationException e) {
+            authEventLog.record(AuthEvent.Type.LOGIN_FAILURE, null, request.getUsername(), e.getMessage());
+            dashboardMetrics.record(AuthEvent.Type.LOGIN_FAILURE, start);
+            throw e;
+        }
+
+        User user = userRepository.findByUsername(request.getUsername())
+                .orElseThrow(() -> new BadRequestException("Username not found"));
+
+        // Generate tokens with custom claims
+        RefreshToken refreshToken = refreshTokenService.createRefreshToken(user.getId(), userAgent, ipAddress);
+        String accessToken = generateAccessToken(user, refreshToken, request.getTokenFormat());
+        authEventLog.record(AuthEvent.Type.LOGIN_SUCCESS, user.getId(), user.getUsername(), null);
+        dashboardMetrics.record(AuthEvent.Type.LOGIN_SUCCESS, start);
+
+        return AuthResponse.builder()
+                .accessToken(accessToken)
+                .refreshToken(refreshToken.getToken())
+                .expiresIn(jwtService.getAccessTokenExpiration())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .roles(user.getRoles().stream().map(Role::getName).toList())
+                .build();
+    }
+
+    // Read-only, but pinned to the primary: a replica may still show a token revoked by logout or a user
+    // disabled on another node, and the read-your-writes guard only knows about writes made on this one
+    @Transactional(readOnly = true)
+    public AuthResponse refreshToken(String refreshTokenStr, TokenFormat tokenFormat) {
+        long start = System.nanoTime();
+        try (RoutingDataSource.Pin ignored = RoutingDataSource.pinToPrimary()) {
+            return refreshAccessToken(refreshTokenStr, tokenFormat, start);
+        } catch (TokenRefreshException e) {
+            // The exception message embeds the token, which must not end up in the audit trail
+            authEventLog.record(AuthEvent.Type.REFRESH_FAILURE, null, null, "Refresh token rejected");
+            dashboardMetrics.record(AuthEvent.Type.REFRESH_FAILURE, start);
+            throw e;
+        }
+    }
+
+    private AuthResponse refreshAccessToken(String refreshTokenStr, TokenFormat tokenFormat, long start) {
+        return refreshTokenService.findUsableByToken(refreshTokenStr)
+                .map(refreshToken -> {
+                    User user = refreshToken.getUser();
+                    if (!user.isEnabled()) {
+                        throw new TokenRefreshException(refreshTokenStr, "User account is disabled");
+                    }
+                    String accessToken = generateAccessToken(user, refreshToken, tokenFormat);
+                    authEventLog.record(AuthEvent.Type.REFRESH, user.getId(), user.getUsername(), null);
+                    dashboardMetrics.record(AuthEvent.Type.REFRESH, start);
+
+                    return AuthResponse.builder()
+                            .accessToken(accessToken)
+                            .refreshToken(refreshTokenStr)
+                            .expiresIn(jwtService.getAccessTokenExpiration())
+                            .username(user.getUsername())
+                            .email(user.getEmail())
+                            .roles(user.getRoles().stream().map(Role::getName).toList())
+                            .build();
+                })
+                .orElseThrow(()  -> new TokenRefreshException(refreshTokenStr, "Refresh token invalid"));
+    }
+
+    @Transactional
+    public void logout(String refreshToken) {
+        long start = System.nanoTime();
+        refreshTokenService.revokeToken(refreshToken)
+                .map(RefreshToken::getUser)
+                .ifPresent(user -> {
+                    authEventLog.record(AuthEvent.Type.LOGOUT, user.getId(), user.getUsername(), null);
+                    dashboardMetrics.record(AuthEvent.Type.LOGOUT, start);
+                });
+    }
+
+    // REFERENCE issues an opaque token bound to the refresh token's session, so revoking that session
+    // (logout, session cap) invalidates it immediately
+    private String generateAccessToken(User user, RefreshToken refreshToken, TokenFormat tokenFormat) {
+        if (tokenFormat != TokenFormat.REFERENCE) {
+            Map<String, Object> claims = buildExtraClaims(user);
+            claims.put(JwtService.CLAIM_SESSION_ID, refreshToken.getId());
+            return jwtService.generateAccessToken(claims, user);
+        }
+        if (!referenceTokensEnabled) {
+            throw new BadRequestException("Reference tokens are not enabled");
+        }
+        return referenceTokenStore.issue(
+                user.getId(),
+                user.getUsername(),
+                roleRegistry.maskOf(user.getAuthorities()),
+                refreshToken.getId(),
+                Duration.ofMillis(jwtService.getAccessTokenExpiration())
+        );
+    }
+
+    // Build custom JWT claims (metadata)
+    private Map<String, Object> buildExtraClaims(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtService.CLAIM_USER_ID, user.getId());
+        claims.put(JwtService.CLAIM_EMAIL, user.getEmail());
+        claims.put(JwtService.CLAIM_FIRST_NAME, user.getFirstName());
+        claims.put(JwtService.CLAIM_LAST_NAME, user.getLastName());
+        return claims;
+    }
+
+}
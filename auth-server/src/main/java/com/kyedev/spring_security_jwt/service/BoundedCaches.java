@@ -0,0 +1,43 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.function.ToLongFunction;
+
+// Size-bounded caches for the in-memory token state. Once full, Caffeine evicts the entries least likely to
+// be used again one at a time, so a burst of new keys never flushes everything that was cached. Maintenance
+// runs on the calling thread: the bound holds right after each write and no background pool is involved.
+public final class BoundedCaches {
+
+    private BoundedCaches() {
+    }
+
+    public static <K, V> Cache<K, V> expiringAfterWrite(int maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .executor(Runnable::run)
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public static <K, V> Cache<K, V> expiringAfterAccess(int maxSize, Duration idle) {
+        return Caffeine.newBuilder()
+                .executor(Runnable::run)
+                .maximumSize(maxSize)
+                .expireAfterAccess(idle)
+                .build();
+    }
+
+    // Each entry lives until the wall-clock time its value carries, e.g. the exp of a token
+    public static <K, V> Cache<K, V> expiringAt(int maxSize, ToLongFunction<? super V> expiresAtMillis) {
+        return Caffeine.newBuilder()
+                .executor(Runnable::run)
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<K, V>writing((key, value) ->
+                        Duration.ofMillis(Math.max(0, expiresAtMillis.applyAsLong(value) - System.currentTimeMillis()))))
+                .build();
+    }
+}
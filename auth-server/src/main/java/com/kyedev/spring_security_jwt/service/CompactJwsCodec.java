@@ -0,0 +1,411 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Fast path for the one token shape this service issues: header {"alg":"HSxxx"} (the algorithm jjwt picks
+// for the key) and a flat payload of string, integer, boolean and string-list claims. Tokens are written to
+// and read from per-thread buffers with a per-thread Mac, skipping jjwt's map/Jackson databind pipeline.
+// Both directions return null for anything else (other headers, nbf/aud, nested claims, bad or expired
+// signatures...) and the caller falls back to jjwt, so jjwt alone decides what gets rejected and how.
+final class CompactJwsCodec {
+
+    private static final int MAX_TOKEN_LENGTH = 8192;
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private static final byte[] BASE64URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final int[] BASE64URL_VALUES = new int[128];
+
+    static {
+        Arrays.fill(BASE64URL_VALUES, -1);
+        for (int i = 0; i < BASE64URL.length; i++) {
+            BASE64URL_VALUES[BASE64URL[i]] = i;
+        }
+    }
+
+    private static final class Scratch {
+        final Mac mac;
+        byte[] token = new byte[1024];
+        byte[] json = new byte[768];
+        final byte[] signature;
+
+        Scratch(Mac mac) {
+            this.mac = mac;
+            this.signature = new byte[mac.getMacLength()];
+        }
+    }
+
+    private final byte[] encodedHeader;
+    private final int signatureLength;
+    private final ThreadLocal<Scratch> scratch;
+
+    // Null when jjwt would not sign with a plain HMAC-SHA2 algorithm for this key
+    static CompactJwsCodec forKey(SecretKey key) {
+        String jwsAlgorithm = switch (key.getAlgorithm()) {
+            case "HmacSHA256" -> "HS256";
+            case "HmacSHA384" -> "HS384";
+            case "HmacSHA512" -> "HS512";
+            default -> null;
+        };
+        return jwsAlgorithm == null ? null : new CompactJwsCodec(key, jwsAlgorithm);
+    }
+
+    private CompactJwsCodec(SecretKey key, String jwsAlgorithm) {
+        byte[] header = ("{\"alg\":\"" + jwsAlgorithm + "\"}").getBytes(StandardCharsets.US_ASCII);
+        this.encodedHeader = new byte[encodedLength(header.length)];
+        encode(header, header.length, encodedHeader, 0);
+        this.scratch = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(key.getAlgorithm());
+                mac.init(key);
+                return new Scratch(mac);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC " + key.getAlgorithm() + " is not available", e);
+            }
+        });
+        this.signatureLength = encodedLength(scratch.get().signature.length);
+    }
+
+    // ---- Issuing ----
+
+    // Writes header.payload.signature for the claims plus sub/iat/exp; null values are left out, as jjwt does
+    String sign(Map<String, Object> claims, String subject, long issuedAtSeconds, long expirationSeconds) {
+        Scratch s = scratch.get();
+        JsonWriter json = new JsonWriter(s);
+        json.append((byte) '{');
+        for (Map.Entry<String, Object> claim : claims.entrySet()) {
+            if (claim.getValue() != null && !json.field(claim.getKey(), claim.getValue())) {
+                return null;
+            }
+        }
+        if (subject != null && !json.field(Claims.SUBJECT, subject)) {
+            return null;
+        }
+        json.field(Claims.ISSUED_AT, issuedAtSeconds);
+        json.field(Claims.EXPIRATION, expirationSeconds);
+        json.append((byte) '}');
+
+        int headerAndPayload = encodedHeader.length + 1 + encodedLength(json.length);
+        int total = headerAndPayload + 1 + signatureLength;
+        if (total > MAX_TOKEN_LENGTH) {
+            return null;
+        }
+        byte[] out = ensureTokenBuffer(s, total);
+        System.arraycopy(encodedHeader, 0, out, 0, encodedHeader.length);
+        out[encodedHeader.length] = '.';
+        encode(s.json, json.length, out, encodedHeader.length + 1);
+
+        s.mac.update(out, 0, headerAndPayload);
+        byte[] signature = s.signature;
+        try {
+            s.mac.doFinal(signature, 0);
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+        out[headerAndPayload] = '.';
+        encode(signature, signature.length, out, headerAndPayload + 1);
+        return new String(out, 0, total, StandardCharsets.US_ASCII);
+    }
+
+    // ---- Verifying ----
+
+    Claims verify(String token, long nowMillis) {
+        int length = token.length();
+        if (length > MAX_TOKEN_LENGTH) {
+            return null;
+        }
+        Scratch s = scratch.get();
+        byte[] bytes = ensureTokenBuffer(s, length);
+        int secondDot = -1;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c >= 0x80) {
+                return null;
+            }
+            bytes[i] = (byte) c;
+            if (c == '.' && i > encodedHeader.length) {
+                if (secondDot >= 0) {
+                    return null;
+                }
+                secondDot = i;
+            }
+        }
+        if (secondDot < 0 || length - secondDot - 1 != signatureLength || !startsWithHeader(bytes, length)) {
+            return null;
+        }
+
+        // Compared in the encoded form, so a non-canonical signature encoding is left to jjwt
+        s.mac.update(bytes, 0, secondDot);
+        byte[] expected = new byte[signatureLength];
+        try {
+            s.mac.doFinal(s.signature, 0);
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+        encode(s.signature, s.signature.length, expected, 0);
+        if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(bytes, secondDot + 1, length))) {
+            return null;
+        }
+
+        int payloadStart = encodedHeader.length + 1;
+        int payloadLength = decode(bytes, payloadStart, secondDot, s);
+        if (payloadLength < 0) {
+            return null;
+        }
+        Map<String, Object> claims = parsePayload(s.json, payloadLength);
+        if (claims == null) {
+            return null;
+        }
+        // Same rule as jjwt without clock skew: expired once now is past exp
+        Object expiration = claims.get(Claims.EXPIRATION);
+        if (!(expiration instanceof Number exp) || nowMillis > exp.longValue() * 1000) {
+            return null;
+        }
+        return Jwts.claims().add(claims).build();
+    }
+
+    private boolean startsWithHeader(byte[] bytes, int length) {
+        if (length <= encodedHeader.length || bytes[encodedHeader.length] != '.') {
+            return false;
+        }
+        for (int i = 0; i < encodedHeader.length; i++) {
+            if (bytes[i] != encodedHeader[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Flat object of known value types, no duplicates, nothing jjwt would validate beyond exp
+    private static Map<String, Object> parsePayload(byte[] json, int length) {
+        try (JsonParser parser = JSON.createParser(json, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            Map<String, Object> claims = new LinkedHashMap<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                if (Claims.NOT_BEFORE.equals(name) || Claims.AUDIENCE.equals(name)) {
+                    return null;
+                }
+                Object value = switch (parser.nextToken()) {
+                    case VALUE_STRING -> parser.getText();
+                    case VALUE_NUMBER_INT -> switch (parser.getNumberType()) {
+                        case INT -> parser.getIntValue();
+                        case LONG -> parser.getLongValue();
+                        default -> null;
+                    };
+                    case VALUE_TRUE -> Boolean.TRUE;
+                    case VALUE_FALSE -> Boolean.FALSE;
+                    case START_ARRAY -> parseStringArray(parser);
+                    default -> null;
+                };
+                if (value == null || claims.put(name, value) != null) {
+                    return null;
+                }
+            }
+            if (token != JsonToken.END_OBJECT || parser.nextToken() != null) {
+                return null;
+            }
+            Object issuedAt = claims.get(Claims.ISSUED_AT);
+            Object subject = claims.get(Claims.SUBJECT);
+            if ((issuedAt != null && !(issuedAt instanceof Number)) || (subject != null && !(subject instanceof String))) {
+                return null;
+            }
+            return claims;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static List<String> parseStringArray(JsonParser parser) throws IOException {
+        List<String> values = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.VALUE_STRING) {
+            values.add(parser.getText());
+        }
+        return token == JsonToken.END_ARRAY ? values : null;
+    }
+
+    // ---- Buffers and base64url ----
+
+    private static byte[] ensureTokenBuffer(Scratch s, int length) {
+        if (s.token.length < length) {
+            s.token = new byte[Math.max(length, s.token.length * 2)];
+        }
+        return s.token;
+    }
+
+    private static int encodedLength(int length) {
+        return (length * 4 + 2) / 3;
+    }
+
+    private static void encode(byte[] src, int length, byte[] dst, int offset) {
+        int i = 0;
+        int o = offset;
+        for (; i + 2 < length; i += 3) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst[o++] = BASE64URL[bits >>> 18];
+            dst[o++] = BASE64URL[(bits >>> 12) & 0x3f];
+            dst[o++] = BASE64URL[(bits >>> 6) & 0x3f];
+            dst[o++] = BASE64URL[bits & 0x3f];
+        }
+        int remaining = length - i;
+        if (remaining == 1) {
+            int bits = (src[i] & 0xff) << 16;
+            dst[o++] = BASE64URL[bits >>> 18];
+            dst[o] = BASE64URL[(bits >>> 12) & 0x3f];
+        } else if (remaining == 2) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8;
+            dst[o++] = BASE64URL[bits >>> 18];
+            dst[o++] = BASE64URL[(bits >>> 12) & 0x3f];
+            dst[o] = BASE64URL[(bits >>> 6) & 0x3f];
+        }
+    }
+
+    // Decodes src[from, to) into the scratch JSON buffer; -1 on characters outside the base64url alphabet
+    private static int decode(byte[] src, int from, int to, Scratch s) {
+        int length = to - from;
+        if (length % 4 == 1) {
+            return -1;
+        }
+        int decodedLength = length / 4 * 3 + Math.max(0, length % 4 - 1);
+        if (s.json.length < decodedLength) {
+            s.json = new byte[Math.max(decodedLength, s.json.length * 2)];
+        }
+        byte[] dst = s.json;
+        int o = 0;
+        int bits = 0;
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            int value = BASE64URL_VALUES[src[i]];
+            if (value < 0) {
+                return -1;
+            }
+            bits = bits << 6 | value;
+            if (++count == 4) {
+                dst[o++] = (byte) (bits >>> 16);
+                dst[o++] = (byte) (bits >>> 8);
+                dst[o++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        if (count == 2) {
+            dst[o++] = (byte) (bits >>> 4);
+        } else if (count == 3) {
+            dst[o++] = (byte) (bits >>> 10);
+            dst[o++] = (byte) (bits >>> 2);
+        }
+        return o;
+    }
+
+    // Minimal JSON object writer into the scratch buffer: strings (UTF-8), integers, booleans, string lists
+    private static final class JsonWriter {
+        private final Scratch s;
+        int length;
+
+        JsonWriter(Scratch s) {
+            this.s = s;
+        }
+
+        boolean field(String name, Object value) {
+            if (length > 1) {
+                append((byte) ',');
+            }
+            if (!string(name)) {
+                return false;
+            }
+            append((byte) ':');
+            if (value instanceof String text) {
+                return string(text);
+            }
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                ascii(value.toString());
+                return true;
+            }
+            if (value instanceof Boolean flag) {
+                ascii(flag.toString());
+                return true;
+            }
+            if (value instanceof List<?> list) {
+                append((byte) '[');
+                for (int i = 0; i < list.size(); i++) {
+                    if (i > 0) {
+                        append((byte) ',');
+                    }
+                    if (!(list.get(i) instanceof String text) || !string(text)) {
+                        return false;
+                    }
+                }
+                append((byte) ']');
+                return true;
+            }
+            return false;
+        }
+
+        private boolean string(String text) {
+            append((byte) '"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"' || c == '\\') {
+                    append((byte) '\\');
+                    append((byte) c);
+                } else if (c < 0x20) {
+                    ascii(String.format("\\u%04x", (int) c));
+                } else if (c < 0x80) {
+                    append((byte) c);
+                } else if (c < 0x800) {
+                    append((byte) (0xc0 | c >> 6));
+                    append((byte) (0x80 | c & 0x3f));
+                } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                        && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    append((byte) (0xf0 | codePoint >> 18));
+                    append((byte) (0x80 | codePoint >> 12 & 0x3f));
+                    append((byte) (0x80 | codePoint >> 6 & 0x3f));
+                    append((byte) (0x80 | codePoint & 0x3f));
+                } else if (Character.isSurrogate(c)) {
+                    // Unpaired surrogate, leave the encoding decision to jjwt
+                    return false;
+                } else {
+                    append((byte) (0xe0 | c >> 12));
+                    append((byte) (0x80 | c >> 6 & 0x3f));
+                    append((byte) (0x80 | c & 0x3f));
+                }
+            }
+            append((byte) '"');
+            return true;
+        }
+
+        private void ascii(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                append((byte) text.charAt(i));
+            }
+        }
+
+        void append(byte b) {
+            if (length == s.json.length) {
+                s.json = Arrays.copyOf(s.json, s.json.length * 2);
+            }
+            s.json[length++] = b;
+        }
+    }
+}
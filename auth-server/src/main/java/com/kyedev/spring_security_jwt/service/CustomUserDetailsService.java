@@ -0,0 +1,39 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.config.ReadYourWritesGuard;
+import com.kyedev.spring_security_jwt.config.RoutingDataSource;
+import com.kyedev.spring_security_jwt.diagnostics.AuthOperationEvent;
+import com.kyedev.spring_security_jwt.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class CustomUserDetailsService implements UserDetailsService {
+
+    private final UserRepository userRepository;
+    private final ReadYourWritesGuard readYourWritesGuard;
+
+    // Served by the replica unless the user was written within the replica lag window
+    @Override
+    @Transactional(readOnly = true)
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        AuthOperationEvent event = AuthOperationEvent.start(AuthOperationEvent.USER_LOAD);
+        String outcome = AuthOperationEvent.FAILURE;
+        try (RoutingDataSource.Pin ignored = readYourWritesGuard.pinIfRecentlyWritten(ReadYourWritesGuard.userKey(username))) {
+            UserDetails user = userRepository.findByUsername(username).orElse(null);
+            if (user == null) {
+                outcome = AuthOperationEvent.NOT_FOUND;
+                throw new UsernameNotFoundException("User not found with username: " + username);
+            }
+            outcome = AuthOperationEvent.SUCCESS;
+            return user;
+        } finally {
+            event.finish(outcome);
+        }
+    }
+}
\ No newline at end of file
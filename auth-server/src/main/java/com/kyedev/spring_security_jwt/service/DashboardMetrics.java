@@ -0,0 +1,299 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.entity.AuthEvent;
+import com.kyedev.spring_security_jwt.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Sliding-window counters behind the admin and moderator dashboards. Request threads only bump cumulative
+// striped counters (one LongAdder per auth event type and per latency bucket). A background ticker copies
+// the totals into a ring of snapshots once per resolution, and a window is the live totals minus the
+// snapshot that far back. Reads never lock or reset anything a writer touches, and never query the DB.
+@Component
+@Slf4j
+public class DashboardMetrics implements SmartLifecycle {
+
+    public enum Operation { LOGIN, REFRESH }
+
+    public static final Map<String, Duration> WINDOWS = windows();
+
+    // Log-linear latency buckets in microseconds: 4 per power of two, about 25% wide, up to ~134s
+    static final int SUB_BUCKETS = 4;
+    static final int BUCKETS = SUB_BUCKETS + (27 - 2) * SUB_BUCKETS;
+
+    private static final AuthEvent.Type[] TYPES = AuthEvent.Type.values();
+    private static final Operation[] OPERATION_OF = new Operation[TYPES.length];
+
+    static {
+        OPERATION_OF[AuthEvent.Type.LOGIN_SUCCESS.ordinal()] = Operation.LOGIN;
+        OPERATION_OF[AuthEvent.Type.LOGIN_FAILURE.ordinal()] = Operation.LOGIN;
+        OPERATION_OF[AuthEvent.Type.LOCKOUT.ordinal()] = Operation.LOGIN;
+        OPERATION_OF[AuthEvent.Type.REFRESH.ordinal()] = Operation.REFRESH;
+        OPERATION_OF[AuthEvent.Type.REFRESH_FAILURE.ordinal()] = Operation.REFRESH;
+    }
+
+    // Totals at one tick; replaced whole, so a reader never sees a half-written snapshot
+    record Snapshot(long atNanos, long[] events, long[][] latency) {
+    }
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final long resolutionNanos;
+    private final long sessionCountIntervalNanos;
+    private final LongAdder[] events = new LongAdder[TYPES.length];
+    private final LongAdder[][] latency = new LongAdder[Operation.values().length][BUCKETS];
+    private final AtomicReferenceArray<Snapshot> ring;
+
+    // Snapshots taken so far; the newest is at (ticks - 1) % ring length
+    private volatile long ticks;
+    private volatile long activeSessions = -1;
+    private volatile long activeSessionsAtMillis;
+    private volatile boolean running;
+    private volatile Thread ticker;
+
+    public DashboardMetrics(
+            RefreshTokenRepository refreshTokenRepository,
+            @Value("${app.dashboard.resolution:5s}") Duration resolution,
+            @Value("${app.dashboard.session-count-interval:30s}") Duration sessionCountInterval
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.resolutionNanos = resolution.toNanos();
+        this.sessionCountIntervalNanos = sessionCountInterval.toNanos();
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new LongAdder();
+        }
+        for (LongAdder[] buckets : latency) {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+        // One extra slot so the longest window still has its starting snapshot
+        long longest = WINDOWS.values().stream().mapToLong(Duration::toNanos).max().orElseThrow();
+        this.ring = new AtomicReferenceArray<>((int) ((longest + resolutionNanos - 1) / resolutionNanos) + 1);
+        tick();
+    }
+
+    // Hot path: two striped increments and a leading-zero count
+    public void record(AuthEvent.Type type, long startNanos) {
+        events[type.ordinal()].increment();
+        Operation operation = OPERATION_OF[type.ordinal()];
+        if (operation != null) {
+            latency[operation.ordinal()][bucketOf((System.nanoTime() - startNanos) / 1_000)].increment();
+        }
+    }
+
+    // Per-second rates, counts and latency percentiles for each window, oldest data first filling in
+    // until the app has been up for the whole window
+    public Map<String, Object> windows(boolean withLatency) {
+        Snapshot now = capture();
+        Map<String, Object> windows = new LinkedHashMap<>();
+        WINDOWS.forEach((name, length) -> windows.put(name, window(now, snapshotBefore(length), withLatency)));
+        return windows;
+    }
+
+    // -1 until the first count has finished; refreshed by the ticker, never by a dashboard read
+    public long activeSessions() {
+        return activeSessions;
+    }
+
+    public long activeSessionsAgeSeconds() {
+        return activeSessionsAtMillis == 0 ? -1 : (System.currentTimeMillis() - activeSessionsAtMillis) / 1_000;
+    }
+
+    public Map<String, Long> totals() {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (AuthEvent.Type type : TYPES) {
+            totals.put(type.name(), events[type.ordinal()].sum());
+        }
+        return totals;
+    }
+
+    private Map<String, Object> window(Snapshot now, Snapshot start, boolean withLatency) {
+        double seconds = Math.max(now.atNanos() - start.atNanos(), 1) / 1e9;
+        Map<String, Object> window = new LinkedHashMap<>();
+        window.put("seconds", round(seconds));
+        window.put("loginsPerSecond", rates(now, start, AuthEvent.Type.LOGIN_SUCCESS, AuthEvent.Type.LOGIN_FAILURE, seconds));
+        window.put("refreshesPerSecond", rates(now, start, AuthEvent.Type.REFRESH, AuthEvent.Type.REFRESH_FAILURE, seconds));
+        window.put("logoutsPerSecond", rate(now, start, AuthEvent.Type.LOGOUT, seconds));
+        window.put("lockouts", delta(now, start, AuthEvent.Type.LOCKOUT));
+        if (withLatency) {
+            Map<String, Object> latencies = new LinkedHashMap<>();
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation.name().toLowerCase(Locale.ROOT), latency(now, start, operation));
+            }
+            window.put("latencyMicros", latencies);
+        }
+        return window;
+    }
+
+    private static Map<String, Object> latency(Snapshot now, Snapshot start, Operation operation) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = now.latency()[operation.ordinal()][i] - start.latency()[operation.ordinal()][i];
+            total += counts[i];
+        }
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("count", total);
+        latency.put("p50", percentile(counts, total, 50));
+        latency.put("p99", percentile(counts, total, 99));
+        return latency;
+    }
+
+    // Upper bound of the bucket holding the percentile, so the figure errs on the slow side
+    static long percentile(long[] counts, long total, double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBoundOf(i);
+            }
+        }
+        return upperBoundOf(counts.length - 1);
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) Math.max(micros, 0);
+        }
+        int octave = 63 - Long.numberOfLeadingZeros(micros);
+        int index = SUB_BUCKETS * (octave - 1) + (int) ((micros >>> (octave - 2)) & (SUB_BUCKETS - 1));
+        return Math.min(index, BUCKETS - 1);
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int octave = bucket / SUB_BUCKETS + 1;
+        int sub = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (octave - 2)) - 1;
+    }
+
+    private Snapshot capture() {
+        long[] eventTotals = new long[events.length];
+        for (int i = 0; i < events.length; i++) {
+            eventTotals[i] = events[i].sum();
+        }
+        long[][] latencyTotals = new long[latency.length][BUCKETS];
+        for (int operation = 0; operation < latency.length; operation++) {
+            for (int i = 0; i < BUCKETS; i++) {
+                latencyTotals[operation][i] = latency[operation][i].sum();
+            }
+        }
+        return new Snapshot(System.nanoTime(), eventTotals, latencyTotals);
+    }
+
+    // The snapshot at least `length` back, or the oldest one kept. When the ticker overwrites that slot
+    // concurrently the reader gets a newer snapshot, which only shortens the reported span.
+    private Snapshot snapshotBefore(Duration length) {
+        long taken = ticks;
+        long back = Math.min((length.toNanos() + resolutionNanos - 1) / resolutionNanos, taken - 1);
+        back = Math.min(back, ring.length() - 1);
+        return ring.get((int) ((taken - 1 - back) % ring.length()));
+    }
+
+    void tick() {
+        long taken = ticks;
+        ring.set((int) (taken % ring.length()), capture());
+        ticks = taken + 1;
+    }
+
+    private void refreshActiveSessions() {
+        try {
+            activeSessions = refreshTokenRepository.countActive(Instant.now());
+            activeSessionsAtMillis = System.currentTimeMillis();
+        } catch (RuntimeException e) {
+            // The last count is kept and reported with its age
+            log.warn("Counting active sessions failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::tickLoop, "dashboard-ticker");
+        thread.setDaemon(true);
+        ticker = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = ticker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+        ticker = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void tickLoop() {
+        long nextTick = System.nanoTime() + resolutionNanos;
+        long nextSessionCount = System.nanoTime();
+        while (running) {
+            long now = System.nanoTime();
+            if (now - nextSessionCount >= 0) {
+                refreshActiveSessions();
+                nextSessionCount = System.nanoTime() + sessionCountIntervalNanos;
+            }
+            if (now - nextTick >= 0) {
+                tick();
+                // After a long pause, carry on from now rather than taking the missed ticks back to back
+                nextTick = Math.max(nextTick + resolutionNanos, now);
+            }
+            LockSupport.parkNanos(this, Math.max(Math.min(nextTick, nextSessionCount) - System.nanoTime(), 0));
+        }
+    }
+
+    private static Map<String, Double> rates(Snapshot now, Snapshot start, AuthEvent.Type success,
+                                             AuthEvent.Type failure, double seconds) {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        rates.put("success", rate(now, start, success, seconds));
+        rates.put("failure", rate(now, start, failure, seconds));
+        return rates;
+    }
+
+    private static double rate(Snapshot now, Snapshot start, AuthEvent.Type type, double seconds) {
+        return round(delta(now, start, type) / seconds);
+    }
+
+    private static long delta(Snapshot now, Snapshot start, AuthEvent.Type type) {
+        return now.events()[type.ordinal()] - start.events()[type.ordinal()];
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static Map<String, Duration> windows() {
+        Map<String, Duration> windows = new LinkedHashMap<>();
+        windows.put("1m", Duration.ofMinutes(1));
+        windows.put("5m", Duration.ofMinutes(5));
+        windows.put("15m", Duration.ofMinutes(15));
+        return Collections.unmodifiableMap(windows);
+    }
+}
@@ -0,0 +1,78 @@
+package com.kyedev.spring_security_jwt.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Assembles the dashboards from DashboardMetrics and the in-memory counters the caches already keep.
+// Nothing here touches the database, so refreshing a dashboard is cheap at any rate.
+@Service
+@RequiredArgsConstructor
+public class DashboardService {
+
+    private final DashboardMetrics dashboardMetrics;
+    private final JwtService jwtService;
+    private final EntityCacheService entityCacheService;
+    private final RefreshTokenNegativeCache refreshTokenNegativeCache;
+    private final RefreshCoalescer refreshCoalescer;
+    private final AccountAvailabilityService accountAvailabilityService;
+    private final ServiceClientService serviceClientService;
+
+    public Map<String, Object> adminDashboard() {
+        Map<String, Object> dashboard = overview();
+        dashboard.put("windows", dashboardMetrics.windows(true));
+        dashboard.put("cacheHitRatios", cacheHitRatios());
+        dashboard.put("totals", dashboardMetrics.totals());
+        return dashboard;
+    }
+
+    // Traffic and lockouts only; latencies and cache internals stay on the admin dashboard
+    public Map<String, Object> moderatorDashboard() {
+        Map<String, Object> dashboard = overview();
+        dashboard.put("windows", dashboardMetrics.windows(false));
+        return dashboard;
+    }
+
+    private Map<String, Object> overview() {
+        Map<String, Object> dashboard = new LinkedHashMap<>();
+        dashboard.put("generatedAt", Instant.now());
+        dashboard.put("activeSessions", dashboardMetrics.activeSessions());
+        dashboard.put("activeSessionsAgeSeconds", dashboardMetrics.activeSessionsAgeSeconds());
+        return dashboard;
+    }
+
+    // Since startup; the second-level and query cache entries come straight from EntityCacheService
+    private Map<String, Object> cacheHitRatios() {
+        VerifiedTokenCache verified = jwtService.verifiedTokenCache();
+        Map<String, Long> negative = refreshTokenNegativeCache.stats();
+        Map<String, Long> coalescer = refreshCoalescer.stats();
+        Map<String, Object> availability = accountAvailabilityService.stats();
+        Map<String, Object> clients = serviceClientService.stats();
+        Map<String, Object> entityCache = entityCacheService.stats();
+
+        Map<String, Object> ratios = new LinkedHashMap<>();
+        ratios.put("verifiedTokens", ratio(verified.hitCount(), verified.missCount()));
+        ratios.put("secondLevel", entityCache.get("secondLevel"));
+        ratios.put("queryCache", entityCache.get("queryCache"));
+        ratios.put("refreshTokenNegative", ratio(negative.get("hits"), negative.get("misses")));
+        ratios.put("refreshCoalescing", ratio(coalescer.get("coalesced") + coalescer.get("graceHits"),
+                coalescer.get("executed")));
+        ratios.put("availabilityFilter", ratio((Long) availability.get("answeredFromFilter"),
+                (Long) availability.get("databaseChecks")));
+        ratios.put("clientTokens", ratio((Long) clients.get("reused"), (Long) clients.get("issued")));
+        return ratios;
+    }
+
+    // Same shape as EntityCacheService's counters
+    private static Map<String, Object> ratio(long hits, long misses) {
+        Map<String, Object> ratio = new LinkedHashMap<>();
+        ratio.put("hits", hits);
+        ratio.put("misses", misses);
+        long lookups = hits + misses;
+        ratio.put("hitRatio", lookups == 0 ? 0.0 : (double) hits / lookups);
+        return ratio;
+    }
+}
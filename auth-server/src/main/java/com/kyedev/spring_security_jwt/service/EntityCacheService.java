@@ -0,0 +1,81 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.entity.RevocationEvent;
+import com.kyedev.spring_security_jwt.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Hibernate second-level cache: targeted eviction for changes made behind Hibernate's back, and hit/miss
+// counters overall and per region
+@Service
+public class EntityCacheService {
+
+    private static final String USER_ROLES = User.class.getName() + ".roles";
+
+    private final Cache cache;
+    private final Statistics statistics;
+
+    public EntityCacheService(EntityManagerFactory entityManagerFactory, RevocationFeed revocationFeed) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.cache = sessionFactory.getCache();
+        this.statistics = sessionFactory.getStatistics();
+        // The cache is per instance: role changes made on other instances arrive through the feed
+        revocationFeed.addListener(event -> {
+            if (event.getType() == RevocationEvent.Type.USER_ROLES_CHANGED) {
+                evictUserRoles(List.of(event.getUserId()));
+            }
+        });
+    }
+
+    // Native statements on user_roles only invalidate the query cache; Hibernate evicts collection regions
+    // for entity tables alone, so the cached role links of the affected users are dropped here
+    public void evictUserRoles(Collection<Long> userIds) {
+        userIds.forEach(userId -> cache.evictCollectionData(USER_ROLES, userId));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> regions = new TreeMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            regions.put(region, counters(regionStatistics.getHitCount(), regionStatistics.getMissCount(),
+                    regionStatistics.getPutCount(), regionStatistics.getElementCountInMemory()));
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", statistics.isStatisticsEnabled());
+        stats.put("secondLevel", counters(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount(), -1));
+        stats.put("queryCache", counters(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount(), -1));
+        stats.put("collectionFetches", statistics.getCollectionFetchCount());
+        stats.put("regions", regions);
+        return stats;
+    }
+
+    // A negative element count (unknown, or not applicable to the totals) is left out
+    private static Map<String, Object> counters(long hits, long misses, long puts, long elements) {
+        Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("hits", hits);
+        counters.put("misses", misses);
+        counters.put("puts", puts);
+        long lookups = hits + misses;
+        counters.put("hitRatio", lookups == 0 ? 0.0 : (double) hits / lookups);
+        if (elements >= 0) {
+            counters.put("elements", elements);
+        }
+        return counters;
+    }
+}
@@ -0,0 +1,159 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.diagnostics.AuthOperationEvent;
+import com.kyedev.spring_security_jwt.diagnostics.SlowPathAggregator;
+import com.kyedev.spring_security_jwt.dto.response.SlowPathSummaryResponse;
+import com.kyedev.spring_security_jwt.exceptions.BadRequestException;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+
+// On-demand JDK Flight Recorder session: a disk recording bounded by age and size (JVM "default" settings
+// plus every AuthOperationEvent) for download, and an in-process stream of the same events feeding the
+// slow-path summary. One recording at a time; a stopped recording stays downloadable until the next start.
+@Service
+@Slf4j
+public class FlightRecordingService {
+
+    private static final String RECORDING_NAME = "auth-diagnostics";
+
+    private final Duration maxAge;
+    private final DataSize maxSize;
+    private final int topN;
+
+    // Guarded by this
+    private Recording recording;
+    private RecordingStream stream;
+    private SlowPathAggregator aggregator;
+    private Instant startedAt;
+    private Instant stoppedAt;
+
+    public FlightRecordingService(
+            @Value("${app.diagnostics.recording.max-age:15m}") Duration maxAge,
+            @Value("${app.diagnostics.recording.max-size:64MB}") DataSize maxSize,
+            @Value("${app.diagnostics.slow-paths.top-n:20}") int topN
+    ) {
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+        this.topN = topN;
+        this.aggregator = new SlowPathAggregator(topN);
+    }
+
+    public synchronized SlowPathSummaryResponse start() {
+        if (isRecording()) {
+            throw new BadRequestException("A recording is already running");
+        }
+        closeRecording();
+
+        Recording newRecording = new Recording(defaultConfiguration());
+        newRecording.setName(RECORDING_NAME);
+        newRecording.setToDisk(true);
+        newRecording.setMaxAge(maxAge);
+        newRecording.setMaxSize(maxSize.toBytes());
+        newRecording.enable(AuthOperationEvent.class).withoutThreshold();
+
+        SlowPathAggregator newAggregator = new SlowPathAggregator(topN);
+        RecordingStream newStream = new RecordingStream();
+        newStream.enable(AuthOperationEvent.class).withoutThreshold();
+        // Keeps the stream's own buffer small, the disk recording is the one meant for download
+        newStream.setMaxAge(Duration.ofSeconds(30));
+        newStream.onEvent(AuthOperationEvent.NAME, event -> newAggregator.record(
+                event.getString("operation"),
+                event.getString("outcome"),
+                event.getInt("tokenSize"),
+                event.getThread() != null ? event.getThread().getJavaName() : null,
+                event.getStartTime(),
+                event.getDuration()
+        ));
+
+        newRecording.start();
+        newStream.startAsync();
+
+        recording = newRecording;
+        stream = newStream;
+        aggregator = newAggregator;
+        startedAt = Instant.now();
+        stoppedAt = null;
+        log.info("Flight recording started (max age {}, max size {})", maxAge, maxSize);
+        return summary();
+    }
+
+    public synchronized SlowPathSummaryResponse stop() {
+        if (!isRecording()) {
+            throw new BadRequestException("No recording is running");
+        }
+        recording.stop();
+        stream.close();
+        stream = null;
+        stoppedAt = Instant.now();
+        log.info("Flight recording stopped after {}", Duration.between(startedAt, stoppedAt));
+        return summary();
+    }
+
+    // Writes the current contents of the recording to a temporary file the caller must delete
+    public synchronized Path dump() {
+        if (recording == null) {
+            throw new BadRequestException("No recording has been started");
+        }
+        try {
+            Path file = Files.createTempFile(RECORDING_NAME + "-", ".jfr");
+            recording.dump(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the flight recording", e);
+        }
+    }
+
+    public synchronized SlowPathSummaryResponse summary() {
+        return SlowPathSummaryResponse.builder()
+                .recording(isRecording())
+                .startedAt(startedAt)
+                .stoppedAt(stoppedAt)
+                .events(aggregator.events())
+                .paths(aggregator.paths())
+                .slowest(aggregator.slowest())
+                .build();
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+        closeRecording();
+    }
+
+    private boolean isRecording() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static Configuration defaultConfiguration() {
+        try {
+            return Configuration.getConfiguration("default");
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("JFR default configuration is not available", e);
+        }
+    }
+}
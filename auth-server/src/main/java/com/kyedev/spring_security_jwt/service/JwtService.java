@@ -0,0 +1,354 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.diagnostics.AuthOperationEvent;
+import com.kyedev.spring_security_jwt.security.RoleRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PrivateJwk;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class JwtService {
+
+    // Claim names used by the standard profile (and by callers building extra claims)
+    public static final String CLAIM_USER_ID = "userId";
+    public static final String CLAIM_EMAIL = "email";
+    public static final String CLAIM_FIRST_NAME = "firstName";
+    public static final String CLAIM_LAST_NAME = "lastName";
+    public static final String CLAIM_ROLES = "roles";
+    // Only present on client-credentials tokens, whose subject is the client id rather than a username
+    public static final String CLAIM_CLIENT_ID = "client_id";
+    // Id of the refresh token (session) the access token was issued for, matched by revocation feed consumers
+    public static final String CLAIM_SESSION_ID = "sid";
+    // Issue time in milliseconds: iat only has seconds, too coarse to order a token against a revocation
+    public static final String CLAIM_ISSUED_AT_MILLIS = "iat_ms";
+
+    // Claim names used by the compact profile
+    static final String COMPACT_USER_ID = "uid";
+    static final String COMPACT_EMAIL = "em";
+    static final String COMPACT_FIRST_NAME = "fn";
+    static final String COMPACT_LAST_NAME = "ln";
+    static final String COMPACT_ROLE_MASK = "rm";
+
+    private static final Map<String, String> COMPACT_NAMES = Map.of(
+            CLAIM_USER_ID, COMPACT_USER_ID,
+            CLAIM_EMAIL, COMPACT_EMAIL,
+            CLAIM_FIRST_NAME, COMPACT_FIRST_NAME,
+            CLAIM_LAST_NAME, COMPACT_LAST_NAME
+    );
+    private static final Set<String> PII_CLAIMS = Set.of(CLAIM_EMAIL, CLAIM_FIRST_NAME, CLAIM_LAST_NAME);
+
+    public enum ClaimProfile { STANDARD, COMPACT }
+
+    private final RoleRegistry roleRegistry;
+
+    @Value("${jwt.secret}")
+    private String secretKey;
+
+    // PKCS#8, base64. When set, tokens are signed with it and only its public key is ever published;
+    // jwt.secret then only verifies HMAC tokens issued before the switch.
+    @Value("${jwt.signing.private-key:}")
+    private String signingPrivateKey;
+
+    @Value("${jwt.signing.algorithm:ES256}")
+    private String signingAlgorithm;
+
+    @Value("${jwt.access-token-expiration}")
+    private long accessTokenExpiration;
+
+    @Value("${jwt.refresh-token-expiration}")
+    private long refreshTokenExpiration;
+
+    @Value("${jwt.claims.profile:STANDARD}")
+    private ClaimProfile claimProfile;
+
+    // Only consulted by the compact profile, the standard profile always carries PII claims
+    @Value("${jwt.claims.include-pii:false}")
+    private boolean includePii;
+
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+
+    // Hand-rolled signing/verification for our own token shape, anything else still goes through jjwt
+    @Value("${jwt.fast-path.enabled:false}")
+    private boolean fastPathEnabled;
+
+    // Decoded once, the keys and parser are thread-safe and shared by every request
+    private SecretKey signInKey;
+    private PrivateKey asymmetricKey;
+    private SignatureAlgorithm asymmetricAlgorithm;
+    private PublicJwk<?> publicJwk;
+    private JwtParser jwtParser;
+    private VerifiedTokenCache verifiedTokenCache;
+    private CompactJwsCodec fastPath;
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        this.signInKey = Keys.hmacShaKeyFor(keyBytes);
+        if (signingPrivateKey != null && !signingPrivateKey.isBlank()) {
+            initAsymmetricKey();
+            PublicKey publicKey = publicJwk.toKey();
+            this.jwtParser = Jwts.parser().keyLocator(new LocatorAdapter<Key>() {
+                // jjwt checks the key fits the algorithm, so an HS token is never checked against the public key
+                @Override
+                protected Key locate(JwsHeader header) {
+                    return header.getAlgorithm() != null && header.getAlgorithm().startsWith("HS") ? signInKey : publicKey;
+                }
+            }).build();
+        } else {
+            this.jwtParser = Jwts.parser().verifyWith(signInKey).build();
+        }
+        this.verifiedTokenCache = new VerifiedTokenCache(verifiedCacheMaxSize);
+        // The fast path only speaks HMAC
+        this.fastPath = fastPathEnabled && asymmetricKey == null ? CompactJwsCodec.forKey(signInKey) : null;
+    }
+
+    private void initAsymmetricKey() {
+        SecureDigestAlgorithm<?, ?> algorithm = Jwts.SIG.get().get(signingAlgorithm);
+        if (!(algorithm instanceof SignatureAlgorithm signature)) {
+            throw new IllegalStateException("jwt.signing.algorithm must be an asymmetric JWS algorithm, got " + signingAlgorithm);
+        }
+        String keyType = signingAlgorithm.startsWith("ES") ? "EC" : "EdDSA".equals(signingAlgorithm) ? "EdDSA" : "RSA";
+        try {
+            this.asymmetricKey = KeyFactory.getInstance(keyType)
+                    .generatePrivate(new PKCS8EncodedKeySpec(Decoders.BASE64.decode(signingPrivateKey)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("jwt.signing.private-key is not a PKCS#8 " + keyType + " private key", e);
+        }
+        this.asymmetricAlgorithm = signature;
+        this.publicJwk = Jwks.builder()
+                .key(publicKeyOf(asymmetricKey))
+                .algorithm(signature.getId())
+                .publicKeyUse("sig")
+                .idFromThumbprint()
+                .build();
+    }
+
+    private static PublicKey publicKeyOf(PrivateKey privateKey) {
+        return ((PrivateJwk<?, ?, ?>) Jwks.builder().key(privateKey).build()).toPublicJwk().toKey();
+    }
+
+    // Null while tokens are signed with the HMAC secret, which is never published
+    public PublicJwk<?> getPublicJwk() {
+        return publicJwk;
+    }
+
+    public String extractUsername(String token) {
+        return extractClaim(token, Claims::getSubject);
+    }
+
+    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
+        final Claims claims = extractAllClaims(token);
+        return claimsResolver.apply(claims);
+    }
+
+    // Understands both profiles so tokens issued before a profile switch stay valid
+    @SuppressWarnings("unchecked")
+    public List<String> extractRoles(Claims claims) {
+        Object roleMask = claims.get(COMPACT_ROLE_MASK);
+        if (roleMask instanceof Number mask) {
+            return roleRegistry.namesOf(mask.longValue());
+        }
+        Object roles = claims.get(CLAIM_ROLES);
+        return roles instanceof List<?> list ? (List<String>) list : List.of();
+    }
+
+    // Compact tokens map straight to the shared, precomputed authority list for their mask
+    public List<GrantedAuthority> extractAuthorities(Claims claims) {
+        Object roleMask = claims.get(COMPACT_ROLE_MASK);
+        if (roleMask instanceof Number mask) {
+            return roleRegistry.authoritiesOf(mask.longValue());
+        }
+        return extractRoles(claims).stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+
+    // Directly held roles as a RoleRegistry mask, without building authority names for compact tokens
+    public long extractRoleMask(Claims claims) {
+        Object roleMask = claims.get(COMPACT_ROLE_MASK);
+        if (roleMask instanceof Number mask) {
+            return mask.longValue();
+        }
+        return roleRegistry.maskOfNames(extractRoles(claims));
+    }
+
+    public String extractClientId(Claims claims) {
+        return claims.get(CLAIM_CLIENT_ID) instanceof String clientId ? clientId : null;
+    }
+
+    public Long extractSessionId(Claims claims) {
+        return claims.get(CLAIM_SESSION_ID) instanceof Number sessionId ? sessionId.longValue() : null;
+    }
+
+    // Tokens issued before iat_ms existed fall back to the start of their iat second
+    public long extractIssuedAtMillis(Claims claims) {
+        return claims.get(CLAIM_ISSUED_AT_MILLIS) instanceof Number issuedAt
+                ? issuedAt.longValue() : claims.getIssuedAt().getTime();
+    }
+
+    public Long extractUserId(Claims claims) {
+        Object userId = claims.containsKey(COMPACT_USER_ID) ? claims.get(COMPACT_USER_ID) : claims.get(CLAIM_USER_ID);
+        return userId instanceof Number number ? number.longValue() : null;
+    }
+
+    public String generateAccessToken(UserDetails userDetails) {
+        return generateAccessToken(new HashMap<>(), userDetails);
+    }
+
+    public String generateAccessToken(Map<String, Object> extraClaims, UserDetails userDetails) {
+        return buildToken(extraClaims, userDetails.getUsername(), userDetails.getAuthorities(), accessTokenExpiration);
+    }
+
+    public String generateRefreshToken(UserDetails userDetails) {
+        return buildToken(new HashMap<>(), userDetails.getUsername(), userDetails.getAuthorities(), refreshTokenExpiration);
+    }
+
+    // Access token for a service client, carrying the granted roles like a user token
+    public String generateClientToken(String clientId, Collection<? extends GrantedAuthority> authorities) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_CLIENT_ID, clientId);
+        return buildToken(claims, clientId, authorities, accessTokenExpiration);
+    }
+
+    private String buildToken(
+            Map<String, Object> extraClaims,
+            String subject,
+            Collection<? extends GrantedAuthority> authorities,
+            long expiration
+    ) {
+        AuthOperationEvent event = AuthOperationEvent.start(AuthOperationEvent.JWT_SIGN);
+        Map<String, Object> claims = claimProfile == ClaimProfile.COMPACT
+                ? compactClaims(extraClaims, authorities)
+                : standardClaims(extraClaims, authorities);
+
+        long now = System.currentTimeMillis();
+        claims.put(CLAIM_ISSUED_AT_MILLIS, now);
+        String token = fastPath == null ? null
+                : fastPath.sign(claims, subject, now / 1000, (now + expiration) / 1000);
+        if (token == null) {
+            JwtBuilder builder = Jwts.builder()
+                    .claims(claims)
+                    .subject(subject)
+                    .issuedAt(new Date(now))
+                    .expiration(new Date(now + expiration));
+            token = asymmetricKey == null ? builder.signWith(signInKey).compact()
+                    : builder.header().keyId(publicJwk.getId()).and().signWith(asymmetricKey, asymmetricAlgorithm).compact();
+        }
+        event.finish(AuthOperationEvent.SUCCESS, token.length());
+        return token;
+    }
+
+    private Map<String, Object> standardClaims(
+            Map<String, Object> extraClaims,
+            Collection<? extends GrantedAuthority> authorities
+    ) {
+        // Add custom claims (metadata)
+        extraClaims.put(CLAIM_ROLES, authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList()));
+        return extraClaims;
+    }
+
+    // Short claim names, roles as a bitmask over the role registry and PII only when opted in
+    private Map<String, Object> compactClaims(
+            Map<String, Object> extraClaims,
+            Collection<? extends GrantedAuthority> authorities
+    ) {
+        Map<String, Object> claims = new HashMap<>();
+        extraClaims.forEach((name, value) -> {
+            if (value == null || (!includePii && PII_CLAIMS.contains(name))) {
+                return;
+            }
+            claims.put(COMPACT_NAMES.getOrDefault(name, name), value);
+        });
+        claims.put(COMPACT_ROLE_MASK, roleRegistry.maskOf(authorities));
+        return claims;
+    }
+
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        final String username = extractUsername(token);
+        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    }
+
+    private boolean isTokenExpired(String token) {
+        return extractExpiration(token).before(new Date());
+    }
+
+    private Date extractExpiration(String token) {
+        return extractClaim(token, Claims::getExpiration);
+    }
+
+    // Verifies the signature once per token; repeat calls are served from the cache until expiry
+    public Claims extractAllClaims(String token) {
+        AuthOperationEvent event = AuthOperationEvent.start(AuthOperationEvent.JWT_VERIFY);
+        Claims cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            event.finish(AuthOperationEvent.CACHED, token.length());
+            return cached;
+        }
+        String outcome = AuthOperationEvent.FAILURE;
+        try {
+            Claims claims = parse(token);
+            verifiedTokenCache.put(token, claims, claims.getExpiration());
+            outcome = AuthOperationEvent.SUCCESS;
+            return claims;
+        } finally {
+            event.finish(outcome, token.length());
+        }
+    }
+
+    // Always checks the signature, neither reading nor filling the verified-token cache
+    public Claims verifyClaims(String token) {
+        return parse(token);
+    }
+
+    // The fast path only ever accepts; whatever it declines is decided (and rejected) by jjwt
+    private Claims parse(String token) {
+        Claims claims = fastPath == null ? null : fastPath.verify(token, System.currentTimeMillis());
+        return claims != null ? claims : jwtParser.parseSignedClaims(token).getPayload();
+    }
+
+    public Long getAccessTokenExpiration() {
+        return accessTokenExpiration;
+    }
+
+    // The cache counts its own hits and misses
+    VerifiedTokenCache verifiedTokenCache() {
+        return verifiedTokenCache;
+    }
+}
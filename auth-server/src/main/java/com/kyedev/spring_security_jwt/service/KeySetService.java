@@ -0,0 +1,41 @@
+package com.kyedev.spring_security_jwt.service;
+
+import io.jsonwebtoken.security.PublicJwk;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Publishes the public half of the access-token signing key as a JWK set for the token-verifier library.
+// Holding it only lets a service verify tokens, never mint them. Tokens signed with the shared HMAC secret
+// cannot be verified this way, so enabling the endpoint requires jwt.signing.private-key.
+@Service
+public class KeySetService {
+
+    private final boolean enabled;
+    private final Map<String, Object> keySet;
+
+    public KeySetService(JwtService jwtService, @Value("${app.key-set.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+        this.keySet = enabled ? toJwkSet(jwtService.getPublicJwk()) : Map.of();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Map<String, Object> keySet() {
+        return keySet;
+    }
+
+    // The key never changes while the app runs, so the document is built once
+    private static Map<String, Object> toJwkSet(PublicJwk<?> jwk) {
+        if (jwk == null) {
+            throw new IllegalStateException(
+                    "app.key-set.enabled requires jwt.signing.private-key, the HMAC secret is never published");
+        }
+        return Map.of("keys", List.of(new LinkedHashMap<String, Object>(jwk)));
+    }
+}
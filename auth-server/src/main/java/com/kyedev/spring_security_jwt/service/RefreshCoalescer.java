@@ -0,0 +1,133 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.dto.request.TokenFormat;
+import com.kyedev.spring_security_jwt.dto.response.AuthResponse;
+import com.kyedev.spring_security_jwt.security.TokenDigests;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+// Single-flight refresh: concurrent refreshes of the same token share one AuthService.refreshToken call,
+// and duplicates arriving just after it finished get the same response from RefreshGraceCache.
+// Runs outside any transaction, so waiting callers never hold a database connection.
+@Component
+@Slf4j
+public class RefreshCoalescer {
+
+    private record Key(String tokenHash, TokenFormat tokenFormat) {
+    }
+
+    private final AuthService authService;
+    private final RefreshGraceCache graceCache;
+    private final boolean enabled;
+    private final long waitTimeoutMillis;
+
+    private final ConcurrentHashMap<Key, CompletableFuture<AuthResponse>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder graceHits = new LongAdder();
+    private final LongAdder waitTimeouts = new LongAdder();
+
+    public RefreshCoalescer(
+            AuthService authService,
+            RefreshGraceCache graceCache,
+            @Value("${app.refresh-coalescing.enabled:true}") boolean enabled,
+            @Value("${app.refresh-coalescing.wait-timeout:5s}") Duration waitTimeout
+    ) {
+        this.authService = authService;
+        this.graceCache = graceCache;
+        this.enabled = enabled;
+        this.waitTimeoutMillis = waitTimeout.toMillis();
+    }
+
+    public AuthResponse refresh(String refreshToken, TokenFormat tokenFormat) {
+        if (!enabled) {
+            return authService.refreshToken(refreshToken, tokenFormat);
+        }
+        TokenFormat format = tokenFormat != null ? tokenFormat : TokenFormat.JWT;
+        byte[] digest = TokenDigests.sha256(refreshToken);
+
+        AuthResponse cached = graceCache.get(digest, format);
+        if (cached != null) {
+            graceHits.increment();
+            return cached;
+        }
+
+        Key key = new Key(HexFormat.of().formatHex(digest), format);
+        CompletableFuture<AuthResponse> flight = new CompletableFuture<>();
+        CompletableFuture<AuthResponse> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            coalesced.increment();
+            return await(leader, refreshToken, format);
+        }
+
+        try {
+            executed.increment();
+            long generation = graceCache.generation();
+            AuthResponse response = authService.refreshToken(refreshToken, format);
+            // Published before the flight is removed, so a caller arriving in between still finds it
+            graceCache.put(digest, format, response, generation);
+            flight.complete(response);
+            return response;
+        } catch (Throwable e) {
+            // Failures (errors included) are shared with callers already waiting, but never cached
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    // Called after logout so a revoked token is not answered from the grace cache
+    public void invalidate(String refreshToken) {
+        graceCache.invalidate(TokenDigests.sha256(refreshToken));
+    }
+
+    // Called after bulk admin operations
+    public void invalidateUsers(Set<String> usernames) {
+        graceCache.invalidateUsers(usernames);
+    }
+
+    public Map<String, Long> stats() {
+        return Map.of(
+                "executed", executed.sum(),
+                "coalesced", coalesced.sum(),
+                "graceHits", graceHits.sum(),
+                "waitTimeouts", waitTimeouts.sum()
+        );
+    }
+
+    // A leader stuck past the timeout (e.g. on a slow database) no longer holds its followers: they refresh
+    // on their own, which is safe because refreshing does not rotate the refresh token
+    private AuthResponse await(CompletableFuture<AuthResponse> leader, String refreshToken, TokenFormat tokenFormat) {
+        try {
+            return leader.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            waitTimeouts.increment();
+            log.warn("Coalesced refresh did not finish within {}ms, refreshing directly", waitTimeoutMillis);
+            return authService.refreshToken(refreshToken, tokenFormat);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced refresh", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
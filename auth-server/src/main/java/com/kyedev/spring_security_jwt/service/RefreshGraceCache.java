@@ -0,0 +1,73 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.kyedev.spring_security_jwt.dto.request.TokenFormat;
+import com.kyedev.spring_security_jwt.dto.response.AuthResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Responses of refreshes that just finished, so duplicates arriving within the grace period get the same
+// answer. Keyed by the refresh token's digest, like the stored tokens, which lets RefreshTokenService drop
+// the entries of sessions it revokes without ever seeing their tokens.
+@Component
+public class RefreshGraceCache {
+
+    private record Key(String tokenHash, TokenFormat tokenFormat) {
+    }
+
+    private final long gracePeriodMillis;
+    private final Cache<Key, AuthResponse> recent;
+    // Bumped by every invalidation. A refresh that was running across one may have read its session while
+    // it was still live, e.g. just before a logout committed, so its response must not be cached.
+    private final AtomicLong generation = new AtomicLong();
+
+    public RefreshGraceCache(
+            @Value("${app.refresh-coalescing.grace-period:2s}") Duration gracePeriod,
+            @Value("${app.refresh-coalescing.max-entries:10000}") int maxEntries
+    ) {
+        this.gracePeriodMillis = gracePeriod.toMillis();
+        this.recent = BoundedCaches.expiringAfterWrite(maxEntries, gracePeriod);
+    }
+
+    public AuthResponse get(byte[] tokenHash, TokenFormat tokenFormat) {
+        return recent.getIfPresent(new Key(HexFormat.of().formatHex(tokenHash), tokenFormat));
+    }
+
+    // Read before starting the refresh whose response is put
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(byte[] tokenHash, TokenFormat tokenFormat, AuthResponse response, long startedAt) {
+        if (gracePeriodMillis <= 0 || generation.get() != startedAt) {
+            return;
+        }
+        Key key = new Key(HexFormat.of().formatHex(tokenHash), tokenFormat);
+        recent.put(key, response);
+        // An invalidation between the check and the put bumped the generation first, so it is seen here
+        if (generation.get() != startedAt) {
+            recent.invalidate(key);
+        }
+    }
+
+    public void invalidate(byte[] tokenHash) {
+        generation.incrementAndGet();
+        String hex = HexFormat.of().formatHex(tokenHash);
+        for (TokenFormat tokenFormat : TokenFormat.values()) {
+            recent.invalidate(new Key(hex, tokenFormat));
+        }
+    }
+
+    // Entries carry no user id, so they are matched by the username in the response
+    public void invalidateUsers(Set<String> usernames) {
+        if (!usernames.isEmpty()) {
+            generation.incrementAndGet();
+            recent.asMap().values().removeIf(response -> usernames.contains(response.getUsername()));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Remembers refresh token digests that recently failed, so replays of random or long-dead tokens are
+// answered from memory instead of probing refresh_token again. Unknown digests only live for a short TTL;
+// revoked and expired ones are kept longer, and apart so junk floods cannot push them out, because neither
+// state is ever undone.
+@Component
+public class RefreshTokenNegativeCache {
+
+    public enum Verdict { UNKNOWN, REVOKED, EXPIRED }
+
+    private final boolean enabled;
+
+    // Keyed by SHA-256 digest, the raw token is never held. Null when disabled by a zero size or TTL.
+    private final Cache<ByteBuffer, Verdict> unknown;
+    private final Cache<ByteBuffer, Verdict> dead;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public RefreshTokenNegativeCache(
+            @Value("${app.refresh-token-negative-cache.enabled:true}") boolean enabled,
+            @Value("${app.refresh-token-negative-cache.unknown-ttl:30s}") Duration unknownTtl,
+            @Value("${app.refresh-token-negative-cache.revoked-ttl:10m}") Duration deadTtl,
+            @Value("${app.refresh-token-negative-cache.max-unknown:50000}") int maxUnknown,
+            @Value("${app.refresh-token-negative-cache.max-revoked:10000}") int maxDead
+    ) {
+        this.enabled = enabled;
+        this.unknown = cache(enabled, maxUnknown, unknownTtl);
+        this.dead = cache(enabled, maxDead, deadTtl);
+    }
+
+    private static Cache<ByteBuffer, Verdict> cache(boolean enabled, int maxEntries, Duration ttl) {
+        return enabled && maxEntries > 0 && ttl.isPositive() ? BoundedCaches.expiringAfterWrite(maxEntries, ttl) : null;
+    }
+
+    public Verdict get(byte[] digest) {
+        if (!enabled) {
+            return null;
+        }
+        ByteBuffer key = ByteBuffer.wrap(digest);
+        Verdict verdict = lookup(dead, key);
+        if (verdict == null) {
+            verdict = lookup(unknown, key);
+        }
+        (verdict != null ? hits : misses).increment();
+        return verdict;
+    }
+
+    private static Verdict lookup(Cache<ByteBuffer, Verdict> entries, ByteBuffer key) {
+        return entries != null ? entries.getIfPresent(key) : null;
+    }
+
+    public void recordUnknown(byte[] digest) {
+        put(unknown, digest, Verdict.UNKNOWN);
+    }
+
+    public void recordRevoked(byte[] digest) {
+        put(dead, digest, Verdict.REVOKED);
+    }
+
+    public void recordExpired(byte[] digest) {
+        put(dead, digest, Verdict.EXPIRED);
+    }
+
+    public Map<String, Long> stats() {
+        return Map.of(
+                "hits", hits.sum(),
+                "misses", misses.sum(),
+                "unknownEntries", size(unknown),
+                "revokedEntries", size(dead)
+        );
+    }
+
+    private static long size(Cache<ByteBuffer, Verdict> entries) {
+        return entries != null ? entries.estimatedSize() : 0L;
+    }
+
+    private static void put(Cache<ByteBuffer, Verdict> entries, byte[] digest, Verdict verdict) {
+        if (entries != null && digest != null) {
+            entries.put(ByteBuffer.wrap(digest.clone()), verdict);
+        }
+    }
+}
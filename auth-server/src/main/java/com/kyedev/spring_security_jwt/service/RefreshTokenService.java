@@ -0,0 +1,276 @@
+package com.kyedev.spring_security_jwt.service;
+
+
+import com.kyedev.spring_security_jwt.config.ReadYourWritesGuard;
+import com.kyedev.spring_security_jwt.config.RoutingDataSource;
+import com.kyedev.spring_security_jwt.diagnostics.AuthOperationEvent;
+import com.kyedev.spring_security_jwt.dto.response.SessionResponse;
+import com.kyedev.spring_security_jwt.entity.RefreshToken;
+import com.kyedev.spring_security_jwt.entity.User;
+import com.kyedev.spring_security_jwt.exceptions.TokenRefreshException;
+import com.kyedev.spring_security_jwt.repository.RefreshTokenRepository;
+import com.kyedev.spring_security_jwt.repository.UserRepository;
+import com.kyedev.spring_security_jwt.security.ReferenceTokenStore;
+import com.kyedev.spring_security_jwt.security.TokenDigests;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    @Value("${jwt.refresh-token-expiration}")
+    private Long refreshTokenDurationMs;
+
+    // 0 disables the limit
+    @Value("${jwt.max-sessions-per-user:10}")
+    private int maxSessionsPerUser;
+
+    // With read routing a miss may come from a lagging replica, so only primary misses are cached
+    @Value("${app.datasource.routing.enabled:false}")
+    private boolean routingEnabled;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final ReferenceTokenStore referenceTokenStore;
+    private final RefreshTokenNegativeCache negativeCache;
+    private final RevocationFeed revocationFeed;
+    private final RefreshGraceCache refreshGraceCache;
+
+    @Transactional(readOnly = true)
+    public Optional<RefreshToken> findByToken(String token) {
+        byte[] digest = TokenDigests.sha256(token);
+        return findByToken(token, digest, negativeCache.get(digest));
+    }
+
+    // Same as findByToken followed by verifyExpiration, but tokens recently seen revoked or expired are
+    // rejected from memory without a lookup
+    @Transactional(readOnly = true)
+    public Optional<RefreshToken> findUsableByToken(String token) {
+        byte[] digest = TokenDigests.sha256(token);
+        RefreshTokenNegativeCache.Verdict verdict = negativeCache.get(digest);
+        if (verdict == RefreshTokenNegativeCache.Verdict.REVOKED) {
+            throw revoked(token);
+        }
+        if (verdict == RefreshTokenNegativeCache.Verdict.EXPIRED) {
+            throw expired(token);
+        }
+        return findByToken(token, digest, verdict).map(this::verifyExpiration);
+    }
+
+    private Optional<RefreshToken> findByToken(String token, byte[] digest, RefreshTokenNegativeCache.Verdict verdict) {
+        AuthOperationEvent event = AuthOperationEvent.start(AuthOperationEvent.REFRESH_LOOKUP);
+        String outcome = AuthOperationEvent.FAILURE;
+        if (verdict == RefreshTokenNegativeCache.Verdict.UNKNOWN) {
+            event.finish(AuthOperationEvent.CACHED, token.length());
+            return Optional.empty();
+        }
+        try (RoutingDataSource.Pin ignored = readYourWritesGuard.pinIfRecentlyWritten(ReadYourWritesGuard.refreshTokenKey(digest))) {
+            Optional<RefreshToken> refreshToken = refreshTokenRepository.findByTokenHash(digest)
+                    .map(rt -> withToken(rt, token));
+            rememberIfMissing(refreshToken, digest);
+            outcome = lookupOutcome(refreshToken);
+            return refreshToken;
+        } finally {
+            event.finish(outcome, token.length());
+        }
+    }
+
+    // Sessions that no longer exist (deleted with their user) count as revoked
+    @Transactional(readOnly = true)
+    public boolean isSessionRevoked(Long sessionId) {
+        return refreshTokenRepository.findById(sessionId)
+                .map(refreshToken -> Boolean.TRUE.equals(refreshToken.getRevoked()))
+                .orElse(true);
+    }
+
+    // Loads the owning user in the same query so the result can be used outside a session
+    @Transactional(readOnly = true)
+    public Optional<RefreshToken> findWithUserByToken(String token) {
+        AuthOperationEvent event = AuthOperationEvent.start(AuthOperationEvent.REFRESH_LOOKUP);
+        String outcome = AuthOperationEvent.FAILURE;
+        byte[] digest = TokenDigests.sha256(token);
+        // Revoked and expired tokens are still loaded, introspection reports their owner
+        if (negativeCache.get(digest) == RefreshTokenNegativeCache.Verdict.UNKNOWN) {
+            event.finish(AuthOperationEvent.CACHED, token.length());
+            return Optional.empty();
+        }
+        try (RoutingDataSource.Pin ignored = readYourWritesGuard.pinIfRecentlyWritten(ReadYourWritesGuard.refreshTokenKey(digest))) {
+            Optional<RefreshToken> refreshToken = refreshTokenRepository.findWithUserByTokenHash(digest)
+                    .map(rt -> withToken(rt, token));
+            rememberIfMissing(refreshToken, digest);
+            outcome = lookupOutcome(refreshToken);
+            return refreshToken;
+        } finally {
+            event.finish(outcome, token.length());
+        }
+    }
+
+    // Joins the caller's transaction, so evicting the oldest session and creating the new one commit together.
+    // With a session cap the user row is locked first: concurrent logins of one user then count and evict
+    // one after another instead of all seeing the same count and overshooting the cap.
+    @Transactional
+    public RefreshToken createRefreshToken(Long userID, String userAgent, String ipAddress) {
+        User user = (maxSessionsPerUser > 0 ? userRepository.findByIdForUpdate(userID) : userRepository.findById(userID))
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        enforceSessionLimit(userID);
+
+        String token = TokenDigests.randomToken();
+        RefreshToken refreshToken = RefreshToken.builder()
+                .user(user)
+                .token(token)
+                .tokenHash(TokenDigests.sha256(token))
+                .expiryDate(Instant.now().plusMillis(refreshTokenDurationMs))
+                .revoked(false)
+                .userAgent(truncate(userAgent, 255))
+                .ipAddress(ipAddress)
+                .build();
+
+        RefreshToken saved = refreshTokenRepository.save(refreshToken);
+        readYourWritesGuard.recordWrite(ReadYourWritesGuard.refreshTokenKey(saved.getTokenHash()));
+        return saved;
+    }
+
+    // Revokes the oldest active sessions so that, with the one about to be created, the user stays at the cap.
+    // One range scan of the user's active sessions, newest first; the cap keeps it to a handful of rows.
+    private void enforceSessionLimit(Long userId) {
+        if (maxSessionsPerUser <= 0) {
+            return;
+        }
+        List<RefreshToken> active = refreshTokenRepository.findActiveByUserId(userId, Instant.now());
+        if (active.size() < maxSessionsPerUser) {
+            return;
+        }
+        List<RefreshToken> evicted = active.subList(maxSessionsPerUser - 1, active.size());
+        List<Long> oldest = evicted.stream().map(RefreshToken::getId).toList();
+        refreshTokenRepository.revokeAllById(oldest);
+        oldest.forEach(referenceTokenStore::revokeSession);
+        revocationFeed.sessionsRevoked(userId, oldest);
+        // A refresh answered just before the eviction must not be replayed from the grace cache
+        TransactionCallbacks.afterCommit(() -> evicted.forEach(rt -> {
+            readYourWritesGuard.recordWrite(ReadYourWritesGuard.refreshTokenKey(rt.getTokenHash()));
+            negativeCache.recordRevoked(rt.getTokenHash());
+            refreshGraceCache.invalidate(rt.getTokenHash());
+        }));
+        log.debug("Session limit reached for user {}, revoked {} oldest session(s)", userId, oldest.size());
+    }
+
+    @Transactional(readOnly = true)
+    public List<SessionResponse> findActiveSessions(Long userId) {
+        return refreshTokenRepository.findActiveByUserId(userId, Instant.now()).stream()
+                .map(rt -> SessionResponse.builder()
+                        .id(rt.getId())
+                        .userAgent(rt.getUserAgent())
+                        .ipAddress(rt.getIpAddress())
+                        .createdAt(rt.getCreatedAt())
+                        .expiresAt(rt.getExpiryDate())
+                        .build())
+                .toList();
+    }
+
+    // Entities loaded by digest get the presented token back so callers can echo it
+    private static RefreshToken withToken(RefreshToken refreshToken, String token) {
+        refreshToken.setToken(token);
+        return refreshToken;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    public RefreshToken verifyExpiration(RefreshToken token) {
+        if (token.isExpired()) {
+            negativeCache.recordExpired(token.getTokenHash());
+            throw expired(token.getToken());
+        }
+        if (token.getRevoked()) {
+            negativeCache.recordRevoked(token.getTokenHash());
+            throw revoked(token.getToken());
+        }
+        return token;
+    }
+
+    private static TokenRefreshException expired(String token) {
+        return new TokenRefreshException(token, "Refresh token was expired. Please make a new signin request");
+    }
+
+    private static TokenRefreshException revoked(String token) {
+        return new TokenRefreshException(token, "Refresh token was revoked. Please make a new signin request");
+    }
+
+    private void rememberIfMissing(Optional<RefreshToken> refreshToken, byte[] digest) {
+        if (refreshToken.isEmpty() && missIsAuthoritative()) {
+            negativeCache.recordUnknown(digest);
+        }
+    }
+
+    private boolean missIsAuthoritative() {
+        return !routingEnabled
+                || RoutingDataSource.isPinnedToPrimary()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    @Transactional
+    public void deleteByUserId(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        refreshTokenRepository.deleteByUser(user);
+    }
+
+    @Transactional
+    public Optional<RefreshToken> revokeToken(String token) {
+        AuthOperationEvent event = AuthOperationEvent.start(AuthOperationEvent.REFRESH_REVOKE);
+        String outcome = AuthOperationEvent.FAILURE;
+        byte[] digest = TokenDigests.sha256(token);
+        // Unknown or already revoked: nothing to do, and no lookup needed
+        RefreshTokenNegativeCache.Verdict verdict = negativeCache.get(digest);
+        if (verdict == RefreshTokenNegativeCache.Verdict.UNKNOWN || verdict == RefreshTokenNegativeCache.Verdict.REVOKED) {
+            event.finish(AuthOperationEvent.CACHED, token.length());
+            return Optional.empty();
+        }
+        try {
+            Optional<RefreshToken> refreshToken = refreshTokenRepository.findByTokenHash(digest);
+            refreshToken.ifPresent(rt -> {
+                if (!rt.getRevoked()) {
+                    // JWT access tokens of the session are denied by verifiers following the revocation feed
+                    revocationFeed.sessionsRevoked(rt.getUser().getId(), List.of(rt.getId()));
+                }
+                rt.setRevoked(true);
+                refreshTokenRepository.save(rt);
+                // Reference access tokens of the session stop resolving right away
+                referenceTokenStore.revokeSession(rt.getId());
+                // A refresh right after logout must not find the token still live on a lagging replica
+                TransactionCallbacks.afterCommit(() -> {
+                    readYourWritesGuard.recordWrite(ReadYourWritesGuard.refreshTokenKey(digest));
+                    negativeCache.recordRevoked(digest);
+                });
+            });
+            rememberIfMissing(refreshToken, digest);
+            outcome = lookupOutcome(refreshToken);
+            return refreshToken;
+        } finally {
+            event.finish(outcome, token.length());
+        }
+    }
+
+    private static String lookupOutcome(Optional<RefreshToken> refreshToken) {
+        return refreshToken.isPresent() ? AuthOperationEvent.SUCCESS : AuthOperationEvent.NOT_FOUND;
+    }
+
+    @Transactional
+    public void deleteExpiredTokens() {
+        refreshTokenRepository.deleteExpiredTokens();
+    }
+
+}
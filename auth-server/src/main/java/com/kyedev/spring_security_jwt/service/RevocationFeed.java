@@ -0,0 +1,597 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.dto.response.RevocationEventResponse;
+import com.kyedev.spring_security_jwt.dto.response.RevocationSnapshotResponse;
+import com.kyedev.spring_security_jwt.entity.RevocationEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.LockSupport;
+
+// Revocations for downstream verifiers that check access tokens locally. Producers append to the
+// REVOCATION_EVENT table inside their own transaction, so an event exists exactly when the revocation
+// committed, on whichever instance made it. A single poller tails the table by id, keeps the recent
+// events for replay plus a compacted state (latest event per session and per user), and pushes new
+// events to subscribed SSE streams.
+//
+// The id is the sequence. Ids can commit out of order, so a missing id holds delivery back for up to
+// gap-timeout before it is skipped; this assumes an auto-increment step of 1. Skipped ids are looked up
+// again for late-commit-window, and one that turns up after all is applied and makes every stream resync
+// from a snapshot, since it sits behind sequences the streams have already seen.
+//
+// Each stream has a bounded queue. Events are queued under the feed's lock and sent outside it by the
+// stream's own virtual thread, so a slow client holds up nobody else; one that falls a full queue behind
+// is closed and reconnects with Last-Event-ID.
+@Component
+@Slf4j
+public class RevocationFeed implements SmartLifecycle {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO revocation_event (type, user_id, session_id, occurred_at) VALUES (?, ?, ?, ?)";
+    private static final String TAIL_SQL =
+            "SELECT id, type, user_id, session_id, occurred_at FROM revocation_event WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String RECENT_SQL =
+            "SELECT id, type, user_id, session_id, occurred_at FROM revocation_event WHERE id <= ? AND occurred_at >= ? ORDER BY id";
+    private static final String MAX_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM revocation_event";
+    private static final String PRUNE_SQL = "DELETE FROM revocation_event WHERE occurred_at < ?";
+    private static final String BY_ID_SQL =
+            "SELECT id, type, user_id, session_id, occurred_at FROM revocation_event WHERE id IN (%s)";
+
+    // Skipped ids looked up again at most; a larger jump (e.g. an id cache lost on restart) is not tracked
+    private static final int MAX_UNRESOLVED = 10_000;
+
+    public static final String EVENT_NAME = "revocation";
+    public static final String SNAPSHOT_NAME = "snapshot";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long tokenLifetimeMillis;
+    private final long retentionMillis;
+    private final long pollIntervalNanos;
+    private final long gapTimeoutMillis;
+    private final int bufferSize;
+    private final int batchSize;
+    private final long snapshotIntervalMillis;
+    private final long heartbeatIntervalMillis;
+    private final long streamTimeoutMillis;
+    private final int streamQueueSize;
+    private final long lateCommitWindowMillis;
+    // Only touched by the poller thread
+    private final Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    private final RowMapper<RevocationEventResponse> rowMapper = (rs, rowNum) -> RevocationEventResponse.builder()
+            .sequence(rs.getLong("id"))
+            .type(RevocationEvent.Type.valueOf(rs.getString("type")))
+            .userId(rs.getLong("user_id"))
+            .sessionId(rs.getObject("session_id") != null ? rs.getLong("session_id") : null)
+            .occurredAt(rs.getTimestamp("occurred_at", utc).toInstant())
+            .build();
+
+    // Guarded by this: the replay buffer, the compacted state and the sequence they are current up to.
+    // Subscribing replays and registers under the same lock, so a stream never misses or repeats an event.
+    private final ArrayDeque<RevocationEventResponse> buffer = new ArrayDeque<>();
+    private final LinkedHashMap<String, RevocationEventResponse> compacted = new LinkedHashMap<>();
+    private volatile long lastSeen;
+    // Streams resuming after this sequence or later can be served from the buffer
+    private long replayableFrom;
+
+    // Lock-free mirror of the compacted state for the request path: key -> latest occurredAt in millis
+    private final ConcurrentHashMap<String, Long> revokedAt = new ConcurrentHashMap<>();
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final List<Consumer<RevocationEventResponse>> listeners = new CopyOnWriteArrayList<>();
+
+    // Sends queued events; one virtual thread per stream while it has something to send
+    private Executor senders = command -> Thread.ofVirtual().name("revocation-stream").start(command);
+
+    // Only touched by the poller thread: skipped id -> when it was skipped
+    private final TreeMap<Long, Long> unresolved = new TreeMap<>();
+    private long gapSinceMillis;
+    private long nextSnapshotMillis;
+    private long nextHeartbeatMillis;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder snapshots = new LongAdder();
+    private final LongAdder pollFailures = new LongAdder();
+    private final LongAdder lateCommits = new LongAdder();
+    private final LongAdder laggingStreams = new LongAdder();
+
+    private volatile boolean running;
+    private volatile Thread poller;
+
+    public RevocationFeed(
+            JdbcTemplate jdbcTemplate,
+            @Value("${jwt.access-token-expiration}") long accessTokenExpiration,
+            @Value("${app.revocation-feed.enabled:true}") boolean enabled,
+            @Value("${app.revocation-feed.retention:1h}") Duration retention,
+            @Value("${app.revocation-feed.poll-interval:1s}") Duration pollInterval,
+            @Value("${app.revocation-feed.gap-timeout:10s}") Duration gapTimeout,
+            @Value("${app.revocation-feed.buffer-size:10000}") int bufferSize,
+            @Value("${app.revocation-feed.batch-size:500}") int batchSize,
+            @Value("${app.revocation-feed.snapshot-interval:5m}") Duration snapshotInterval,
+            @Value("${app.revocation-feed.heartbeat-interval:15s}") Duration heartbeatInterval,
+            @Value("${app.revocation-feed.stream-timeout:30m}") Duration streamTimeout,
+            @Value("${app.revocation-feed.stream-queue-size:1000}") int streamQueueSize,
+            @Value("${app.revocation-feed.late-commit-window:5m}") Duration lateCommitWindow
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.tokenLifetimeMillis = accessTokenExpiration;
+        // Rows must outlive every access token they can still deny, or a bootstrap would forget them
+        this.retentionMillis = Math.max(retention.toMillis(), accessTokenExpiration);
+        this.pollIntervalNanos = pollInterval.toNanos();
+        this.gapTimeoutMillis = gapTimeout.toMillis();
+        this.bufferSize = bufferSize;
+        this.batchSize = batchSize;
+        this.snapshotIntervalMillis = snapshotInterval.toMillis();
+        this.heartbeatIntervalMillis = heartbeatInterval.toMillis();
+        this.streamTimeoutMillis = streamTimeout.toMillis();
+        this.streamQueueSize = streamQueueSize;
+        this.lateCommitWindowMillis = lateCommitWindow.toMillis();
+    }
+
+    // Joins the caller's transaction: if the event cannot be written, the revocation rolls back with it
+    public void sessionsRevoked(Long userId, Collection<Long> sessionIds) {
+        List<Long[]> rows = new ArrayList<>(sessionIds.size());
+        for (Long sessionId : sessionIds) {
+            rows.add(new Long[]{userId, sessionId});
+        }
+        append(RevocationEvent.Type.SESSION_REVOKED, rows);
+    }
+
+    public void usersChanged(RevocationEvent.Type type, Collection<Long> userIds) {
+        List<Long[]> rows = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            rows.add(new Long[]{userId, null});
+        }
+        append(type, rows);
+    }
+
+    private void append(RevocationEvent.Type type, List<Long[]> rows) {
+        if (!enabled || rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, type.name());
+                ps.setLong(2, rows.get(i)[0]);
+                if (rows.get(i)[1] != null) {
+                    ps.setLong(3, rows.get(i)[1]);
+                } else {
+                    ps.setNull(3, Types.BIGINT);
+                }
+                ps.setTimestamp(4, now, calendar);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+        recorded.add(rows.size());
+        // Local revocations deny tokens and reach subscribers without waiting for the next poll
+        TransactionCallbacks.afterCommit(() -> {
+            for (Long[] row : rows) {
+                revokedAt.merge(key(type, row[0], row[1]), now.getTime(), Math::max);
+            }
+            Thread current = poller;
+            if (current != null) {
+                LockSupport.unpark(current);
+            }
+        });
+    }
+
+    // In-process consumers of every committed event, from this instance or any other, called on the poller
+    // thread in sequence order, e.g. to drop node-local caches
+    public void addListener(Consumer<RevocationEventResponse> listener) {
+        listeners.add(listener);
+    }
+
+    // Replays what the stream missed when after is still in the buffer and fits its queue, otherwise
+    // starts with a snapshot
+    public SseEmitter subscribe(Long after) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::discard);
+        emitter.onTimeout(subscriber::discard);
+        emitter.onError(e -> subscriber.discard());
+        synchronized (this) {
+            List<RevocationEventResponse> missed = eventsAfter(after);
+            if (missed != null && missed.size() < streamQueueSize) {
+                replays.increment();
+                missed.forEach(event -> subscriber.offer(event(event)));
+            } else {
+                subscriber.offer(snapshotEvent(snapshot()));
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    // Null when events after that sequence are no longer (or not yet) buffered
+    synchronized List<RevocationEventResponse> eventsAfter(Long after) {
+        if (after == null || after < replayableFrom || after > lastSeen) {
+            return null;
+        }
+        List<RevocationEventResponse> missed = new ArrayList<>();
+        for (RevocationEventResponse event : buffer) {
+            if (event.getSequence() > after) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // True when the user or the session had a revocation at or after the token was issued, both in
+    // milliseconds (see JwtService.extractIssuedAtMillis), so a token issued right after an event in the
+    // same second stays valid. Changes made on other instances are seen once polled.
+    public boolean denies(Long userId, Long sessionId, long issuedAtMillis) {
+        Long userRevokedAt = revokedAt.get("u:" + userId);
+        if (userRevokedAt != null && userRevokedAt >= issuedAtMillis) {
+            return true;
+        }
+        Long sessionRevokedAt = sessionId == null ? null : revokedAt.get("s:" + sessionId);
+        return sessionRevokedAt != null && sessionRevokedAt >= issuedAtMillis;
+    }
+
+    public synchronized RevocationSnapshotResponse snapshot() {
+        snapshots.increment();
+        return RevocationSnapshotResponse.builder()
+                .sequence(lastSeen)
+                .generatedAt(Instant.now())
+                .entries(List.copyOf(compacted.values()))
+                .build();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        bootstrap();
+        running = true;
+        long now = System.currentTimeMillis();
+        nextSnapshotMillis = now + snapshotIntervalMillis;
+        nextHeartbeatMillis = now + heartbeatIntervalMillis;
+        Thread thread = new Thread(this::pollLoop, "revocation-feed-poller");
+        thread.setDaemon(true);
+        poller = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = poller;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            poller = null;
+        }
+        subscribers.forEach(Subscriber::close);
+        subscribers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Rebuilds the compacted state from rows still able to deny a token; older history is not replayable
+    void bootstrap() {
+        long maxId = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+        Timestamp since = Timestamp.from(Instant.now().minusMillis(tokenLifetimeMillis));
+        List<RevocationEventResponse> recent = jdbcTemplate.query(RECENT_SQL, ps -> {
+            ps.setLong(1, maxId);
+            ps.setTimestamp(2, since, utc);
+        }, rowMapper);
+        synchronized (this) {
+            buffer.clear();
+            compacted.clear();
+            revokedAt.clear();
+            recent.forEach(this::apply);
+            lastSeen = maxId;
+            replayableFrom = maxId;
+        }
+        // Holes among the rows read cannot be told apart from rows too old to read, so they are not tracked
+        unresolved.clear();
+        log.info("Revocation feed starting at sequence {} with {} active entries", maxId, compacted.size());
+    }
+
+    private void pollLoop() {
+        while (running) {
+            boolean more = false;
+            try {
+                more = poll();
+                housekeeping(System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                pollFailures.increment();
+                log.warn("Polling revocation events failed: {}", e.getMessage());
+            }
+            if (!more) {
+                LockSupport.parkNanos(this, pollIntervalNanos);
+            }
+        }
+    }
+
+    // True when a full batch was read and more rows are probably waiting
+    boolean poll() {
+        List<RevocationEventResponse> rows = jdbcTemplate.query(TAIL_SQL, rowMapper, lastSeen, batchSize);
+        long now = System.currentTimeMillis();
+        long expected = lastSeen + 1;
+        List<RevocationEventResponse> ready = new ArrayList<>(rows.size());
+        for (RevocationEventResponse row : rows) {
+            if (row.getSequence() != expected) {
+                // A lower id may still be committing; wait for it before moving past
+                if (gapSinceMillis == 0) {
+                    gapSinceMillis = now;
+                }
+                if (now - gapSinceMillis < gapTimeoutMillis) {
+                    break;
+                }
+                skipped.add(row.getSequence() - expected);
+                markUnresolved(expected, row.getSequence(), now);
+                log.warn("Revocation events {} to {} not committed after {}ms, skipping", expected,
+                        row.getSequence() - 1, gapTimeoutMillis);
+            }
+            gapSinceMillis = 0;
+            ready.add(row);
+            expected = row.getSequence() + 1;
+        }
+        if (!ready.isEmpty()) {
+            deliver(ready);
+            notifyListeners(ready);
+        }
+        if (!unresolved.isEmpty()) {
+            recheckUnresolved(now);
+        }
+        return rows.size() == batchSize && ready.size() == rows.size();
+    }
+
+    // Queues only, so the lock is never held while a client is being written to
+    private synchronized void deliver(List<RevocationEventResponse> events) {
+        List<SseEmitter.SseEventBuilder> sse = new ArrayList<>(events.size());
+        for (RevocationEventResponse event : events) {
+            buffer.addLast(event);
+            if (buffer.size() > bufferSize) {
+                replayableFrom = buffer.removeFirst().getSequence();
+            }
+            apply(event);
+            lastSeen = event.getSequence();
+            sse.add(event(event));
+        }
+        delivered.add(events.size());
+        for (Subscriber subscriber : subscribers) {
+            for (SseEmitter.SseEventBuilder event : sse) {
+                if (!subscriber.offer(event)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void markUnresolved(long fromId, long toIdExclusive, long now) {
+        long tracked = Math.min(toIdExclusive, fromId + MAX_UNRESOLVED - unresolved.size());
+        for (long id = fromId; id < tracked; id++) {
+            unresolved.put(id, now);
+        }
+        if (tracked < toIdExclusive) {
+            log.warn("Revocation events {} to {} are not looked up again", tracked, toIdExclusive - 1);
+        }
+    }
+
+    // Looks skipped ids up again. Ones found committed late are applied, and since streams have already
+    // moved past their sequence, every stream gets a snapshot and older resume positions are refused.
+    private void recheckUnresolved(long now) {
+        unresolved.values().removeIf(skippedAt -> now - skippedAt > lateCommitWindowMillis);
+        if (unresolved.isEmpty()) {
+            return;
+        }
+        List<Long> ids = unresolved.keySet().stream().limit(batchSize).toList();
+        StringJoiner placeholders = new StringJoiner(",");
+        ids.forEach(id -> placeholders.add("?"));
+        List<RevocationEventResponse> late =
+                jdbcTemplate.query(BY_ID_SQL.formatted(placeholders), rowMapper, ids.toArray());
+        if (late.isEmpty()) {
+            return;
+        }
+        late.forEach(event -> unresolved.remove(event.getSequence()));
+        lateCommits.add(late.size());
+        log.warn("{} skipped revocation event(s) committed late, resyncing streams", late.size());
+        synchronized (this) {
+            late.forEach(this::apply);
+            // Every position up to now missed these events, the current one included
+            buffer.clear();
+            replayableFrom = lastSeen + 1;
+            SseEmitter.SseEventBuilder snapshot = snapshotEvent(snapshot());
+            subscribers.forEach(subscriber -> subscriber.offer(snapshot));
+        }
+        notifyListeners(late);
+    }
+
+    private void notifyListeners(List<RevocationEventResponse> events) {
+        for (Consumer<RevocationEventResponse> listener : listeners) {
+            for (RevocationEventResponse event : events) {
+                try {
+                    listener.accept(event);
+                } catch (RuntimeException e) {
+                    log.warn("Revocation listener failed on event {}: {}", event.getSequence(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void housekeeping(long now) {
+        if (now >= nextSnapshotMillis) {
+            nextSnapshotMillis = now + snapshotIntervalMillis;
+            compact(now);
+            jdbcTemplate.update(PRUNE_SQL, ps -> ps.setTimestamp(1, new Timestamp(now - retentionMillis), utc));
+            if (!subscribers.isEmpty()) {
+                synchronized (this) {
+                    SseEmitter.SseEventBuilder event = snapshotEvent(snapshot());
+                    subscribers.forEach(subscriber -> subscriber.offer(event));
+                }
+            }
+            nextHeartbeatMillis = now + heartbeatIntervalMillis;
+        } else if (now >= nextHeartbeatMillis) {
+            nextHeartbeatMillis = now + heartbeatIntervalMillis;
+            // Keeps proxies from closing idle streams and surfaces disconnected clients
+            subscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("keepalive")));
+        }
+    }
+
+    // Entries older than the access-token lifetime cannot deny any token that is still valid
+    synchronized void compact(long now) {
+        long horizon = now - tokenLifetimeMillis;
+        compacted.values().removeIf(event -> event.getOccurredAt().toEpochMilli() < horizon);
+        revokedAt.values().removeIf(occurredAt -> occurredAt < horizon);
+    }
+
+    // Re-inserted so the map stays in sequence order; a late event never replaces a newer one
+    private void apply(RevocationEventResponse event) {
+        String key = key(event.getType(), event.getUserId(), event.getSessionId());
+        revokedAt.merge(key, event.getOccurredAt().toEpochMilli(), Math::max);
+        RevocationEventResponse current = compacted.get(key);
+        if (current != null && current.getSequence() > event.getSequence()) {
+            return;
+        }
+        compacted.remove(key);
+        compacted.put(key, event);
+    }
+
+    private static String key(RevocationEvent.Type type, Long userId, Long sessionId) {
+        return type == RevocationEvent.Type.SESSION_REVOKED ? "s:" + sessionId : "u:" + userId;
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(streamQueueSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // Never blocks. False when the stream is closed, or was just closed for falling a full queue behind.
+        boolean offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return false;
+            }
+            if (!queue.offer(event)) {
+                laggingStreams.increment();
+                log.info("Closing a revocation stream that fell {} events behind", streamQueueSize);
+                close();
+                return false;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+            return true;
+        }
+
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = queue.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        // The client went away; the container completes the emitter
+                        discard();
+                        return;
+                    }
+                }
+                draining.set(false);
+                // An event queued after the last poll but before the flag was cleared needs a new drain
+            } while (!closed && !queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        // The client reconnects with Last-Event-ID and gets a replay or a snapshot
+        void close() {
+            discard();
+            emitter.complete();
+        }
+
+        void discard() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder event(RevocationEventResponse event) {
+        return SseEmitter.event()
+                .id(String.valueOf(event.getSequence()))
+                .name(EVENT_NAME)
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+
+    private static SseEmitter.SseEventBuilder snapshotEvent(RevocationSnapshotResponse snapshot) {
+        return SseEmitter.event()
+                .id(String.valueOf(snapshot.getSequence()))
+                .name(SNAPSHOT_NAME)
+                .data(snapshot, MediaType.APPLICATION_JSON);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("sequence", lastSeen);
+        stats.put("subscribers", subscribers.size());
+        stats.put("recorded", recorded.sum());
+        stats.put("delivered", delivered.sum());
+        stats.put("skipped", skipped.sum());
+        stats.put("lateCommits", lateCommits.sum());
+        stats.put("replays", replays.sum());
+        stats.put("snapshots", snapshots.sum());
+        stats.put("laggingStreams", laggingStreams.sum());
+        stats.put("pollFailures", pollFailures.sum());
+        return stats;
+    }
+}
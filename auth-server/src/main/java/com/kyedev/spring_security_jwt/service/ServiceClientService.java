@@ -0,0 +1,285 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.kyedev.spring_security_jwt.dto.request.ClientCredentialsRequest;
+import com.kyedev.spring_security_jwt.dto.request.ServiceClientRequest;
+import com.kyedev.spring_security_jwt.dto.response.ClientTokenResponse;
+import com.kyedev.spring_security_jwt.dto.response.ServiceClientResponse;
+import com.kyedev.spring_security_jwt.entity.ServiceClient;
+import com.kyedev.spring_security_jwt.exceptions.BadRequestException;
+import com.kyedev.spring_security_jwt.exceptions.ResourceNotFoundException;
+import com.kyedev.spring_security_jwt.exceptions.UnauthorizedException;
+import com.kyedev.spring_security_jwt.repository.ServiceClientRepository;
+import com.kyedev.spring_security_jwt.security.RoleNames;
+import com.kyedev.spring_security_jwt.security.RoleRegistry;
+import com.kyedev.spring_security_jwt.security.TokenDigests;
+import io.jsonwebtoken.io.Decoders;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Client-credentials grant for service accounts. Secrets are random 256-bit values, so they are checked
+// with HMAC-SHA256 under a server-side key instead of BCrypt. Issued tokens are kept per client and scope
+// and handed out again until they get close to expiry; no refresh token is ever created.
+// Whether each client is enabled is held in memory, so authenticating a client token needs no database
+// round trip; clients created elsewhere are looked up once, clients disabled elsewhere are picked up by sync().
+@Service
+@Slf4j
+public class ServiceClientService {
+
+    private static final String SCOPE_SEPARATOR = ",";
+
+    // The secret hash is kept with the token so a cache hit still checks the presented secret
+    private record IssuedToken(String token, byte[] secretHash, List<String> scopes, long expiresAtMillis) {
+    }
+
+    private final ServiceClientRepository serviceClientRepository;
+    private final JwtService jwtService;
+    private final RoleRegistry roleRegistry;
+    private final ThreadLocal<Mac> secretMac;
+    private final long reuseMarginMillis;
+
+    // An entry is dropped once its token gets within the reuse margin of expiry
+    private final Cache<String, IssuedToken> issuedTokens;
+    private volatile Map<String, Boolean> clientStates = new ConcurrentHashMap<>();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder issued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public ServiceClientService(
+            ServiceClientRepository serviceClientRepository,
+            JwtService jwtService,
+            RoleRegistry roleRegistry,
+            @Value("${app.service-clients.secret-key:}") String secretKey,
+            @Value("${app.service-clients.require-secret-key:false}") boolean requireSecretKey,
+            @Value("${app.service-clients.reuse-margin:5m}") Duration reuseMargin,
+            @Value("${app.service-clients.max-cached-tokens:1000}") int maxCachedTokens
+    ) {
+        this.serviceClientRepository = serviceClientRepository;
+        this.jwtService = jwtService;
+        this.roleRegistry = roleRegistry;
+        this.reuseMarginMillis = reuseMargin.toMillis();
+        this.issuedTokens = BoundedCaches.expiringAt(maxCachedTokens, token -> token.expiresAtMillis() - reuseMarginMillis);
+        SecretKeySpec key = new SecretKeySpec(secretKeyBytes(secretKey, requireSecretKey), "HmacSHA256");
+        this.secretMac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    // Not transactional: a re-served token needs no database connection at all
+    public ClientTokenResponse issueToken(ClientCredentialsRequest request) {
+        String clientId = request.getClientId().trim();
+        Set<String> requested = scopesOf(request.getScope());
+        String cacheKey = clientId + "\n" + String.join(SCOPE_SEPARATOR, requested);
+        byte[] secretHash = hashSecret(request.getClientSecret());
+        long now = System.currentTimeMillis();
+
+        IssuedToken cached = issuedTokens.getIfPresent(cacheKey);
+        if (cached != null && MessageDigest.isEqual(cached.secretHash(), secretHash)
+                && cached.expiresAtMillis() - now > reuseMarginMillis && isActive(clientId)) {
+            reused.increment();
+            return response(clientId, cached, now);
+        }
+
+        ServiceClient client = serviceClientRepository.findByClientId(clientId)
+                .filter(ServiceClient::getEnabled)
+                .filter(candidate -> MessageDigest.isEqual(candidate.getSecretHash(), secretHash))
+                .orElseThrow(() -> {
+                    rejected.increment();
+                    return new UnauthorizedException("Invalid client credentials");
+                });
+
+        Set<String> allowed = scopesOf(client.getScopes());
+        Set<String> granted = requested.isEmpty() ? allowed : requested;
+        if (!allowed.containsAll(granted)) {
+            rejected.increment();
+            throw new BadRequestException("Requested scope is not allowed for this client");
+        }
+
+        List<String> scopes = List.copyOf(granted);
+        String token = jwtService.generateClientToken(clientId, roleRegistry.authoritiesOf(roleRegistry.maskOfNames(scopes)));
+        IssuedToken fresh = new IssuedToken(token, secretHash, scopes, now + jwtService.getAccessTokenExpiration());
+        issuedTokens.put(cacheKey, fresh);
+        issued.increment();
+        return response(clientId, fresh, now);
+    }
+
+    // Checked on every request made with a client token. Disabling a client cuts it off right away on
+    // this instance and on the next sync elsewhere.
+    public boolean isActive(String clientId) {
+        Boolean enabled = clientStates.get(clientId);
+        if (enabled != null) {
+            return enabled;
+        }
+        // Client tokens are signed, so an id not seen yet belongs to a client created on another instance
+        return serviceClientRepository.findByClientId(clientId)
+                .map(client -> {
+                    clientStates.putIfAbsent(clientId, client.getEnabled());
+                    return client.getEnabled();
+                })
+                .orElse(false);
+    }
+
+    @Transactional
+    public ServiceClientResponse create(ServiceClientRequest request) {
+        if (serviceClientRepository.existsByClientId(request.getClientId())) {
+            throw new BadRequestException("Client id is already in use");
+        }
+        Set<String> scopes = new LinkedHashSet<>();
+        for (String scope : request.getScopes()) {
+            String name = RoleNames.normalize(scope);
+            if (roleRegistry.bitOf(name) < 0) {
+                throw new BadRequestException("Unknown role: " + name);
+            }
+            scopes.add(name);
+        }
+
+        String secret = TokenDigests.randomToken();
+        ServiceClient client = serviceClientRepository.save(ServiceClient.builder()
+                .clientId(request.getClientId())
+                .secretHash(hashSecret(secret))
+                .scopes(String.join(SCOPE_SEPARATOR, scopes))
+                .enabled(true)
+                .build());
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                clientStates.put(client.getClientId(), true);
+            }
+        });
+        log.info("Service client {} created with scopes {}", client.getClientId(), client.getScopes());
+
+        ServiceClientResponse response = toResponse(client);
+        response.setClientSecret(secret);
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ServiceClientResponse> findAll() {
+        return serviceClientRepository.findAll().stream().map(ServiceClientService::toResponse).toList();
+    }
+
+    // Tokens already issued stop authenticating through isActive; cached ones are dropped after commit
+    @Transactional
+    public void disable(String clientId) {
+        ServiceClient client = serviceClientRepository.findByClientId(clientId)
+                .orElseThrow(() -> new ResourceNotFoundException("Service client not found"));
+        client.setEnabled(false);
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                clientStates.put(clientId, false);
+            }
+            issuedTokens.asMap().keySet().removeIf(key -> key.startsWith(clientId + "\n"));
+        });
+        log.info("Service client {} disabled", clientId);
+    }
+
+    @PostConstruct
+    void load() {
+        sync();
+    }
+
+    // Rebuilds the client states from the database. Holds the lock while reading, so a local create or
+    // disable committed meanwhile is applied after it.
+    @Scheduled(fixedDelayString = "${app.service-clients.sync-interval:30s}",
+            initialDelayString = "${app.service-clients.sync-interval:30s}")
+    public synchronized void sync() {
+        try {
+            Map<String, Boolean> next = new ConcurrentHashMap<>();
+            for (ServiceClient client : serviceClientRepository.findAll()) {
+                next.put(client.getClientId(), client.getEnabled());
+            }
+            clientStates = next;
+        } catch (RuntimeException e) {
+            // The current states keep answering until the next attempt
+            log.warn("Syncing service clients failed: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "issued", issued.sum(),
+                "reused", reused.sum(),
+                "rejected", rejected.sum(),
+                "cachedTokens", issuedTokens.estimatedSize(),
+                "knownClients", (long) clientStates.size()
+        );
+    }
+
+    // Without a configured key, secrets issued by this process stop working when it restarts
+    private static byte[] secretKeyBytes(String secretKey, boolean required) {
+        if (secretKey != null && !secretKey.isBlank()) {
+            return Decoders.BASE64.decode(secretKey);
+        }
+        if (required) {
+            throw new IllegalStateException("app.service-clients.secret-key is not set (APP_SERVICECLIENTS_SECRETKEY)");
+        }
+        log.warn("app.service-clients.secret-key is not set, using a random key for this process only");
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+
+    private byte[] hashSecret(String secret) {
+        return secretMac.get().doFinal(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Sorted by registry order so "ADMIN USER" and "user admin" share one cache entry
+    private Set<String> scopesOf(String scopes) {
+        Set<String> names = new LinkedHashSet<>();
+        if (scopes == null || scopes.isBlank()) {
+            return names;
+        }
+        for (String scope : scopes.split("[\\s,]+")) {
+            if (!scope.isEmpty()) {
+                String name = RoleNames.normalize(scope);
+                if (roleRegistry.bitOf(name) < 0) {
+                    throw new BadRequestException("Unknown scope: " + scope);
+                }
+                names.add(name);
+            }
+        }
+        return new LinkedHashSet<>(roleRegistry.namesOf(roleRegistry.maskOfNames(names)));
+    }
+
+    private static ClientTokenResponse response(String clientId, IssuedToken token, long now) {
+        return ClientTokenResponse.builder()
+                .accessToken(token.token())
+                .tokenType("Bearer")
+                .expiresIn(token.expiresAtMillis() - now)
+                .clientId(clientId)
+                .scopes(token.scopes())
+                .build();
+    }
+
+    private static ServiceClientResponse toResponse(ServiceClient client) {
+        return ServiceClientResponse.builder()
+                .clientId(client.getClientId())
+                .scopes(List.of(client.getScopes().split(SCOPE_SEPARATOR)))
+                .enabled(client.getEnabled())
+                .createdAt(client.getCreatedAt())
+                .build();
+    }
+}
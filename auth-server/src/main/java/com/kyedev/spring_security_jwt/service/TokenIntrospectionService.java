@@ -0,0 +1,176 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.dto.response.TokenIntrospectionResponse;
+import com.kyedev.spring_security_jwt.entity.RefreshToken;
+import com.kyedev.spring_security_jwt.entity.Role;
+import com.kyedev.spring_security_jwt.entity.User;
+import com.kyedev.spring_security_jwt.exceptions.BadRequestException;
+import com.kyedev.spring_security_jwt.security.ReferenceTokenStore;
+import com.kyedev.spring_security_jwt.security.RoleRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenIntrospectionService {
+
+    private static final String ACCESS_TOKEN = "access_token";
+    private static final String REFRESH_TOKEN = "refresh_token";
+
+    private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final ReferenceTokenStore referenceTokenStore;
+    private final RoleRegistry roleRegistry;
+    private final UserDetailsService userDetailsService;
+    private final ServiceClientService serviceClientService;
+    private final RevocationFeed revocationFeed;
+
+    @Value("${jwt.introspection.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${jwt.introspection.pool-size:8}")
+    private int poolSize;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "token-introspection-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    // Results are returned in the same order as the submitted tokens
+    public List<TokenIntrospectionResponse> introspect(List<String> tokens) {
+        if (tokens.size() > maxBatchSize) {
+            throw new BadRequestException("A maximum of " + maxBatchSize + " tokens can be introspected per request");
+        }
+
+        List<CompletableFuture<TokenIntrospectionResponse>> futures = tokens.stream()
+                .map(token -> CompletableFuture.supplyAsync(() -> introspect(token), executor))
+                .toList();
+
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .toList();
+    }
+
+    public TokenIntrospectionResponse introspect(String token) {
+        if (token == null || token.isBlank()) {
+            return TokenIntrospectionResponse.inactive();
+        }
+        try {
+            if (ReferenceTokenStore.isReferenceToken(token)) {
+                return introspectReferenceToken(token);
+            }
+            return isJwt(token) ? introspectAccessToken(token) : introspectRefreshToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token introspection rejected token: {}", e.getMessage());
+            return TokenIntrospectionResponse.inactive();
+        }
+    }
+
+    private TokenIntrospectionResponse introspectAccessToken(String token) {
+        Claims claims = jwtService.extractAllClaims(token);
+        boolean revoked = isRevoked(claims);
+        return TokenIntrospectionResponse.builder()
+                .active(!revoked)
+                .tokenType(ACCESS_TOKEN)
+                .subject(claims.getSubject())
+                .roles(jwtService.extractRoles(claims))
+                .exp(claims.getExpiration().toInstant().getEpochSecond())
+                .revoked(revoked)
+                .build();
+    }
+
+    // A valid signature is not enough: the client, or the user and the session the token was issued
+    // for, must still be usable, as for refresh tokens. With the revocation feed on, that is answered from
+    // memory like in JwtAuthenticationFilter, so a batch costs no queries per user token.
+    private boolean isRevoked(Claims claims) {
+        String clientId = jwtService.extractClientId(claims);
+        if (clientId != null) {
+            return !serviceClientService.isActive(clientId);
+        }
+        if (revocationFeed.isEnabled()) {
+            Long userId = jwtService.extractUserId(claims);
+            return userId == null || revocationFeed.denies(userId, jwtService.extractSessionId(claims),
+                    jwtService.extractIssuedAtMillis(claims));
+        }
+        if (!isAccountAvailable(claims.getSubject())) {
+            return true;
+        }
+        Long sessionId = jwtService.extractSessionId(claims);
+        return sessionId != null && refreshTokenService.isSessionRevoked(sessionId);
+    }
+
+    private boolean isAccountAvailable(String username) {
+        try {
+            return userDetailsService.loadUserByUsername(username).isEnabled();
+        } catch (UsernameNotFoundException e) {
+            return false;
+        }
+    }
+
+    private TokenIntrospectionResponse introspectReferenceToken(String token) {
+        ReferenceTokenStore.Principal principal = referenceTokenStore.resolve(token);
+        if (principal == null) {
+            return TokenIntrospectionResponse.inactive();
+        }
+        return TokenIntrospectionResponse.builder()
+                .active(true)
+                .tokenType(ACCESS_TOKEN)
+                .subject(principal.username())
+                .roles(roleRegistry.namesOf(principal.roleMask()))
+                .exp(principal.expiresAtMillis() / 1000)
+                .revoked(false)
+                .build();
+    }
+
+    private TokenIntrospectionResponse introspectRefreshToken(String token) {
+        return refreshTokenService.findWithUserByToken(token)
+                .map(this::toResponse)
+                .orElseGet(TokenIntrospectionResponse::inactive);
+    }
+
+    private TokenIntrospectionResponse toResponse(RefreshToken refreshToken) {
+        User user = refreshToken.getUser();
+        boolean revoked = Boolean.TRUE.equals(refreshToken.getRevoked());
+        return TokenIntrospectionResponse.builder()
+                .active(!revoked && !refreshToken.isExpired() && user.isEnabled())
+                .tokenType(REFRESH_TOKEN)
+                .subject(user.getUsername())
+                .roles(user.getRoles().stream().map(Role::getName).toList())
+                .exp(refreshToken.getExpiryDate().getEpochSecond())
+                .revoked(revoked)
+                .build();
+    }
+
+    // A compact JWS always has exactly two dots; refresh tokens never contain any
+    private boolean isJwt(String token) {
+        int first = token.indexOf('.');
+        return first > 0 && token.indexOf('.', first + 1) > first;
+    }
+}
@@ -0,0 +1,208 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.config.ReadYourWritesGuard;
+import com.kyedev.spring_security_jwt.dto.request.BulkRoleRequest;
+import com.kyedev.spring_security_jwt.dto.request.BulkUserRequest;
+import com.kyedev.spring_security_jwt.dto.response.BulkUserResponse;
+import com.kyedev.spring_security_jwt.entity.RevocationEvent;
+import com.kyedev.spring_security_jwt.entity.Role;
+import com.kyedev.spring_security_jwt.exceptions.BadRequestException;
+import com.kyedev.spring_security_jwt.repository.RefreshTokenRepository;
+import com.kyedev.spring_security_jwt.repository.RoleRepository;
+import com.kyedev.spring_security_jwt.repository.UserRepository;
+import com.kyedev.spring_security_jwt.security.ReferenceTokenStore;
+import com.kyedev.spring_security_jwt.security.RoleNames;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+// Set-based user administration: the selection is resolved with one query, then every change (users, role
+// assignments and their refresh tokens) is a handful of IN-list statements in one transaction. In-memory
+// state (reference tokens, the refresh grace cache, read-your-writes pins) is invalidated once it commits.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserAdminService {
+
+    // Keeps IN lists well below database parameter limits
+    private static final int IN_LIST_CHUNK = 1000;
+
+    private record Targets(List<Long> ids, Set<String> usernames) {
+    }
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final ReferenceTokenStore referenceTokenStore;
+    private final RefreshCoalescer refreshCoalescer;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final AccountAvailabilityService accountAvailabilityService;
+    private final EntityCacheService entityCacheService;
+    private final RevocationFeed revocationFeed;
+
+    @Value("${app.admin.bulk.max-users:10000}")
+    private int maxUsers;
+
+    @Transactional
+    public BulkUserResponse disable(BulkUserRequest request, Long actingUserId) {
+        Targets targets = resolve(request, actingUserId, true);
+        LocalDateTime now = LocalDateTime.now();
+        int updated = chunked(targets.ids(), ids -> userRepository.updateEnabled(ids, false, now));
+        int revoked = chunked(targets.ids(), refreshTokenRepository::revokeAllByUserIdIn);
+        revocationFeed.usersChanged(RevocationEvent.Type.USER_DISABLED, targets.ids());
+        invalidateAfterCommit(targets, true);
+        return response("disable", targets, updated, revoked);
+    }
+
+    @Transactional
+    public BulkUserResponse enable(BulkUserRequest request, Long actingUserId) {
+        Targets targets = resolve(request, actingUserId, false);
+        LocalDateTime now = LocalDateTime.now();
+        int updated = chunked(targets.ids(), ids -> userRepository.updateEnabled(ids, true, now));
+        invalidateAfterCommit(targets, false);
+        return response("enable", targets, updated, 0);
+    }
+
+    @Transactional
+    public BulkUserResponse delete(BulkUserRequest request, Long actingUserId) {
+        Targets targets = resolve(request, actingUserId, true);
+        // Children first: refresh tokens and role assignments reference the users
+        int deletedTokens = chunked(targets.ids(), refreshTokenRepository::deleteAllByUserIdIn);
+        chunked(targets.ids(), userRepository::removeAllRoles);
+        int deleted = chunked(targets.ids(), userRepository::deleteAllByIdIn);
+        revocationFeed.usersChanged(RevocationEvent.Type.USER_DELETED, targets.ids());
+        invalidateAfterCommit(targets, true);
+        if (deleted > 0) {
+            accountAvailabilityService.deleted();
+        }
+        return response("delete", targets, deleted, deletedTokens);
+    }
+
+    // Refresh tokens stay valid: refreshing reloads the user, so new access tokens carry the new roles.
+    // Reference tokens carry the role mask they were issued with and are revoked.
+    @Transactional
+    public BulkUserResponse reassignRoles(BulkRoleRequest request, Long actingUserId) {
+        boolean removesRoles = request.getOperation() != BulkRoleRequest.Operation.ADD;
+        Targets targets = resolve(request.getUsers(), actingUserId, removesRoles);
+        List<Long> roleIds = resolveRoles(request.getRoles());
+
+        switch (request.getOperation()) {
+            case ADD -> chunked(targets.ids(), ids -> userRepository.addRoles(ids, roleIds));
+            case REMOVE -> chunked(targets.ids(), ids -> userRepository.removeRoles(ids, roleIds));
+            case REPLACE -> {
+                chunked(targets.ids(), userRepository::removeAllRoles);
+                chunked(targets.ids(), ids -> userRepository.addRoles(ids, roleIds));
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int updated = chunked(targets.ids(), ids -> userRepository.touch(ids, now));
+        // Only lost roles matter to verifiers; older tokens lacking an added role are merely narrower
+        if (removesRoles) {
+            revocationFeed.usersChanged(RevocationEvent.Type.USER_ROLES_CHANGED, targets.ids());
+        }
+        invalidateAfterCommit(targets, true);
+        return response("roles." + request.getOperation().name().toLowerCase(), targets, updated, 0);
+    }
+
+    private Targets resolve(BulkUserRequest request, Long actingUserId, boolean excludesActingUser) {
+        if (request == null) {
+            throw new BadRequestException("A user selection is required");
+        }
+        boolean matchIds = request.getUserIds() != null && !request.getUserIds().isEmpty();
+        boolean matchUsernames = request.getUsernames() != null && !request.getUsernames().isEmpty();
+        boolean filtered = request.getRole() != null || request.getEnabled() != null
+                || request.getEmailDomain() != null || request.getCreatedAfter() != null
+                || request.getCreatedBefore() != null;
+        if (!matchIds && !matchUsernames && !filtered) {
+            throw new BadRequestException("Select users by userIds, usernames or at least one filter");
+        }
+        if ((matchIds ? request.getUserIds().size() : 0) + (matchUsernames ? request.getUsernames().size() : 0) > maxUsers) {
+            throw new BadRequestException("At most " + maxUsers + " users can be changed at once");
+        }
+
+        // Unused lists still need a non-empty value to bind
+        List<Object[]> rows = userRepository.findBulkTargets(
+                matchIds, matchIds ? request.getUserIds() : List.of(-1L),
+                matchUsernames, matchUsernames ? request.getUsernames() : List.of(""),
+                request.getEnabled(),
+                request.getEmailDomain() != null ? "%@" + request.getEmailDomain() : null,
+                request.getCreatedAfter(),
+                request.getCreatedBefore(),
+                request.getRole() != null ? RoleNames.normalize(request.getRole()) : null,
+                PageRequest.of(0, maxUsers + 1)
+        );
+        if (rows.size() > maxUsers) {
+            throw new BadRequestException("Selection matches more than " + maxUsers + " users, narrow it down");
+        }
+
+        List<Long> ids = new ArrayList<>(rows.size());
+        Set<String> usernames = new HashSet<>();
+        for (Object[] row : rows) {
+            ids.add(((Number) row[0]).longValue());
+            usernames.add((String) row[1]);
+        }
+        if (excludesActingUser && actingUserId != null && ids.contains(actingUserId)) {
+            throw new BadRequestException("This operation cannot include your own account");
+        }
+        return new Targets(ids, usernames);
+    }
+
+    private List<Long> resolveRoles(List<String> names) {
+        Set<String> roleNames = new LinkedHashSet<>();
+        names.forEach(name -> roleNames.add(RoleNames.normalize(name)));
+        List<Long> roleIds = new ArrayList<>(roleNames.size());
+        for (String name : roleNames) {
+            Role role = roleRepository.findByName(name)
+                    .orElseThrow(() -> new BadRequestException("Unknown role: " + name));
+            roleIds.add(role.getId());
+        }
+        return roleIds;
+    }
+
+    private static int chunked(List<Long> ids, ToIntFunction<List<Long>> statement) {
+        int affected = 0;
+        for (int from = 0; from < ids.size(); from += IN_LIST_CHUNK) {
+            affected += statement.applyAsInt(ids.subList(from, Math.min(ids.size(), from + IN_LIST_CHUNK)));
+        }
+        return affected;
+    }
+
+    // After commit, so a refresh racing with the transaction cannot leave a token behind that was issued
+    // from the old state
+    private void invalidateAfterCommit(Targets targets, boolean revokesAccess) {
+        if (targets.ids().isEmpty()) {
+            return;
+        }
+        Runnable invalidate = () -> {
+            entityCacheService.evictUserRoles(targets.ids());
+            targets.usernames().forEach(username -> readYourWritesGuard.recordWrite(ReadYourWritesGuard.userKey(username)));
+            refreshCoalescer.invalidateUsers(targets.usernames());
+            if (revokesAccess) {
+                int revoked = referenceTokenStore.revokeUsers(new HashSet<>(targets.ids()));
+                log.info("Revoked {} reference tokens of {} users", revoked, targets.ids().size());
+            }
+        };
+        TransactionCallbacks.afterCommit(invalidate);
+    }
+
+    private static BulkUserResponse response(String action, Targets targets, int updated, int refreshTokens) {
+        return BulkUserResponse.builder()
+                .action(action)
+                .matchedUsers(targets.ids().size())
+                .updatedUsers(updated)
+                .refreshTokens(refreshTokens)
+                .userIds(targets.ids())
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded cache of tokens whose signature has already been verified.
+// Entries are dropped once the token expires so an expired token is always re-parsed (and rejected) by jjwt.
+class VerifiedTokenCache {
+
+    private final int maxSize;
+    private final Cache<String, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = BoundedCaches.expiringAt(Math.max(maxSize, 0), Entry::expiresAtMillis);
+    }
+
+    Claims get(String token) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        Entry entry = entries.getIfPresent(token);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.claims();
+    }
+
+    void put(String token, Claims claims, Date expiration) {
+        if (maxSize <= 0 || expiration == null) {
+            return;
+        }
+        entries.put(token, new Entry(claims, expiration.getTime()));
+    }
+
+    long hitCount() {
+        return hits.sum();
+    }
+
+    long missCount() {
+        return misses.sum();
+    }
+
+    private record Entry(Claims claims, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.kyedev.spring_security_jwt.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kyedev.spring_security_jwt.security.CompiledRoleHierarchy;
+import com.kyedev.spring_security_jwt.security.RoleRegistry;
+import com.kyedev.spring_security_jwt.service.JwtService;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JitWarmupTests {
+
+    private final JwtService jwtService = mock(JwtService.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final RoleRegistry roleRegistry = new RoleRegistry(List.of("ROLE_USER", "ROLE_MODERATOR", "ROLE_ADMIN"));
+    private final CompiledRoleHierarchy roleHierarchy =
+            new CompiledRoleHierarchy(roleRegistry, "ROLE_ADMIN > ROLE_MODERATOR > ROLE_USER");
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    JitWarmupTests() {
+        when(jwtService.generateAccessToken(anyMap(), any())).thenReturn("header.payload.signature");
+        when(jwtService.verifyClaims(anyString())).thenReturn(Jwts.claims().subject("warmup").build());
+        when(jwtService.extractAllClaims(anyString())).thenReturn(Jwts.claims().subject("warmup").build());
+        when(jwtService.extractAuthorities(any())).thenReturn(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        when(jwtService.extractRoles(any())).thenReturn(List.of("ROLE_ADMIN"));
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+    }
+
+    private JitWarmup warmup(boolean enabled, Duration budget, int iterations) {
+        return new JitWarmup(jwtService, roleRegistry, roleHierarchy, passwordEncoder, objectMapper,
+                enabled, budget, iterations, 3);
+    }
+
+    @Test
+    void completesAfterRunningEveryIteration() {
+        JitWarmup warmup = warmup(true, Duration.ofSeconds(30), 50);
+        assertThat(warmup.isComplete()).isFalse();
+
+        warmup.run(new DefaultApplicationArguments());
+
+        assertThat(warmup.isComplete()).isTrue();
+        assertThat(warmup.status()).containsEntry("iterations", 50);
+        verify(jwtService, times(50)).verifyClaims(anyString());
+        verify(passwordEncoder, times(3)).matches(anyString(), anyString());
+    }
+
+    @Test
+    void stopsAtTheTimeBudget() {
+        JitWarmup warmup = warmup(true, Duration.ofMillis(200), Integer.MAX_VALUE);
+        long start = System.nanoTime();
+
+        warmup.run(new DefaultApplicationArguments());
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(warmup.isComplete()).isTrue();
+        assertThat((int) warmup.status().get("iterations")).isLessThan(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void failureStillCompletes() {
+        when(jwtService.verifyClaims(anyString())).thenThrow(new IllegalStateException("boom"));
+        JitWarmup warmup = warmup(true, Duration.ofSeconds(30), 50);
+
+        warmup.run(new DefaultApplicationArguments());
+
+        assertThat(warmup.isComplete()).isTrue();
+        verify(jwtService, atLeastOnce()).verifyClaims(anyString());
+    }
+
+    @Test
+    void disabledIsCompleteImmediately() {
+        JitWarmup warmup = warmup(false, Duration.ofSeconds(30), 50);
+
+        assertThat(warmup.isComplete()).isTrue();
+        warmup.run(new DefaultApplicationArguments());
+        verify(jwtService, never()).generateAccessToken(anyMap(), any());
+    }
+}
@@ -0,0 +1,40 @@
+package com.kyedev.spring_security_jwt.config;
+
+import com.kyedev.spring_security_jwt.security.TokenDigests;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefreshTokenHashMigrationTests {
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:hash-migration;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    @Test
+    void hashesLegacyTokensAndDropsThePlaintextColumn() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS refresh_token");
+        jdbcTemplate.execute("CREATE TABLE refresh_token (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "token VARCHAR(255) NOT NULL UNIQUE, revoked BOOLEAN NOT NULL)");
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("INSERT INTO refresh_token (token, revoked) VALUES (?, FALSE)", "legacy-token-" + i);
+        }
+
+        RefreshTokenHashMigration migration = new RefreshTokenHashMigration(jdbcTemplate, 2);
+        migration.afterSingletonsInstantiated();
+
+        byte[] hash = jdbcTemplate.queryForObject(
+                "SELECT token_hash FROM refresh_token WHERE id = 3", byte[].class);
+        assertThat(hash).isEqualTo(TokenDigests.sha256("legacy-token-2"));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refresh_token WHERE token_hash IS NULL", Integer.class)).isZero();
+        assertThatThrownBy(() -> jdbcTemplate.queryForList("SELECT token FROM refresh_token"))
+                .isInstanceOf(BadSqlGrammarException.class);
+
+        // Second run finds nothing to do
+        migration.afterSingletonsInstantiated();
+    }
+}
@@ -0,0 +1,164 @@
+package com.kyedev.spring_security_jwt.config;
+
+import com.kyedev.spring_security_jwt.entity.RefreshToken;
+import com.kyedev.spring_security_jwt.entity.User;
+import com.kyedev.spring_security_jwt.repository.RefreshTokenRepository;
+import com.kyedev.spring_security_jwt.repository.UserRepository;
+import com.kyedev.spring_security_jwt.security.ReferenceTokenStore;
+import com.kyedev.spring_security_jwt.security.TokenDigests;
+import com.kyedev.spring_security_jwt.service.RefreshGraceCache;
+import com.kyedev.spring_security_jwt.service.RefreshTokenNegativeCache;
+import com.kyedev.spring_security_jwt.service.RefreshTokenService;
+import com.kyedev.spring_security_jwt.service.RevocationFeed;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RoutingDataSourceTests {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+
+        RoutingDataSource routingDataSource = new RoutingDataSource();
+        routingDataSource.setTargetDataSources(Map.of(
+                RoutingDataSource.Target.PRIMARY, primary,
+                RoutingDataSource.Target.REPLICA, replica
+        ));
+        routingDataSource.setDefaultTargetDataSource(primary);
+        routingDataSource.afterPropertiesSet();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readWriteTransactionsUsePrimary() {
+        assertThat(databaseUsedBy(readWrite)).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        assertThat(databaseUsedBy(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void pinnedReadOnlyTransactionsUsePrimary() {
+        try (RoutingDataSource.Pin ignored = RoutingDataSource.pinToPrimary()) {
+            assertThat(databaseUsedBy(readOnly)).isEqualTo("primary");
+        }
+        assertThat(RoutingDataSource.isPinnedToPrimary()).isFalse();
+    }
+
+    @Test
+    void guardPinsOnlyRecentlyWrittenKeys() {
+        ReadYourWritesGuard guard = new ReadYourWritesGuard(true, Duration.ofSeconds(5));
+        guard.recordWrite(ReadYourWritesGuard.userKey("fresh"));
+
+        try (RoutingDataSource.Pin ignored = guard.pinIfRecentlyWritten(ReadYourWritesGuard.userKey("fresh"))) {
+            assertThat(databaseUsedBy(readOnly)).isEqualTo("primary");
+        }
+        try (RoutingDataSource.Pin ignored = guard.pinIfRecentlyWritten(ReadYourWritesGuard.userKey("other"))) {
+            assertThat(databaseUsedBy(readOnly)).isEqualTo("replica");
+        }
+    }
+
+    @Test
+    void refreshTokenKeysAreDigestsNotTokens() {
+        String token = TokenDigests.randomToken();
+        String key = ReadYourWritesGuard.refreshTokenKey(TokenDigests.sha256(token));
+        ReadYourWritesGuard guard = new ReadYourWritesGuard(true, Duration.ofSeconds(5));
+        guard.recordWrite(key);
+
+        assertThat(key).doesNotContain(token);
+        try (RoutingDataSource.Pin ignored = guard.pinIfRecentlyWritten(
+                ReadYourWritesGuard.refreshTokenKey(TokenDigests.sha256(token)))) {
+            assertThat(databaseUsedBy(readOnly)).isEqualTo("primary");
+        }
+    }
+
+    @Test
+    void refreshAfterLogoutReadsTheRevokedTokenFromThePrimary() {
+        String token = TokenDigests.randomToken();
+        RefreshToken stored = RefreshToken.builder()
+                .id(1L)
+                .user(User.builder().id(7L).build())
+                .tokenHash(TokenDigests.sha256(token))
+                .revoked(false)
+                .expiryDate(Instant.now().plusSeconds(60))
+                .build();
+        List<String> lookups = new ArrayList<>();
+        RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+        when(refreshTokenRepository.findByTokenHash(any())).thenAnswer(invocation -> {
+            lookups.add(databaseUsedBy(readOnly));
+            return Optional.of(stored);
+        });
+        when(refreshTokenRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        // Without the negative cache every refresh goes to the database, as on a node that did not see the logout
+        RefreshTokenService service = new RefreshTokenService(refreshTokenRepository, mock(UserRepository.class),
+                new ReadYourWritesGuard(true, Duration.ofSeconds(5)), mock(ReferenceTokenStore.class),
+                new RefreshTokenNegativeCache(false, Duration.ofSeconds(30), Duration.ofMinutes(10), 100, 100),
+                mock(RevocationFeed.class), new RefreshGraceCache(Duration.ofSeconds(2), 100));
+        ReflectionTestUtils.setField(service, "routingEnabled", true);
+
+        service.findByToken(token);
+        assertThat(lookups).containsExactly("replica");
+
+        service.revokeToken(token);
+        lookups.clear();
+        service.findByToken(token);
+        assertThat(lookups).containsExactly("primary");
+    }
+
+    private String databaseUsedBy(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("SELECT NAME FROM MARKER", String.class));
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(name)
+                .build();
+        new JdbcTemplate(database).execute("CREATE TABLE MARKER (NAME VARCHAR(20))");
+        new JdbcTemplate(database).update("INSERT INTO MARKER VALUES (?)", name);
+        return database;
+    }
+}
@@ -0,0 +1,65 @@
+package com.kyedev.spring_security_jwt.controller;
+
+import com.kyedev.spring_security_jwt.service.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TokenIntrospectionControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private String accessToken(String username, String role) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtService.CLAIM_USER_ID, 424_242L);
+        return jwtService.generateAccessToken(claims,
+                User.withUsername(username).password("x").authorities(role).build());
+    }
+
+    private String introspect(String victimToken) {
+        return "{\"tokens\":[\"" + victimToken + "\"]}";
+    }
+
+    @Test
+    void ordinaryUsersCannotIntrospectOtherPeoplesTokens() throws Exception {
+        String victim = accessToken("victim", "ROLE_ADMIN");
+
+        mockMvc.perform(post("/api/v1/tokens/introspect")
+                        .header("Authorization", "Bearer " + accessToken("mallory", "ROLE_USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(introspect(victim)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void verifiersCanIntrospect() throws Exception {
+        String token = accessToken("alice", "ROLE_USER");
+
+        mockMvc.perform(post("/api/v1/tokens/introspect")
+                        .header("Authorization", "Bearer " + accessToken("gateway", "ROLE_VERIFIER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(introspect(token)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].active").value(true))
+                .andExpect(jsonPath("$.data[0].subject").value("alice"));
+    }
+}
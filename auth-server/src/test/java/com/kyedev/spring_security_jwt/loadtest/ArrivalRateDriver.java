@@ -0,0 +1,112 @@
+package com.kyedev.spring_security_jwt.loadtest;
+
+import com.kyedev.spring_security_jwt.loadtest.LoadTestSettings.Operation;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+// Open-model load generator: requests are started at a fixed arrival rate on virtual threads regardless
+// of how many are still in flight. Latency is measured from the *intended* start time, so a stalled
+// server is charged for every request it delayed (coordinated-omission correction).
+class ArrivalRateDriver {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final LoadTestSettings settings;
+    private final Function<Operation, Boolean> executor;
+    private final Operation[] schedule;
+
+    ArrivalRateDriver(LoadTestSettings settings, Function<Operation, Boolean> executor) {
+        this.settings = settings;
+        this.executor = executor;
+        this.schedule = weightedSchedule(settings.mix());
+    }
+
+    Result run(Duration duration) throws InterruptedException {
+        Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_NANOS, 3));
+        }
+        LongAdder completed = new LongAdder();
+        LongAdder errors = new LongAdder();
+        LongAdder shed = new LongAdder();
+        Semaphore inFlight = new Semaphore(settings.maxInFlight());
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.arrivalRatePerSecond();
+        long totalRequests = duration.toSeconds() * settings.arrivalRatePerSecond();
+        long start = System.nanoTime();
+
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < totalRequests; i++) {
+                long intendedStart = start + i * intervalNanos;
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (!inFlight.tryAcquire()) {
+                    // Client-side cap reached: the request counts as failed rather than silently skipped
+                    shed.increment();
+                    continue;
+                }
+                Operation operation = schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+                threads.execute(() -> {
+                    try {
+                        boolean ok = executor.apply(operation);
+                        long latency = System.nanoTime() - intendedStart;
+                        recorders.get(operation).recordValue(Math.min(latency, HIGHEST_TRACKABLE_NANOS));
+                        completed.increment();
+                        if (!ok) {
+                            errors.increment();
+                        }
+                    } catch (RuntimeException e) {
+                        errors.increment();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        recorders.forEach((operation, recorder) -> {
+            Histogram histogram = recorder.getIntervalHistogram();
+            histograms.put(operation, histogram);
+            total.add(histogram);
+        });
+        return new Result(histograms, total, completed.sum() / elapsedSeconds, errors.sum(), shed.sum());
+    }
+
+    private static Operation[] weightedSchedule(Map<Operation, Integer> mix) {
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        Operation[] schedule = new Operation[totalWeight];
+        int index = 0;
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                schedule[index++] = entry.getKey();
+            }
+        }
+        return schedule;
+    }
+
+    record Result(
+            Map<Operation, Histogram> byOperation,
+            Histogram total,
+            double throughputPerSecond,
+            long errors,
+            long shed
+    ) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.kyedev.spring_security_jwt.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kyedev.spring_security_jwt.loadtest.LoadTestSettings.Operation;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Drives a realistic auth traffic mix against the app on an embedded database and fails when
+// latency or throughput regress against the stored baseline. Run with: ./mvnw -Pload-test test
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "loadtest"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AuthLoadTest {
+
+    private static final int SEEDED_SESSIONS = 200;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Refreshes use the newest session and logouts end the oldest, so they never race on one token
+    private final ConcurrentLinkedDeque<String> refreshTokens = new ConcurrentLinkedDeque<>();
+
+    @LocalServerPort
+    private int port;
+
+    private HttpClient httpClient;
+    private String userAccessToken;
+    private String adminAccessToken;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        userAccessToken = login("user", "user123").path("accessToken").asText();
+        adminAccessToken = login("admin", "admin123").path("accessToken").asText();
+        for (int i = 0; i < SEEDED_SESSIONS; i++) {
+            refreshTokens.add(login("user", "user123").path("refreshToken").asText());
+        }
+    }
+
+    @AfterAll
+    void tearDown() {
+        httpClient.close();
+    }
+
+    @Test
+    void authTrafficMixStaysWithinBaseline() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        ArrivalRateDriver driver = new ArrivalRateDriver(settings, this::execute);
+
+        driver.run(settings.warmup());
+        ArrivalRateDriver.Result result = driver.run(settings.duration());
+
+        LatencyBaseline current = LatencyBaseline.of(result);
+        current.store(Path.of(settings.resultFile()));
+        System.out.println("Load test result: " + current + ", errors=" + result.errors() + ", shed=" + result.shed());
+
+        assertThat(result.shed()).as("requests shed by the client in-flight cap").isZero();
+        double errorRate = (double) result.errors() / Math.max(result.total().getTotalCount(), 1);
+        assertThat(errorRate).as("error rate (%d failed requests)", result.errors())
+                .isLessThanOrEqualTo(settings.maxErrorRate());
+
+        LatencyBaseline baseline = LatencyBaseline.load(Path.of(settings.baselineFile()));
+        assertThat(baseline.isEmpty())
+                .as("no baseline at %s, copy %s there to create one", settings.baselineFile(), settings.resultFile())
+                .isFalse();
+        List<String> regressions = current.regressionsAgainst(baseline, settings);
+        assertThat(regressions).as("latency/throughput regressions against " + settings.baselineFile()).isEmpty();
+    }
+
+    private boolean execute(Operation operation) {
+        try {
+            return switch (operation) {
+                case LOGIN -> {
+                    // A rejected or shed login has no data; it counts as an error and adds no session
+                    JsonNode refreshToken = login("user", "user123").path("refreshToken");
+                    if (refreshToken.isTextual()) {
+                        refreshTokens.addLast(refreshToken.asText());
+                    }
+                    yield refreshToken.isTextual();
+                }
+                case REFRESH -> {
+                    String refreshToken = refreshTokens.peekLast();
+                    yield refreshToken != null
+                            && post("/api/v1/auth/refresh-token", Map.of("refreshToken", refreshToken), null) == 200;
+                }
+                case LOGOUT -> {
+                    String refreshToken = refreshTokens.pollFirst();
+                    yield refreshToken != null
+                            && post("/api/v1/auth/logout", Map.of("refreshToken", refreshToken), null) == 200;
+                }
+                case PROFILE -> get("/api/v1/user/profile", userAccessToken) == 200;
+                case ADMIN_USERS -> get("/api/v1/admin/users", adminAccessToken) == 200;
+            };
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private JsonNode login(String username, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request("/api/v1/auth/login", null)
+                .POST(body(Map.of("username", username, "password", password)))
+                .build());
+        return objectMapper.readTree(response.body()).path("data");
+    }
+
+    private int post(String path, Map<String, String> payload, String accessToken) throws IOException, InterruptedException {
+        return send(request(path, accessToken).POST(body(payload)).build()).statusCode();
+    }
+
+    private int get(String path, String accessToken) throws IOException, InterruptedException {
+        return send(request(path, accessToken).GET().build()).statusCode();
+    }
+
+    private HttpRequest.Builder request(String path, String accessToken) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+        if (accessToken != null) {
+            builder.header("Authorization", "Bearer " + accessToken);
+        }
+        return builder;
+    }
+
+    private HttpRequest.BodyPublisher body(Map<String, String> payload) throws IOException {
+        return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(payload));
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
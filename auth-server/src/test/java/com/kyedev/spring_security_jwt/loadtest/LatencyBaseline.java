@@ -0,0 +1,94 @@
+package com.kyedev.spring_security_jwt.loadtest;
+
+import com.kyedev.spring_security_jwt.loadtest.LoadTestSettings.Operation;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+// Stored p50/p99 (microseconds) per operation plus overall throughput, and the regression check against them
+class LatencyBaseline {
+
+    private final Properties values;
+
+    private LatencyBaseline(Properties values) {
+        this.values = values;
+    }
+
+    static LatencyBaseline of(ArrivalRateDriver.Result result) {
+        Properties values = new Properties();
+        put(values, "total", result.total());
+        result.byOperation().forEach((operation, histogram) -> put(values, key(operation), histogram));
+        values.setProperty("throughput", String.format(Locale.ROOT, "%.1f", result.throughputPerSecond()));
+        return new LatencyBaseline(values);
+    }
+
+    static LatencyBaseline load(Path file) throws IOException {
+        Properties values = new Properties();
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file)) {
+                values.load(reader);
+            }
+        }
+        return new LatencyBaseline(values);
+    }
+
+    boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    void store(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            values.store(writer, "Load-test result; copy over the baseline file to accept it");
+        }
+    }
+
+    // Returns a description of every metric that regressed beyond its tolerance
+    List<String> regressionsAgainst(LatencyBaseline baseline, LoadTestSettings settings) {
+        List<String> regressions = new ArrayList<>();
+        for (String name : baseline.values.stringPropertyNames()) {
+            if (!values.containsKey(name)) {
+                continue;
+            }
+            double expected = Double.parseDouble(baseline.values.getProperty(name));
+            double actual = Double.parseDouble(values.getProperty(name));
+            if (name.equals("throughput")) {
+                if (actual < expected * (1 - settings.throughputTolerance())) {
+                    regressions.add(String.format(Locale.ROOT, "throughput %.1f/s < baseline %.1f/s", actual, expected));
+                }
+                continue;
+            }
+            double tolerance = name.endsWith(".p99.micros") ? settings.p99Tolerance() : settings.p50Tolerance();
+            if (actual > expected * (1 + tolerance)) {
+                regressions.add(String.format(Locale.ROOT, "%s %.0fus > baseline %.0fus (+%.0f%% allowed)",
+                        name, actual, expected, tolerance * 100));
+            }
+        }
+        return regressions;
+    }
+
+    @Override
+    public String toString() {
+        return values.toString();
+    }
+
+    private static void put(Properties values, String prefix, Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return;
+        }
+        values.setProperty(prefix + ".p50.micros", String.valueOf(histogram.getValueAtPercentile(50) / 1_000));
+        values.setProperty(prefix + ".p99.micros", String.valueOf(histogram.getValueAtPercentile(99) / 1_000));
+    }
+
+    private static String key(Operation operation) {
+        return operation.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -0,0 +1,60 @@
+package com.kyedev.spring_security_jwt.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Load-test knobs, overridable with -Dloadtest.<name>=<value> on the command line
+record LoadTestSettings(
+        int arrivalRatePerSecond,
+        Duration warmup,
+        Duration duration,
+        int maxInFlight,
+        Map<Operation, Integer> mix,
+        double p50Tolerance,
+        double p99Tolerance,
+        double throughputTolerance,
+        double maxErrorRate,
+        String baselineFile,
+        String resultFile
+) {
+
+    enum Operation { LOGIN, REFRESH, LOGOUT, PROFILE, ADMIN_USERS }
+
+    static LoadTestSettings fromSystemProperties() {
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        mix.put(Operation.LOGIN, intProperty("mix.login", 10));
+        mix.put(Operation.REFRESH, intProperty("mix.refresh", 15));
+        mix.put(Operation.LOGOUT, intProperty("mix.logout", 5));
+        mix.put(Operation.PROFILE, intProperty("mix.profile", 60));
+        mix.put(Operation.ADMIN_USERS, intProperty("mix.admin-users", 10));
+
+        return new LoadTestSettings(
+                intProperty("rate", 50),
+                Duration.ofSeconds(intProperty("warmup-seconds", 10)),
+                Duration.ofSeconds(intProperty("duration-seconds", 30)),
+                intProperty("max-in-flight", 2_000),
+                mix,
+                // Allowed relative regression against the baseline, e.g. 0.25 = 25% slower
+                doubleProperty("tolerance.p50", 0.25),
+                doubleProperty("tolerance.p99", 0.50),
+                doubleProperty("tolerance.throughput", 0.05),
+                // Share of requests allowed to fail (non-2xx or I/O error), e.g. 0.01 = 1%
+                doubleProperty("max-error-rate", 0.01),
+                stringProperty("baseline", "src/test/resources/loadtest/baseline.properties"),
+                stringProperty("result", "target/loadtest/result.properties")
+        );
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        return Integer.parseInt(stringProperty(name, String.valueOf(defaultValue)));
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        return Double.parseDouble(stringProperty(name, String.valueOf(defaultValue)));
+    }
+
+    private static String stringProperty(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+}
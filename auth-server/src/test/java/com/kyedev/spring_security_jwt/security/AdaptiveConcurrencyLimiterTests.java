@@ -0,0 +1,76 @@
+package com.kyedev.spring_security_jwt.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void rejectsOnceTheLimitIsInFlight() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 1.5, 0.2);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(5 * MILLIS, false);
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.snapshot()).containsEntry("rejected", 1L);
+    }
+
+    @Test
+    void growsWhileLatencyIsStableAndTheLimitIsUsed() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 1, 100, 1.5, 0.2);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(5 * MILLIS, limiter.getLimit(), false);
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    void doesNotGrowWhenMostOfTheLimitIsUnused() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 1, 100, 1.5, 0.2);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(5 * MILLIS, 1, false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAndOnDrops() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 50, 2, 100, 1.5, 0.2);
+        for (int i = 0; i < 200; i++) {
+            limiter.onSample(5 * MILLIS, 50, false);
+        }
+        int steady = limiter.getLimit();
+
+        for (int i = 0; i < 30; i++) {
+            limiter.onSample(50 * MILLIS, limiter.getLimit(), false);
+        }
+        int slow = limiter.getLimit();
+        assertThat(slow).isLessThan(steady);
+
+        limiter.onSample(50 * MILLIS, slow, true);
+        assertThat(limiter.getLimit()).isLessThan(slow);
+    }
+
+    @Test
+    void neverLeavesTheConfiguredBounds() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 5, 3, 8, 1.5, 0.2);
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(MILLIS, limiter.getLimit(), true);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(3);
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new AdaptiveConcurrencyLimiter("test", 1, 2, 8, 1.5, 0.2));
+    }
+}
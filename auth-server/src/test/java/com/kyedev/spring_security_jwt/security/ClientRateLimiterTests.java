@@ -0,0 +1,27 @@
+package com.kyedev.spring_security_jwt.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientRateLimiterTests {
+
+    @Test
+    void aFloodOfNewClientsDoesNotResetThrottledOnes() {
+        ClientRateLimiter limiter = new ClientRateLimiter(3, 1, Duration.ofHours(1), 100);
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("10.0.0.1")).isTrue();
+        }
+        assertThat(limiter.tryAcquire("10.0.0.1")).isFalse();
+
+        for (int i = 0; i < 1_000; i++) {
+            limiter.tryAcquire("192.168." + (i / 256) + "." + (i % 256));
+            // The throttled client keeps trying, and stays throttled
+            assertThat(limiter.tryAcquire("10.0.0.1")).isFalse();
+        }
+
+        assertThat(limiter.trackedClients()).isLessThanOrEqualTo(100);
+    }
+}
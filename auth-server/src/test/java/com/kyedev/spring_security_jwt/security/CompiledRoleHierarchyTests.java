@@ -0,0 +1,65 @@
+package com.kyedev.spring_security_jwt.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class CompiledRoleHierarchyTests {
+
+    private final RoleRegistry registry = new RoleRegistry(List.of("ROLE_USER", "ROLE_MODERATOR", "ROLE_ADMIN"));
+    private final CompiledRoleHierarchy hierarchy =
+            new CompiledRoleHierarchy(registry, "ROLE_ADMIN > ROLE_MODERATOR > ROLE_USER");
+
+    @Test
+    void expandsTransitively() {
+        assertThat(hierarchy.expand(registry.maskOfName("ROLE_ADMIN")))
+                .isEqualTo(registry.maskOfNames(List.of("ROLE_ADMIN", "ROLE_MODERATOR", "ROLE_USER")));
+        assertThat(hierarchy.expand(registry.maskOfName("ROLE_MODERATOR")))
+                .isEqualTo(registry.maskOfNames(List.of("ROLE_MODERATOR", "ROLE_USER")));
+        assertThat(hierarchy.expand(registry.maskOfName("ROLE_USER")))
+                .isEqualTo(registry.maskOfName("ROLE_USER"));
+    }
+
+    @Test
+    void answersRoleRulesFromBits() {
+        RoleBitsAuthorizationManager<Object> adminOnly = hierarchy.hasRole("ADMIN");
+        RoleBitsAuthorizationManager<Object> moderatorOrAdmin = hierarchy.hasAnyRole("MODERATOR", "ADMIN");
+
+        assertThat(decide(adminOnly, token("ROLE_ADMIN"))).isTrue();
+        assertThat(decide(adminOnly, token("ROLE_MODERATOR"))).isFalse();
+        assertThat(decide(moderatorOrAdmin, token("ROLE_MODERATOR"))).isTrue();
+        assertThat(decide(moderatorOrAdmin, token("ROLE_USER"))).isFalse();
+        assertThat(decide(hierarchy.hasRole("USER"), token("ROLE_ADMIN"))).isTrue();
+    }
+
+    @Test
+    void usesPrecomputedBitsOfRoleBitsTokens() {
+        RoleBitsAuthenticationToken token = new RoleBitsAuthenticationToken("user", 1L,
+                hierarchy.expand(registry.maskOfName("ROLE_MODERATOR")), List.of());
+
+        assertThat(decide(hierarchy.hasRole("USER"), token)).isTrue();
+        assertThat(decide(hierarchy.hasRole("ADMIN"), token)).isFalse();
+    }
+
+    @Test
+    void rejectsUnknownRoles() {
+        assertThatIllegalArgumentException().isThrownBy(() -> hierarchy.hasRole("AUDITOR"));
+    }
+
+    private static boolean decide(RoleBitsAuthorizationManager<Object> manager, Authentication authentication) {
+        AuthorizationResult decision = manager.authorize(() -> authentication, new Object());
+        return decision != null && decision.isGranted();
+    }
+
+    private static TestingAuthenticationToken token(String role) {
+        TestingAuthenticationToken token = new TestingAuthenticationToken("someone", null, role);
+        token.setAuthenticated(true);
+        return token;
+    }
+}
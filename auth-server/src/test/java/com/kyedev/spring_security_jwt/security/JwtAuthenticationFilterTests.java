@@ -0,0 +1,125 @@
+package com.kyedev.spring_security_jwt.security;
+
+import com.kyedev.spring_security_jwt.service.JwtService;
+import com.kyedev.spring_security_jwt.service.RevocationFeed;
+import com.kyedev.spring_security_jwt.service.ServiceClientService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTests {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private final RoleRegistry registry = new RoleRegistry(List.of("ROLE_USER", "ROLE_MODERATOR", "ROLE_ADMIN"));
+    private final CompiledRoleHierarchy hierarchy =
+            new CompiledRoleHierarchy(registry, "ROLE_ADMIN > ROLE_MODERATOR > ROLE_USER");
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final RevocationFeed revocationFeed = mock(RevocationFeed.class);
+    private final UserDetails admin = User.withUsername("alice").password("x").authorities("ROLE_ADMIN").build();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private JwtService jwtService(JwtService.ClaimProfile profile) {
+        JwtService jwtService = new JwtService(registry);
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "claimProfile", profile);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        return jwtService;
+    }
+
+    private JwtAuthenticationFilter filter(JwtService jwtService) {
+        return new JwtAuthenticationFilter(jwtService, userDetailsService, new PublicRouteMatcher(), registry,
+                hierarchy, mock(ReferenceTokenStore.class), mock(ServiceClientService.class), revocationFeed);
+    }
+
+    private static String token(JwtService jwtService, UserDetails user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtService.CLAIM_USER_ID, 42L);
+        claims.put(JwtService.CLAIM_SESSION_ID, 7L);
+        return jwtService.generateAccessToken(claims, user);
+    }
+
+    private static Authentication authenticate(JwtAuthenticationFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/user/profile");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    void compactTokenAuthorizesFromItsRoleMaskWithoutLoadingTheUser() throws Exception {
+        JwtService jwtService = jwtService(JwtService.ClaimProfile.COMPACT);
+        when(revocationFeed.isEnabled()).thenReturn(true);
+
+        Authentication authentication = authenticate(filter(jwtService), token(jwtService, admin));
+
+        assertThat(authentication).isInstanceOf(RoleBitsAuthenticationToken.class);
+        RoleBitsAuthenticationToken token = (RoleBitsAuthenticationToken) authentication;
+        assertThat(token.getName()).isEqualTo("alice");
+        assertThat(token.getUserId()).isEqualTo(42L);
+        // Hierarchy applied: an ADMIN token also passes USER and MODERATOR checks
+        assertThat(token.getRoleBits())
+                .isEqualTo(registry.maskOfNames(List.of("ROLE_ADMIN", "ROLE_MODERATOR", "ROLE_USER")));
+        assertThat(token.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN");
+        verify(revocationFeed).denies(eq(42L), eq(7L), anyLong());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void standardTokenGetsTheSameRoleBits() throws Exception {
+        JwtService jwtService = jwtService(JwtService.ClaimProfile.STANDARD);
+        when(revocationFeed.isEnabled()).thenReturn(true);
+
+        RoleBitsAuthenticationToken token =
+                (RoleBitsAuthenticationToken) authenticate(filter(jwtService), token(jwtService, admin));
+
+        assertThat(token.getRoleBits()).isEqualTo(hierarchy.expand(registry.maskOfName("ROLE_ADMIN")));
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void tokenDeniedByTheRevocationFeedStaysUnauthenticated() throws Exception {
+        JwtService jwtService = jwtService(JwtService.ClaimProfile.COMPACT);
+        when(revocationFeed.isEnabled()).thenReturn(true);
+        when(revocationFeed.denies(eq(42L), eq(7L), anyLong())).thenReturn(true);
+
+        assertThat(authenticate(filter(jwtService), token(jwtService, admin))).isNull();
+    }
+
+    @Test
+    void withoutTheRevocationFeedTheAccountIsCheckedInstead() throws Exception {
+        JwtService jwtService = jwtService(JwtService.ClaimProfile.COMPACT);
+        when(revocationFeed.isEnabled()).thenReturn(false);
+        when(userDetailsService.loadUserByUsername("alice"))
+                .thenReturn(User.withUsername("alice").password("x").authorities("ROLE_ADMIN").disabled(true).build());
+
+        assertThat(authenticate(filter(jwtService), token(jwtService, admin))).isNull();
+        verify(userDetailsService).loadUserByUsername("alice");
+    }
+}
@@ -0,0 +1,53 @@
+package com.kyedev.spring_security_jwt.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class PublicRouteMatcherTests {
+
+    private final PublicRouteMatcher matcher = new PublicRouteMatcher();
+
+    @Test
+    void matchesPrefixPatternsLikeAntPaths() {
+        assertThat(matcher.matches("/api/v1/auth")).isTrue();
+        assertThat(matcher.matches("/api/v1/auth/")).isTrue();
+        assertThat(matcher.matches("/api/v1/auth/login")).isTrue();
+        assertThat(matcher.matches("/api/v1/public/health")).isTrue();
+        assertThat(matcher.matches("/actuator/health/readiness")).isTrue();
+    }
+
+    @Test
+    void doesNotMatchProtectedOrLookalikeRoutes() {
+        assertThat(matcher.matches("/api/v1/authx/login")).isFalse();
+        assertThat(matcher.matches("/api/v1/user/profile")).isFalse();
+        assertThat(matcher.matches("/api/v1/admin/users")).isFalse();
+        assertThat(matcher.matches("/api/v1")).isFalse();
+        assertThat(matcher.matches("")).isFalse();
+    }
+
+    @Test
+    void supportsExactPaths() {
+        PublicRouteMatcher exact = new PublicRouteMatcher(List.of("/favicon.ico"));
+
+        assertThat(exact.matches("/favicon.ico")).isTrue();
+        assertThat(exact.matches("/favicon.ico/x")).isFalse();
+    }
+
+    @Test
+    void stripsContextPath() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/api/v1/public/health");
+        request.setContextPath("/app");
+
+        assertThat(matcher.matches(request)).isTrue();
+    }
+
+    @Test
+    void rejectsWildcardsInTheMiddle() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new PublicRouteMatcher(List.of("/api/*/auth/**")));
+    }
+}
@@ -0,0 +1,73 @@
+package com.kyedev.spring_security_jwt.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReferenceTokenStoreTests {
+
+    private final ReferenceTokenStore store = new ReferenceTokenStore(4, Duration.ofMillis(10));
+
+    @Test
+    void resolvesIssuedTokensOnly() {
+        String token = store.issue(7L, "john_doe", 0b101L, 1L, Duration.ofMinutes(5));
+
+        assertThat(token).startsWith(ReferenceTokenStore.TOKEN_PREFIX);
+        ReferenceTokenStore.Principal principal = store.resolve(token);
+        assertThat(principal).isNotNull();
+        assertThat(principal.userId()).isEqualTo(7L);
+        assertThat(principal.username()).isEqualTo("john_doe");
+        assertThat(principal.roleMask()).isEqualTo(0b101L);
+
+        assertThat(store.resolve(token + "x")).isNull();
+        assertThat(store.resolve("eyJhbGciOiJIUzM4NCJ9.e30.sig")).isNull();
+    }
+
+    @Test
+    void revokingTheSessionRemovesItsTokenImmediately() {
+        String token = store.issue(7L, "john_doe", 1L, 42L, Duration.ofMinutes(5));
+
+        store.revokeSession(42L);
+
+        assertThat(store.resolve(token)).isNull();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void revokingUsersRemovesEveryTokenOfThoseUsersOnly() {
+        String first = store.issue(7L, "john_doe", 1L, 1L, Duration.ofMinutes(5));
+        String second = store.issue(7L, "john_doe", 1L, 2L, Duration.ofMinutes(5));
+        String other = store.issue(8L, "jane_doe", 1L, 3L, Duration.ofMinutes(5));
+
+        assertThat(store.revokeUsers(Set.of(7L, 9L))).isEqualTo(2);
+
+        assertThat(store.resolve(first)).isNull();
+        assertThat(store.resolve(second)).isNull();
+        assertThat(store.resolve(other)).isNotNull();
+    }
+
+    @Test
+    void reissuingForASessionReplacesThePreviousToken() {
+        String first = store.issue(7L, "john_doe", 1L, 42L, Duration.ofMinutes(5));
+        String second = store.issue(7L, "john_doe", 1L, 42L, Duration.ofMinutes(5));
+
+        assertThat(store.resolve(first)).isNull();
+        assertThat(store.resolve(second)).isNotNull();
+    }
+
+    @Test
+    void sweepEvictsExpiredBuckets() throws InterruptedException {
+        String expiring = store.issue(1L, "a", 1L, 1L, Duration.ofMillis(1));
+        String live = store.issue(2L, "b", 1L, 2L, Duration.ofMinutes(5));
+
+        Thread.sleep(25);
+        store.sweepExpired();
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.resolve(expiring)).isNull();
+        assertThat(store.resolve(live)).isNotNull();
+    }
+}
@@ -0,0 +1,133 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.dto.response.AvailabilityResponse;
+import com.kyedev.spring_security_jwt.exceptions.BadRequestException;
+import com.kyedev.spring_security_jwt.exceptions.TooManyRequestsException;
+import com.kyedev.spring_security_jwt.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountAvailabilityServiceTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private AccountAvailabilityService service(int burst) {
+        return new AccountAvailabilityService(userRepository, 0.01, 2, Duration.ofHours(1), burst, 30, 1000);
+    }
+
+    private void users(String... usernames) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < usernames.length; i++) {
+            rows.add(new Object[]{(long) i + 1, usernames[i], usernames[i] + "@example.com"});
+        }
+        when(userRepository.count()).thenReturn((long) rows.size());
+        when(userRepository.findIdentifiersAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            int size = invocation.<Pageable>getArgument(1).getPageSize();
+            return rows.stream().filter(row -> (Long) row[0] > after).limit(size).toList();
+        });
+    }
+
+    @Test
+    void definitelyFreeNamesNeverReachTheDatabase() {
+        users("admin", "moderator", "user");
+        AccountAvailabilityService service = service(100);
+        service.rebuild();
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(service.check("10.0.0.1", "fresh" + i, null).getUsernameAvailable()).isTrue();
+        }
+        when(userRepository.existsByUsername("Admin")).thenReturn(true);
+        when(userRepository.existsByEmail("user@example.com")).thenReturn(true);
+
+        AvailabilityResponse taken = service.check("10.0.0.1", " Admin ", "user@example.com");
+
+        assertThat(taken.getUsernameAvailable()).isFalse();
+        assertThat(taken.getEmailAvailable()).isFalse();
+        // Only the two possible hits (and at most a false positive or two) were looked up
+        verify(userRepository, times(1)).existsByUsername("Admin");
+        assertThat((long) service.stats().get("databaseChecks")).isLessThanOrEqualTo(4L);
+    }
+
+    @Test
+    void checksTheDatabaseUntilTheFirstBuildAndPicksUpRegistrations() {
+        users("admin");
+        AccountAvailabilityService service = service(100);
+
+        assertThat(service.check("10.0.0.1", "newbie", null).getUsernameAvailable()).isTrue();
+        verify(userRepository).existsByUsername("newbie");
+
+        service.rebuild();
+        service.registered("newbie", "newbie@example.com");
+        when(userRepository.existsByUsername("newbie")).thenReturn(true);
+
+        assertThat(service.check("10.0.0.1", "NEWBIE", null).getUsernameAvailable()).isTrue();
+        assertThat(service.check("10.0.0.1", "newbie", null).getUsernameAvailable()).isFalse();
+        verify(userRepository).existsByUsername("NEWBIE");
+    }
+
+    @Test
+    void deletesTriggerARebuild() {
+        users("admin", "gone");
+        AccountAvailabilityService service = service(100);
+        service.rebuild();
+        service.rebuildIfStale();
+        verify(userRepository, times(1)).count();
+
+        users("admin");
+        service.deleted();
+        service.rebuildIfStale();
+
+        verify(userRepository, times(2)).count();
+        assertThat(service.check("10.0.0.1", "gone", null).getUsernameAvailable()).isTrue();
+        verify(userRepository, never()).existsByUsername(eq("gone"));
+    }
+
+    @Test
+    void throttlesEachClientSeparately() {
+        users();
+        AccountAvailabilityService service = service(3);
+        for (int i = 0; i < 3; i++) {
+            service.check("10.0.0.1", "name" + i, null);
+        }
+
+        assertThatThrownBy(() -> service.check("10.0.0.1", "name", null))
+                .isInstanceOf(TooManyRequestsException.class)
+                .satisfies(e -> assertThat(((TooManyRequestsException) e).getRetryAfterSeconds()).isPositive());
+        assertThat(service.check("10.0.0.2", "name", null).getUsernameAvailable()).isTrue();
+        assertThatThrownBy(() -> service.check("10.0.0.2", " ", null)).isInstanceOf(BadRequestException.class);
+        verify(userRepository, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    void bloomFilterHasNoFalseNegativesAndStaysNearItsFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user" + i)).isTrue();
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(200);
+    }
+}
@@ -0,0 +1,120 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.dto.request.ApiKeyRequest;
+import com.kyedev.spring_security_jwt.entity.ApiKey;
+import com.kyedev.spring_security_jwt.repository.ApiKeyRepository;
+import com.kyedev.spring_security_jwt.security.RoleRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ApiKeyServiceTests {
+
+    private final ApiKeyRepository apiKeyRepository = mock(ApiKeyRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final RoleRegistry roleRegistry = new RoleRegistry(List.of("ROLE_USER", "ROLE_MODERATOR", "ROLE_ADMIN"));
+    private final ApiKeyService service = new ApiKeyService(apiKeyRepository, jdbcTemplate, roleRegistry);
+    private final List<ApiKey> stored = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    ApiKeyServiceTests() {
+        when(apiKeyRepository.save(any())).thenAnswer(invocation -> {
+            ApiKey apiKey = invocation.getArgument(0);
+            apiKey.setId(ids.incrementAndGet());
+            stored.add(apiKey);
+            return apiKey;
+        });
+        when(apiKeyRepository.findAllByRevokedFalse())
+                .thenAnswer(invocation -> stored.stream().filter(apiKey -> !apiKey.getRevoked()).toList());
+        when(apiKeyRepository.findById(any()))
+                .thenAnswer(invocation -> stored.stream().filter(k -> k.getId().equals(invocation.getArgument(0))).findFirst());
+    }
+
+    private String issue(String name, String... scopes) {
+        return service.issue(ApiKeyRequest.builder().name(name).scopes(List.of(scopes)).build()).getKey();
+    }
+
+    @Test
+    void issuedKeysResolveFromMemory() {
+        String key = issue("acme", "user", "MODERATOR");
+
+        ApiKeyService.Principal principal = service.resolve(key);
+
+        assertThat(principal.name()).isEqualTo("acme");
+        assertThat(principal.authorities()).extracting(Object::toString).containsExactly("ROLE_USER", "ROLE_MODERATOR");
+        verify(apiKeyRepository, never()).findAllByRevokedFalse();
+    }
+
+    @Test
+    void wrongSecretsUnknownPrefixesAndMalformedKeysAreRejected() {
+        String key = issue("acme", "USER");
+        String prefix = key.substring(0, key.indexOf('.') + 1);
+
+        assertThat(service.resolve(prefix + "not-the-secret")).isNull();
+        assertThat(service.resolve("ak_AAAAAAAAAAAA." + key.substring(key.indexOf('.') + 1))).isNull();
+        assertThat(service.resolve("ak_short")).isNull();
+        assertThat(service.resolve(prefix)).isNull();
+        assertThat(service.stats()).containsEntry("rejected", 4L).containsEntry("accepted", 0L);
+    }
+
+    @Test
+    void revokedKeysStopResolvingAndOtherInstancesCatchUpOnSync() {
+        String revokedHere = issue("acme", "USER");
+        String revokedElsewhere = issue("globex", "USER");
+
+        service.revoke(1L);
+        stored.get(1).setRevoked(true);
+        assertThat(service.resolve(revokedElsewhere)).isNotNull();
+        service.sync();
+
+        assertThat(service.resolve(revokedHere)).isNull();
+        assertThat(service.resolve(revokedElsewhere)).isNull();
+        assertThat(service.stats()).containsEntry("activeKeys", 0);
+    }
+
+    @Test
+    void usageIsWrittenInOneBatchAndKeptWhenTheWriteFails() {
+        String acme = issue("acme", "USER");
+        String globex = issue("globex", "USER");
+        for (int i = 0; i < 3; i++) {
+            service.resolve(acme);
+        }
+        service.resolve(globex);
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(new int[]{1, 1});
+
+        service.flushUsage();
+        service.flushUsage();
+        service.flushUsage();
+
+        // The failed write and the retry carry both keys; nothing was left for the third flush
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        assertThat(service.stats()).containsEntry("usageFlushes", 1L);
+    }
+
+    @Test
+    void syncKeepsUsageCountersOfUnchangedKeys() {
+        String key = issue("acme", "USER");
+        service.resolve(key);
+
+        service.sync();
+        service.flushUsage();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+    }
+}
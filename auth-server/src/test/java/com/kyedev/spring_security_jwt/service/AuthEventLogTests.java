@@ -0,0 +1,82 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.entity.AuthEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthEventLogTests {
+
+    private final RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+
+    @Test
+    void dropsEventsOnceTheQueueIsFull() {
+        AuthEventLog eventLog = eventLog(3, 10, AuthEventLog.OverflowPolicy.DROP);
+
+        for (int i = 0; i < 5; i++) {
+            eventLog.record(AuthEvent.Type.LOGIN_FAILURE, null, "user" + i, null);
+        }
+
+        assertThat(eventLog.stats())
+                .containsEntry("queued", 3)
+                .containsEntry("enqueued", 3L)
+                .containsEntry("dropped", 2L);
+    }
+
+    @Test
+    void blockPolicyGivesUpAfterTheTimeoutWithoutAWriter() {
+        AuthEventLog eventLog = eventLog(1, 10, AuthEventLog.OverflowPolicy.BLOCK);
+
+        eventLog.record(AuthEvent.Type.LOGIN_SUCCESS, 1L, "user", null);
+        eventLog.record(AuthEvent.Type.LOGIN_SUCCESS, 1L, "user", null);
+
+        assertThat(eventLog.stats())
+                .containsEntry("blocked", 1L)
+                .containsEntry("dropped", 1L);
+    }
+
+    @Test
+    void writesQueuedEventsAsMultiRowInsertsAndDrainsOnStop() {
+        AuthEventLog eventLog = eventLog(100, 4, AuthEventLog.OverflowPolicy.DROP);
+
+        for (int i = 0; i < 10; i++) {
+            eventLog.record(AuthEvent.Type.REFRESH, (long) i, "user" + i, null);
+        }
+        eventLog.start();
+        eventLog.stop();
+
+        assertThat(jdbcTemplate.statements).hasSize(3);
+        assertThat(jdbcTemplate.statements.get(0)).startsWith("INSERT INTO auth_event");
+        assertThat(rows(jdbcTemplate.statements.get(0))).isEqualTo(4);
+        assertThat(rows(jdbcTemplate.statements.get(2))).isEqualTo(2);
+        assertThat(eventLog.stats())
+                .containsEntry("queued", 0)
+                .containsEntry("written", 10L)
+                .containsEntry("batches", 3L);
+    }
+
+    private AuthEventLog eventLog(int capacity, int batchSize, AuthEventLog.OverflowPolicy policy) {
+        return new AuthEventLog(jdbcTemplate, true, capacity, batchSize,
+                Duration.ofSeconds(10), policy, Duration.ofMillis(2));
+    }
+
+    private static int rows(String sql) {
+        return sql.split("\\(\\?").length - 1;
+    }
+
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public int update(String sql, PreparedStatementSetter pss) {
+            statements.add(sql);
+            return 0;
+        }
+    }
+}
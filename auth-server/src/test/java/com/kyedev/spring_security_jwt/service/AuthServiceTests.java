@@ -0,0 +1,58 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.dto.request.TokenFormat;
+import com.kyedev.spring_security_jwt.entity.RefreshToken;
+import com.kyedev.spring_security_jwt.entity.User;
+import com.kyedev.spring_security_jwt.exceptions.TokenRefreshException;
+import com.kyedev.spring_security_jwt.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthServiceTests {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User newUser() {
+        String name = "refresh-" + UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(User.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .password("x")
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .build());
+    }
+
+    @Test
+    void disabledUsersCannotRefresh() {
+        User user = newUser();
+        RefreshToken refreshToken = refreshTokenService.createRefreshToken(user.getId(), "agent", "10.0.0.1");
+        assertThat(authService.refreshToken(refreshToken.getToken(), TokenFormat.JWT).getUsername())
+                .isEqualTo(user.getUsername());
+
+        user.setEnabled(false);
+        userRepository.save(user);
+
+        assertThatThrownBy(() -> authService.refreshToken(refreshToken.getToken(), TokenFormat.JWT))
+                .isInstanceOf(TokenRefreshException.class)
+                .hasMessageContaining("disabled");
+    }
+}
@@ -0,0 +1,159 @@
+package com.kyedev.spring_security_jwt.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Differential tests: every token the fast path accepts must be accepted by jjwt with identical claims,
+// and every token it signs must verify under jjwt
+class CompactJwsCodecTests {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private final SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    private final JwtParser parser = Jwts.parser().verifyWith(key).build();
+    private final CompactJwsCodec codec = CompactJwsCodec.forKey(key);
+
+    private final long now = System.currentTimeMillis();
+    private final long iat = now / 1000;
+    private final long exp = iat + 1800;
+
+    private static Map<String, Object> claims() {
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("roles", List.of("ROLE_USER", "ROLE_ADMIN"));
+        claims.put("userId", 42L);
+        claims.put("email", "admin@example.com");
+        claims.put("firstName", "Ånne \"the\" \\ Ünïcødé 😀\n");
+        claims.put("lastName", null);
+        claims.put("rm", 5L);
+        claims.put("big", 1L << 40);
+        claims.put("flag", true);
+        return claims;
+    }
+
+    private String jjwt(Map<String, Object> claims, SecretKey signingKey) {
+        return Jwts.builder().claims(claims).subject("admin")
+                .issuedAt(new Date(iat * 1000)).expiration(new Date(exp * 1000))
+                .signWith(signingKey).compact();
+    }
+
+    private static String b64(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void assertSameDecision(String token) {
+        Claims fast = codec.verify(token, now);
+        Claims reference;
+        try {
+            reference = parser.parseSignedClaims(token).getPayload();
+        } catch (RuntimeException e) {
+            assertThat(fast).as("fast path accepted a token jjwt rejects: %s", e.getMessage()).isNull();
+            return;
+        }
+        if (fast != null) {
+            assertThat(fast).isEqualTo(reference);
+            assertThat(fast.getExpiration()).isEqualTo(reference.getExpiration());
+            assertThat(fast.getIssuedAt()).isEqualTo(reference.getIssuedAt());
+        }
+    }
+
+    @Test
+    void followsTheAlgorithmJjwtPicksForTheKey() {
+        String header = jjwt(Map.of(), key).split("\\.")[0];
+        String fastHeader = codec.sign(Map.of(), "admin", iat, exp).split("\\.")[0];
+        assertThat(fastHeader).isEqualTo(header);
+    }
+
+    @Test
+    void signsTokensThatJjwtVerifiesWithTheSameClaims() {
+        String token = codec.sign(claims(), "admin", iat, exp);
+
+        Claims reference = parser.parseSignedClaims(token).getPayload();
+        assertThat(reference.getSubject()).isEqualTo("admin");
+        assertThat(reference.get("firstName")).isEqualTo("Ånne \"the\" \\ Ünïcødé 😀\n");
+        assertThat(reference).doesNotContainKey("lastName");
+        assertThat(codec.verify(token, now)).isEqualTo(reference);
+    }
+
+    @Test
+    void acceptsTokensIssuedByJjwtWithIdenticalClaims() {
+        String token = jjwt(claims(), key);
+        Claims fast = codec.verify(token, now);
+
+        assertThat(fast).isNotNull().isEqualTo(parser.parseSignedClaims(token).getPayload());
+        assertThat(fast.get("userId")).isInstanceOf(Integer.class);
+        assertThat(fast.get("big")).isInstanceOf(Long.class);
+    }
+
+    @Test
+    void declinesEverythingJjwtWouldReject() {
+        String token = jjwt(claims(), key);
+        String[] parts = token.split("\\.");
+        SecretKey otherKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET.replace('4', '5')));
+        String payload = b64("{\"sub\":\"admin\",\"iat\":" + iat + ",\"exp\":" + exp + "}");
+
+        List<String> tokens = List.of(
+                token,
+                parts[0] + "." + b64("{\"sub\":\"root\",\"iat\":" + iat + ",\"exp\":" + exp + "}") + "." + parts[2],
+                parts[0] + "." + parts[1] + "." + parts[2].substring(1) + "A",
+                parts[0] + "." + parts[1] + "." + parts[2].substring(0, parts[2].length() - 1),
+                parts[0] + "." + parts[1] + ".",
+                parts[0] + "." + parts[1],
+                token + ".",
+                token + ".extra",
+                jjwt(claims(), otherKey),
+                b64("{\"alg\":\"none\"}") + "." + payload + ".",
+                b64("{\"alg\":\"HS384\",\"typ\":\"JWT\"}") + "." + payload + "." + parts[2],
+                Jwts.builder().header().type("JWT").and().subject("admin")
+                        .expiration(new Date(exp * 1000)).signWith(key).compact(),
+                Jwts.builder().subject("admin").expiration(new Date(now - 60_000)).signWith(key).compact(),
+                Jwts.builder().subject("admin").notBefore(new Date(now + 60_000))
+                        .expiration(new Date(exp * 1000)).signWith(key).compact(),
+                Jwts.builder().subject("admin").audience().add("other").and()
+                        .expiration(new Date(exp * 1000)).signWith(key).compact(),
+                Jwts.builder().subject("admin").claim("nested", Map.of("a", 1))
+                        .expiration(new Date(exp * 1000)).signWith(key).compact(),
+                Jwts.builder().subject("admin").signWith(key).compact(),
+                "not-a-token",
+                "é." + parts[1] + "." + parts[2],
+                ""
+        );
+        tokens.forEach(this::assertSameDecision);
+    }
+
+    @Test
+    void leavesUnusualTokensToJjwt() {
+        String withNotBefore = Jwts.builder().subject("admin").notBefore(new Date(now - 60_000))
+                .expiration(new Date(exp * 1000)).signWith(key).compact();
+        String expired = Jwts.builder().subject("admin").expiration(new Date(now - 60_000)).signWith(key).compact();
+
+        assertThat(codec.verify(withNotBefore, now)).isNull();
+        assertThat(parser.parseSignedClaims(withNotBefore).getPayload().getSubject()).isEqualTo("admin");
+        assertThat(codec.verify(expired, now)).isNull();
+        assertThatThrownBy(() -> parser.parseSignedClaims(expired)).isInstanceOf(RuntimeException.class);
+        assertThat(codec.sign(Map.of("nested", Map.of("a", 1)), "admin", iat, exp)).isNull();
+        assertThat(codec.sign(Map.of("ratio", 0.5), "admin", iat, exp)).isNull();
+        assertThat(codec.sign(Map.of("bad", "\ud800"), "admin", iat, exp)).isNull();
+    }
+
+    @Test
+    void onlyHmacSha2KeysGetAFastPath() {
+        assertThat(CompactJwsCodec.forKey(Keys.hmacShaKeyFor(new byte[32]))).isNotNull();
+        assertThat(CompactJwsCodec.forKey(Keys.hmacShaKeyFor(new byte[64]))).isNotNull();
+        assertThat(CompactJwsCodec.forKey(new javax.crypto.spec.SecretKeySpec(new byte[32], "AES"))).isNull();
+    }
+}
@@ -0,0 +1,97 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.entity.AuthEvent;
+import com.kyedev.spring_security_jwt.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class DashboardMetricsTests {
+
+    // One tick per minute keeps window boundaries under the test's control
+    private final DashboardMetrics metrics =
+            new DashboardMetrics(mock(RefreshTokenRepository.class), Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    @SuppressWarnings("unchecked")
+    private static Object path(Map<String, Object> map, String... keys) {
+        Object value = map;
+        for (String key : keys) {
+            value = ((Map<String, Object>) value).get(key);
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Map<String, Object> map, String... keys) {
+        return (Map<String, Object>) path(map, keys);
+    }
+
+    private void record(AuthEvent.Type type, int times, long micros) {
+        for (int i = 0; i < times; i++) {
+            metrics.record(type, System.nanoTime() - micros * 1_000);
+        }
+    }
+
+    @Test
+    void windowsOnlyCountWhatHappenedSinceTheirStartingSnapshot() {
+        record(AuthEvent.Type.LOGIN_SUCCESS, 5, 100);
+        record(AuthEvent.Type.LOCKOUT, 1, 100);
+        metrics.tick();
+        record(AuthEvent.Type.LOGIN_SUCCESS, 2, 100);
+        record(AuthEvent.Type.LOGIN_FAILURE, 3, 100);
+        metrics.tick();
+        record(AuthEvent.Type.LOGIN_SUCCESS, 1, 100);
+
+        Map<String, Object> windows = metrics.windows(true);
+
+        // 1m starts one tick before the newest snapshot, 5m falls back to the oldest one kept
+        assertThat(path(windows, "1m", "latencyMicros", "login", "count")).isEqualTo(6L);
+        assertThat(path(windows, "1m", "lockouts")).isEqualTo(0L);
+        assertThat(path(windows, "5m", "latencyMicros", "login", "count")).isEqualTo(12L);
+        assertThat(path(windows, "15m", "lockouts")).isEqualTo(1L);
+        assertThat(metrics.totals()).containsEntry("LOGIN_SUCCESS", 8L).containsEntry("LOGIN_FAILURE", 3L);
+    }
+
+    @Test
+    void oldSnapshotsAreOverwrittenOnceTheRingWrapsAround() {
+        record(AuthEvent.Type.REFRESH, 4, 100);
+        for (int i = 0; i < 20; i++) {
+            metrics.tick();
+        }
+        record(AuthEvent.Type.REFRESH, 1, 100);
+
+        Map<String, Object> windows = metrics.windows(true);
+
+        assertThat(path(windows, "15m", "latencyMicros", "refresh", "count")).isEqualTo(1L);
+        assertThat(path(windows, "1m", "latencyMicros", "refresh", "count")).isEqualTo(1L);
+    }
+
+    @Test
+    void percentilesComeFromTheLatencyBuckets() {
+        record(AuthEvent.Type.REFRESH, 98, 1_000);
+        record(AuthEvent.Type.REFRESH, 2, 250_000);
+
+        Map<String, Object> refresh = map(metrics.windows(true), "1m", "latencyMicros", "refresh");
+
+        assertThat((long) refresh.get("p50")).isBetween(1_000L, 1_300L);
+        assertThat((long) refresh.get("p99")).isBetween(250_000L, 320_000L);
+        assertThat(map(metrics.windows(false), "1m")).doesNotContainKey("latencyMicros");
+    }
+
+    @Test
+    void bucketsCoverEveryValueWithBoundedError() {
+        for (long micros = 0; micros < 1L << 27; micros = micros * 5 / 4 + 1) {
+            int bucket = DashboardMetrics.bucketOf(micros);
+            assertThat(DashboardMetrics.upperBoundOf(bucket)).isGreaterThanOrEqualTo(micros);
+            assertThat(DashboardMetrics.upperBoundOf(bucket)).isLessThanOrEqualTo(micros + micros / 4 + 1);
+            if (bucket > 0) {
+                assertThat(DashboardMetrics.upperBoundOf(bucket - 1)).isLessThan(micros);
+            }
+        }
+        assertThat(DashboardMetrics.bucketOf(Long.MAX_VALUE / 1_000)).isEqualTo(DashboardMetrics.BUCKETS - 1);
+    }
+}
@@ -0,0 +1,81 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.entity.Role;
+import com.kyedev.spring_security_jwt.entity.User;
+import com.kyedev.spring_security_jwt.repository.RoleRepository;
+import com.kyedev.spring_security_jwt.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.revocation-feed.poll-interval=100ms")
+@ActiveProfiles("test")
+class EntityCacheServiceTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User newUser() {
+        String name = "roles-" + UUID.randomUUID().toString().substring(0, 8);
+        Role user = roleRepository.findByName("ROLE_USER").orElseThrow();
+        return transactionTemplate.execute(status -> userRepository.save(User.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .password("x")
+                .roles(new HashSet<>(Set.of(user)))
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .build()));
+    }
+
+    // By username, like CustomUserDetailsService: the roles then come from the collection cache
+    private List<String> roles(String username) {
+        return transactionTemplate.execute(status -> userRepository.findByUsername(username).orElseThrow()
+                .getRoles().stream().map(Role::getName).sorted().toList());
+    }
+
+    @Test
+    void roleChangeFromAnotherInstanceTakesEffectOnceItsFeedEventArrives() throws Exception {
+        User user = newUser();
+        Long userId = user.getId();
+        assertThat(roles(user.getUsername())).containsExactly("ROLE_USER");
+
+        // Another instance changes the roles, outside this instance's Hibernate: its cached links are now stale
+        Long moderator = roleRepository.findByName("ROLE_MODERATOR").orElseThrow().getId();
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", userId, moderator);
+        assertThat(roles(user.getUsername())).containsExactly("ROLE_USER");
+
+        // ...and records the change on the feed in the same transaction
+        jdbcTemplate.update("INSERT INTO revocation_event (type, user_id, occurred_at) VALUES (?, ?, ?)",
+                "USER_ROLES_CHANGED", userId, Timestamp.from(Instant.now()));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (roles(user.getUsername()).size() == 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(roles(user.getUsername())).containsExactly("ROLE_MODERATOR", "ROLE_USER");
+    }
+}
@@ -0,0 +1,95 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.diagnostics.AuthOperationEvent;
+import com.kyedev.spring_security_jwt.diagnostics.SlowPathAggregator;
+import com.kyedev.spring_security_jwt.dto.response.SlowEventResponse;
+import com.kyedev.spring_security_jwt.dto.response.SlowPathResponse;
+import com.kyedev.spring_security_jwt.dto.response.SlowPathSummaryResponse;
+import com.kyedev.spring_security_jwt.exceptions.BadRequestException;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class FlightRecordingServiceTests {
+
+    private final FlightRecordingService service =
+            new FlightRecordingService(Duration.ofMinutes(1), DataSize.ofMegabytes(16), 3);
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void recordsAuthOperationsForSummaryAndDownload() throws Exception {
+        service.start();
+        assertThatThrownBy(service::start).isInstanceOf(BadRequestException.class);
+
+        AuthOperationEvent.start(AuthOperationEvent.JWT_VERIFY).finish(AuthOperationEvent.SUCCESS, 120);
+        AuthOperationEvent.start(AuthOperationEvent.JWT_VERIFY).finish(AuthOperationEvent.FAILURE, 7);
+
+        // The stream delivers events in chunks, roughly once a second
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (service.summary().getEvents() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        SlowPathSummaryResponse summary = service.stop();
+        assertThat(summary.isRecording()).isFalse();
+        assertThat(summary.getPaths())
+                .extracting(SlowPathResponse::getOperation, SlowPathResponse::getOutcome)
+                .contains(
+                        tuple(AuthOperationEvent.JWT_VERIFY, AuthOperationEvent.SUCCESS),
+                        tuple(AuthOperationEvent.JWT_VERIFY, AuthOperationEvent.FAILURE)
+                );
+
+        Path file = service.dump();
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals(AuthOperationEvent.NAME))
+                    .toList();
+            assertThat(events).extracting(event -> event.getInt("tokenSize")).contains(120, 7);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void stopAndDumpRequireARecording() {
+        assertThatThrownBy(service::stop).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(service::dump).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void aggregatorKeepsOnlyTheSlowestEvents() {
+        SlowPathAggregator aggregator = new SlowPathAggregator(2);
+        Instant now = Instant.now();
+        aggregator.record("a", "SUCCESS", 0, "t", now, Duration.ofMillis(5));
+        aggregator.record("b", "SUCCESS", 0, "t", now, Duration.ofMillis(50));
+        aggregator.record("a", "SUCCESS", 0, "t", now, Duration.ofMillis(1));
+        aggregator.record("c", "FAILURE", 0, "t", now, Duration.ofMillis(20));
+
+        assertThat(aggregator.events()).isEqualTo(4);
+        assertThat(aggregator.slowest()).extracting(SlowEventResponse::getOperation).containsExactly("b", "c");
+        SlowPathResponse first = aggregator.paths().get(0);
+        assertThat(first.getOperation()).isEqualTo("b");
+        SlowPathResponse pathA = aggregator.paths().stream()
+                .filter(path -> path.getOperation().equals("a"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(pathA.getCount()).isEqualTo(2);
+        assertThat(pathA.getAvgMillis()).isEqualTo(3.0);
+        assertThat(pathA.getMaxMillis()).isEqualTo(5.0);
+    }
+}
@@ -0,0 +1,131 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kyedev.spring_security_jwt.security.RoleRegistry;
+import com.kyedev.token_verifier.HttpKeySetSource;
+import com.kyedev.token_verifier.KeySetCache;
+import com.kyedev.token_verifier.TokenVerificationException;
+import com.kyedev.token_verifier.TokenVerifier;
+import com.kyedev.token_verifier.VerifiedToken;
+import com.kyedev.token_verifier.VerifierMetrics;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Compatibility with the token-verifier library: whatever JwtService signs must verify against the
+// published key set, in both claim profiles
+class KeySetServiceTests {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final String PRIVATE_KEY = Base64.getEncoder().encodeToString(
+            Jwts.SIG.ES256.keyPair().build().getPrivate().getEncoded());
+
+    private final UserDetails user = User.withUsername("alice").password("x").authorities("ROLE_USER", "ROLE_ADMIN").build();
+
+    private static JwtService jwtService(JwtService.ClaimProfile profile) {
+        return jwtService(profile, PRIVATE_KEY);
+    }
+
+    private static JwtService jwtService(JwtService.ClaimProfile profile, String privateKey) {
+        JwtService jwtService = new JwtService(new RoleRegistry(TokenVerifier.DEFAULT_ROLE_REGISTRY));
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "signingPrivateKey", privateKey);
+        ReflectionTestUtils.setField(jwtService, "signingAlgorithm", "ES256");
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "claimProfile", profile);
+        jwtService.init();
+        return jwtService;
+    }
+
+    private static TokenVerifier verifierFor(JwtService jwtService) throws Exception {
+        Map<String, Object> keySet = new KeySetService(jwtService, true).keySet();
+        String document = new ObjectMapper().writeValueAsString(keySet);
+        KeySetCache keys = new KeySetCache(() -> HttpKeySetSource.parse(new ObjectMapper().readTree(document)),
+                Duration.ofMinutes(5), Duration.ofSeconds(1), new VerifierMetrics());
+        return new TokenVerifier(keys.start(Duration.ofSeconds(5)), new VerifierMetrics());
+    }
+
+    private static Map<String, Object> sessionClaims() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtService.CLAIM_USER_ID, 42L);
+        claims.put(JwtService.CLAIM_SESSION_ID, 7L);
+        return claims;
+    }
+
+    @Test
+    void publishesOnlyThePublicHalfOfTheSigningKey() {
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> keys = (List<Map<String, Object>>) new KeySetService(
+                jwtService(JwtService.ClaimProfile.STANDARD), true).keySet().get("keys");
+
+        assertThat(keys).singleElement().satisfies(jwk -> {
+            assertThat(jwk).containsEntry("kty", "EC").containsEntry("crv", "P-256").containsEntry("alg", "ES256")
+                    .containsEntry("use", "sig").containsKeys("x", "y").doesNotContainKeys("d", "k");
+            assertThat((String) jwk.get("kid")).isNotBlank();
+        });
+        assertThat(new KeySetService(jwtService(JwtService.ClaimProfile.STANDARD), false).keySet()).isEmpty();
+    }
+
+    @Test
+    void neverPublishesTheHmacSecret() {
+        JwtService hmacOnly = jwtService(JwtService.ClaimProfile.STANDARD, "");
+
+        assertThatThrownBy(() -> new KeySetService(hmacOnly, true)).isInstanceOf(IllegalStateException.class);
+        assertThat(new KeySetService(hmacOnly, false).keySet()).isEmpty();
+    }
+
+    @Test
+    void hmacTokensIssuedBeforeTheSwitchStillVerifyOnTheServerOnly() throws Exception {
+        String legacy = jwtService(JwtService.ClaimProfile.STANDARD, "").generateAccessToken(sessionClaims(), user);
+        JwtService jwtService = jwtService(JwtService.ClaimProfile.STANDARD);
+
+        assertThat(jwtService.extractAllClaims(legacy).getSubject()).isEqualTo("alice");
+        assertThatThrownBy(() -> verifierFor(jwtService).verify(legacy)).isInstanceOfSatisfying(
+                TokenVerificationException.class,
+                e -> assertThat(e.getReason()).isEqualTo(TokenVerificationException.Reason.BAD_SIGNATURE));
+    }
+
+    @Test
+    void standardTokensVerifyWithTheLibrary() throws Exception {
+        JwtService jwtService = jwtService(JwtService.ClaimProfile.STANDARD);
+
+        String issued = jwtService.generateAccessToken(sessionClaims(), user);
+        VerifiedToken token = verifierFor(jwtService).verify(issued);
+
+        assertThat(token.subject()).isEqualTo("alice");
+        // Millisecond issue time, the precision revocation events are compared at
+        assertThat(token.issuedAt().toEpochMilli())
+                .isEqualTo(jwtService.extractIssuedAtMillis(jwtService.extractAllClaims(issued)));
+        assertThat(token.userId()).isEqualTo(42L);
+        assertThat(token.sessionId()).isEqualTo(7L);
+        assertThat(token.roles()).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+    }
+
+    @Test
+    void compactAndClientTokensVerifyWithTheLibrary() throws Exception {
+        JwtService jwtService = jwtService(JwtService.ClaimProfile.COMPACT);
+        TokenVerifier verifier = verifierFor(jwtService);
+
+        VerifiedToken token = verifier.verify(jwtService.generateAccessToken(sessionClaims(), user));
+        assertThat(token.userId()).isEqualTo(42L);
+        assertThat(token.roles()).containsExactly("ROLE_USER", "ROLE_ADMIN");
+
+        VerifiedToken client = verifier.verify(
+                jwtService.generateClientToken("billing", List.of(new SimpleGrantedAuthority("ROLE_VERIFIER"))));
+        assertThat(client.isClient()).isTrue();
+        assertThat(client.clientId()).isEqualTo("billing");
+        assertThat(client.roles()).containsExactly("ROLE_VERIFIER");
+    }
+}
@@ -0,0 +1,177 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.dto.request.TokenFormat;
+import com.kyedev.spring_security_jwt.dto.response.AuthResponse;
+import com.kyedev.spring_security_jwt.exceptions.TokenRefreshException;
+import com.kyedev.spring_security_jwt.security.TokenDigests;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshCoalescerTests {
+
+    private final AuthService authService = mock(AuthService.class);
+    private final RefreshGraceCache graceCache = new RefreshGraceCache(Duration.ofSeconds(2), 100);
+
+    private RefreshCoalescer coalescer(Duration waitTimeout) {
+        return new RefreshCoalescer(authService, graceCache, true, waitTimeout);
+    }
+
+    @Test
+    void concurrentRefreshesOfOneTokenShareASingleCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        when(authService.refreshToken(anyString(), any())).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return AuthResponse.builder().accessToken("access-" + calls.get()).build();
+        });
+        RefreshCoalescer coalescer = coalescer(Duration.ofSeconds(5));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<AuthResponse>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> coalescer.refresh("refresh-token", TokenFormat.JWT)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<AuthResponse> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).getAccessToken()).isEqualTo("access-1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void lateDuplicatesAreServedFromTheGraceCacheUntilInvalidated() {
+        when(authService.refreshToken("refresh-token", TokenFormat.JWT))
+                .thenReturn(AuthResponse.builder().accessToken("access").build());
+        RefreshCoalescer coalescer = coalescer(Duration.ofSeconds(5));
+
+        coalescer.refresh("refresh-token", null);
+        coalescer.refresh("refresh-token", TokenFormat.JWT);
+        verify(authService, times(1)).refreshToken("refresh-token", TokenFormat.JWT);
+        assertThat(coalescer.stats()).containsEntry("graceHits", 1L);
+
+        coalescer.invalidate("refresh-token");
+        coalescer.refresh("refresh-token", TokenFormat.JWT);
+        verify(authService, times(2)).refreshToken("refresh-token", TokenFormat.JWT);
+    }
+
+    @Test
+    void failuresAreNotCached() {
+        when(authService.refreshToken("revoked", TokenFormat.JWT))
+                .thenThrow(new TokenRefreshException("revoked", "Refresh token was revoked"));
+        RefreshCoalescer coalescer = coalescer(Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> coalescer.refresh("revoked", TokenFormat.JWT)).isInstanceOf(TokenRefreshException.class);
+        assertThatThrownBy(() -> coalescer.refresh("revoked", TokenFormat.JWT)).isInstanceOf(TokenRefreshException.class);
+        verify(authService, times(2)).refreshToken("revoked", TokenFormat.JWT);
+    }
+
+    @Test
+    void waitersAreReleasedWhenTheLeaderFailsWithAnError() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(authService.refreshToken("refresh-token", TokenFormat.JWT)).thenAnswer(invocation -> {
+            leaderStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            throw new StackOverflowError();
+        });
+        RefreshCoalescer coalescer = coalescer(Duration.ofSeconds(30));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<AuthResponse> leader = executor.submit(() -> coalescer.refresh("refresh-token", TokenFormat.JWT));
+            assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<AuthResponse> waiter = executor.submit(() -> coalescer.refresh("refresh-token", TokenFormat.JWT));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+            assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void waitersGiveUpOnAStuckLeaderAndRefreshThemselves() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        when(authService.refreshToken("refresh-token", TokenFormat.JWT)).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                leaderStarted.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return AuthResponse.builder().accessToken("access-" + calls.get()).build();
+        });
+        RefreshCoalescer coalescer = coalescer(Duration.ofMillis(100));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<AuthResponse> leader = executor.submit(() -> coalescer.refresh("refresh-token", TokenFormat.JWT));
+            assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            AuthResponse waited = executor.submit(() -> coalescer.refresh("refresh-token", TokenFormat.JWT))
+                    .get(5, TimeUnit.SECONDS);
+            assertThat(waited.getAccessToken()).isEqualTo("access-2");
+            assertThat(coalescer.stats()).containsEntry("waitTimeouts", 1L);
+
+            release.countDown();
+            leader.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void revokedSessionsAreDroppedFromTheGraceCacheByDigest() {
+        when(authService.refreshToken("refresh-token", TokenFormat.JWT))
+                .thenReturn(AuthResponse.builder().accessToken("access").build());
+        RefreshCoalescer coalescer = coalescer(Duration.ofSeconds(5));
+        coalescer.refresh("refresh-token", TokenFormat.JWT);
+
+        // What RefreshTokenService does for sessions evicted by the session cap, which it only knows by digest
+        graceCache.invalidate(TokenDigests.sha256("refresh-token"));
+        coalescer.refresh("refresh-token", TokenFormat.JWT);
+
+        verify(authService, times(2)).refreshToken("refresh-token", TokenFormat.JWT);
+    }
+
+    @Test
+    void aRefreshRunningAcrossALogoutIsNotCached() {
+        RefreshCoalescer coalescer = coalescer(Duration.ofSeconds(5));
+        when(authService.refreshToken("refresh-token", TokenFormat.JWT)).thenAnswer(invocation -> {
+            // The session was read while still live, then the logout commits before the response is cached
+            coalescer.invalidate("refresh-token");
+            return AuthResponse.builder().accessToken("access").build();
+        });
+
+        coalescer.refresh("refresh-token", TokenFormat.JWT);
+
+        assertThat(graceCache.get(TokenDigests.sha256("refresh-token"), TokenFormat.JWT)).isNull();
+    }
+}
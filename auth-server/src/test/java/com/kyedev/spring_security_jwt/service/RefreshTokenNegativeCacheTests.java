@@ -0,0 +1,110 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.config.ReadYourWritesGuard;
+import com.kyedev.spring_security_jwt.entity.RefreshToken;
+import com.kyedev.spring_security_jwt.entity.User;
+import com.kyedev.spring_security_jwt.exceptions.TokenRefreshException;
+import com.kyedev.spring_security_jwt.repository.RefreshTokenRepository;
+import com.kyedev.spring_security_jwt.repository.UserRepository;
+import com.kyedev.spring_security_jwt.security.ReferenceTokenStore;
+import com.kyedev.spring_security_jwt.security.TokenDigests;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenNegativeCacheTests {
+
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+    private final RefreshTokenNegativeCache cache =
+            new RefreshTokenNegativeCache(true, Duration.ofSeconds(30), Duration.ofMinutes(10), 100, 100);
+    private final RefreshTokenService service = new RefreshTokenService(refreshTokenRepository,
+            mock(UserRepository.class), new ReadYourWritesGuard(false, Duration.ofSeconds(2)),
+            mock(ReferenceTokenStore.class), cache, mock(RevocationFeed.class),
+            new RefreshGraceCache(Duration.ofSeconds(2), 100));
+
+    RefreshTokenNegativeCacheTests() {
+        ReflectionTestUtils.setField(service, "refreshTokenDurationMs", 60_000L);
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.empty());
+    }
+
+    private RefreshToken stored(String token, boolean revoked, Instant expiry) {
+        RefreshToken refreshToken = RefreshToken.builder()
+                .id(1L)
+                .user(User.builder().id(7L).build())
+                .token(token)
+                .tokenHash(TokenDigests.sha256(token))
+                .revoked(revoked)
+                .expiryDate(expiry)
+                .build();
+        when(refreshTokenRepository.findByTokenHash(refreshToken.getTokenHash())).thenReturn(Optional.of(refreshToken));
+        return refreshToken;
+    }
+
+    @Test
+    void repeatedUnknownTokensAreAnsweredFromMemory() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(service.findUsableByToken("junk")).isEmpty();
+            assertThat(service.revokeToken("junk")).isEmpty();
+        }
+
+        verify(refreshTokenRepository, times(1)).findByTokenHash(any());
+        assertThat(cache.stats()).containsEntry("unknownEntries", 1L);
+    }
+
+    @Test
+    void revokedAndExpiredTokensAreRejectedWithoutALookup() {
+        stored("revoked", true, Instant.now().plusSeconds(60));
+        stored("expired", false, Instant.now().minusSeconds(60));
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> service.findUsableByToken("revoked"))
+                    .isInstanceOf(TokenRefreshException.class).hasMessageContaining("revoked");
+            assertThatThrownBy(() -> service.findUsableByToken("expired"))
+                    .isInstanceOf(TokenRefreshException.class).hasMessageContaining("expired");
+        }
+
+        verify(refreshTokenRepository, times(2)).findByTokenHash(any());
+    }
+
+    @Test
+    void logoutMarksTheTokenRevokedForLaterRefreshes() {
+        RefreshToken refreshToken = stored("live", false, Instant.now().plusSeconds(60));
+        when(refreshTokenRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThat(service.findUsableByToken("live")).contains(refreshToken);
+        assertThat(service.revokeToken("live")).isPresent();
+        assertThat(service.revokeToken("live")).isEmpty();
+        assertThatThrownBy(() -> service.findUsableByToken("live")).hasMessageContaining("revoked");
+
+        verify(refreshTokenRepository, times(2)).findByTokenHash(refreshToken.getTokenHash());
+    }
+
+    @Test
+    void unknownEntriesExpireAndStayBounded() throws Exception {
+        RefreshTokenNegativeCache shortLived =
+                new RefreshTokenNegativeCache(true, Duration.ofMillis(20), Duration.ofMinutes(10), 10, 10);
+        byte[] revoked = TokenDigests.sha256("revoked");
+        shortLived.recordRevoked(revoked);
+        for (int i = 0; i < 25; i++) {
+            shortLived.recordUnknown(TokenDigests.sha256("junk-" + i));
+        }
+        // Full means evicting one entry per insert, not dropping all of them
+        assertThat(shortLived.stats().get("unknownEntries")).isEqualTo(10L);
+        // A flood of unknown digests never pushes out revoked ones
+        assertThat(shortLived.get(revoked)).isEqualTo(RefreshTokenNegativeCache.Verdict.REVOKED);
+
+        Thread.sleep(40);
+        assertThat(shortLived.get(TokenDigests.sha256("junk-24"))).isNull();
+    }
+}
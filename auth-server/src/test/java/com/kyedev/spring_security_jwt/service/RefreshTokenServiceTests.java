@@ -0,0 +1,105 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.dto.request.TokenFormat;
+import com.kyedev.spring_security_jwt.dto.response.AuthResponse;
+import com.kyedev.spring_security_jwt.entity.RefreshToken;
+import com.kyedev.spring_security_jwt.entity.User;
+import com.kyedev.spring_security_jwt.repository.RefreshTokenRepository;
+import com.kyedev.spring_security_jwt.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "jwt.max-sessions-per-user=3")
+@ActiveProfiles("test")
+class RefreshTokenServiceTests {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshGraceCache refreshGraceCache;
+
+    private Long newUser() {
+        String name = "sessions-" + UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(User.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .password("x")
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .build()).getId();
+    }
+
+    @Test
+    void evictsTheOldestSessionsFirst() {
+        Long userId = newUser();
+        List<Long> created = new ArrayList<>();
+        List<byte[]> digests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            RefreshToken refreshToken = refreshTokenService.createRefreshToken(userId, "agent-" + i, "10.0.0." + i);
+            created.add(refreshToken.getId());
+            digests.add(refreshToken.getTokenHash());
+            // As if the session had just been refreshed
+            refreshGraceCache.put(refreshToken.getTokenHash(), TokenFormat.JWT, AuthResponse.builder().build(),
+                    refreshGraceCache.generation());
+        }
+
+        List<RefreshToken> active = refreshTokenRepository.findActiveByUserId(userId, Instant.now());
+        assertThat(active).extracting(RefreshToken::getId)
+                .containsExactlyInAnyOrder(created.get(2), created.get(3), created.get(4));
+        assertThat(refreshTokenService.isSessionRevoked(created.get(0))).isTrue();
+        assertThat(refreshTokenService.isSessionRevoked(created.get(1))).isTrue();
+        assertThat(refreshGraceCache.get(digests.get(0), TokenFormat.JWT)).isNull();
+        assertThat(refreshGraceCache.get(digests.get(1), TokenFormat.JWT)).isNull();
+        assertThat(refreshGraceCache.get(digests.get(2), TokenFormat.JWT)).isNotNull();
+        // Device info comes from the caller, not from a request bound to the thread
+        assertThat(active).extracting(RefreshToken::getUserAgent).containsExactlyInAnyOrder("agent-2", "agent-3", "agent-4");
+        assertThat(active).extracting(RefreshToken::getIpAddress).containsExactlyInAnyOrder("10.0.0.2", "10.0.0.3", "10.0.0.4");
+    }
+
+    @Test
+    void concurrentLoginsOfOneUserStayWithinTheCap() throws Exception {
+        Long userId = newUser();
+        int logins = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(logins);
+        try {
+            List<Future<RefreshToken>> results = new ArrayList<>();
+            for (int i = 0; i < logins; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return refreshTokenService.createRefreshToken(userId, "agent", "10.0.0.1");
+                }));
+            }
+            start.countDown();
+            for (Future<RefreshToken> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(refreshTokenRepository.countActiveByUserId(userId, Instant.now())).isEqualTo(3);
+    }
+}
@@ -0,0 +1,185 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.dto.response.RevocationEventResponse;
+import com.kyedev.spring_security_jwt.dto.response.RevocationSnapshotResponse;
+import com.kyedev.spring_security_jwt.entity.RevocationEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RevocationFeedTests {
+
+    private static final long TOKEN_LIFETIME = 1_800_000L;
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:revocation-feed;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    RevocationFeedTests() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS revocation_event");
+        jdbcTemplate.execute("CREATE TABLE revocation_event (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "type VARCHAR(20) NOT NULL, user_id BIGINT NOT NULL, session_id BIGINT, occurred_at TIMESTAMP(6) NOT NULL)");
+    }
+
+    private RevocationFeed feed(Duration gapTimeout, int bufferSize) {
+        return feed(gapTimeout, bufferSize, 1000);
+    }
+
+    private RevocationFeed feed(Duration gapTimeout, int bufferSize, int streamQueueSize) {
+        RevocationFeed feed = new RevocationFeed(jdbcTemplate, TOKEN_LIFETIME, true, Duration.ofHours(1),
+                Duration.ofSeconds(1), gapTimeout, bufferSize, 500, Duration.ofMinutes(5), Duration.ofSeconds(15),
+                Duration.ofMinutes(30), streamQueueSize, Duration.ofMinutes(5));
+        feed.bootstrap();
+        return feed;
+    }
+
+    private static List<Long> sequences(List<RevocationEventResponse> events) {
+        return events.stream().map(RevocationEventResponse::getSequence).toList();
+    }
+
+    @Test
+    void committedEventsAreDeliveredInSequenceAndReplayable() {
+        RevocationFeed feed = feed(Duration.ofSeconds(10), 100);
+
+        feed.sessionsRevoked(1L, List.of(10L, 11L));
+        feed.usersChanged(RevocationEvent.Type.USER_DISABLED, List.of(2L));
+        feed.poll();
+
+        assertThat(sequences(feed.eventsAfter(0L))).containsExactly(1L, 2L, 3L);
+        assertThat(sequences(feed.eventsAfter(1L))).containsExactly(2L, 3L);
+        assertThat(feed.eventsAfter(3L)).isEmpty();
+        // Ahead of the feed or no position at all: the stream starts with a snapshot instead
+        assertThat(feed.eventsAfter(4L)).isNull();
+        assertThat(feed.eventsAfter(null)).isNull();
+        RevocationEventResponse revoked = feed.eventsAfter(0L).get(1);
+        assertThat(revoked.getType()).isEqualTo(RevocationEvent.Type.SESSION_REVOKED);
+        assertThat(revoked.getSessionId()).isEqualTo(11L);
+        assertThat(feed.snapshot().getSequence()).isEqualTo(3L);
+    }
+
+    @Test
+    void aMissingIdHoldsDeliveryBackUntilTheGapTimeout() {
+        RevocationFeed patient = feed(Duration.ofHours(1), 100);
+        RevocationFeed impatient = feed(Duration.ZERO, 100);
+        // Id 1 is allocated but not (yet) committed
+        jdbcTemplate.update("INSERT INTO revocation_event (id, type, user_id, occurred_at) VALUES (2, 'USER_DELETED', 5, CURRENT_TIMESTAMP)");
+        patient.usersChanged(RevocationEvent.Type.USER_DISABLED, List.of(6L));
+
+        patient.poll();
+        impatient.poll();
+
+        assertThat(patient.snapshot().getSequence()).isZero();
+        assertThat(patient.eventsAfter(0L)).isEmpty();
+        assertThat(impatient.snapshot().getSequence()).isEqualTo(3L);
+        assertThat(impatient.stats()).containsEntry("skipped", 1L);
+    }
+
+    @Test
+    void aSkippedIdThatCommitsLateIsAppliedAndStreamsResync() {
+        RevocationFeed feed = feed(Duration.ZERO, 100);
+        jdbcTemplate.update("INSERT INTO revocation_event (id, type, user_id, occurred_at) VALUES (2, 'USER_DELETED', 5, CURRENT_TIMESTAMP)");
+        feed.poll();
+        assertThat(feed.eventsAfter(2L)).isEmpty();
+
+        // The transaction holding id 1 commits after the gap timeout
+        jdbcTemplate.update("INSERT INTO revocation_event (id, type, user_id, occurred_at) VALUES (1, 'USER_DISABLED', 7, CURRENT_TIMESTAMP)");
+        feed.poll();
+
+        assertThat(feed.denies(7L, null, System.currentTimeMillis() - 60_000)).isTrue();
+        assertThat(feed.snapshot().getEntries()).extracting(RevocationEventResponse::getUserId).containsExactly(5L, 7L);
+        // Streams past sequence 1 never saw it, so they cannot resume from there
+        assertThat(feed.eventsAfter(2L)).isNull();
+        assertThat(feed.stats()).containsEntry("lateCommits", 1L);
+
+        feed.poll();
+        assertThat(feed.stats()).containsEntry("lateCommits", 1L);
+    }
+
+    @Test
+    void aStreamThatFallsBehindIsClosedWithoutHoldingUpDelivery() {
+        RevocationFeed feed = feed(Duration.ofSeconds(10), 100, 3);
+        // A client that never takes anything off its queue
+        ReflectionTestUtils.setField(feed, "senders", (Executor) command -> {
+        });
+        SseEmitter emitter = feed.subscribe(null);
+        assertThat(feed.stats()).containsEntry("subscribers", 1);
+
+        feed.sessionsRevoked(1L, List.of(10L, 11L, 12L));
+        feed.poll();
+
+        assertThat(feed.snapshot().getSequence()).isEqualTo(3L);
+        assertThat(feed.stats()).containsEntry("subscribers", 0).containsEntry("laggingStreams", 1L);
+        assertThatThrownBy(() -> emitter.send("late")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void snapshotsKeepTheLatestEventPerUserAndSessionUntilTokensExpire() {
+        RevocationFeed feed = feed(Duration.ofSeconds(10), 100);
+        feed.usersChanged(RevocationEvent.Type.USER_ROLES_CHANGED, List.of(5L, 6L));
+        feed.usersChanged(RevocationEvent.Type.USER_DISABLED, List.of(5L));
+        feed.sessionsRevoked(6L, List.of(40L));
+        feed.poll();
+
+        RevocationSnapshotResponse snapshot = feed.snapshot();
+
+        assertThat(snapshot.getEntries()).extracting(RevocationEventResponse::getType).containsExactly(
+                RevocationEvent.Type.USER_ROLES_CHANGED, RevocationEvent.Type.USER_DISABLED,
+                RevocationEvent.Type.SESSION_REVOKED);
+        assertThat(snapshot.getEntries()).extracting(RevocationEventResponse::getUserId).containsExactly(6L, 5L, 6L);
+
+        feed.compact(System.currentTimeMillis() + TOKEN_LIFETIME + 1_000);
+        assertThat(feed.snapshot().getEntries()).isEmpty();
+    }
+
+    @Test
+    void resumingBeforeTheBufferFallsBackToASnapshot() {
+        RevocationFeed feed = feed(Duration.ofSeconds(10), 2);
+        feed.sessionsRevoked(1L, List.of(10L, 11L, 12L));
+        feed.poll();
+
+        assertThat(feed.eventsAfter(0L)).isNull();
+        assertThat(sequences(feed.eventsAfter(1L))).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void aRestartedFeedRebuildsItsStateFromRecentRows() {
+        RevocationFeed before = feed(Duration.ofSeconds(10), 100);
+        before.sessionsRevoked(1L, List.of(10L));
+        before.usersChanged(RevocationEvent.Type.USER_DELETED, List.of(2L));
+
+        RevocationFeed after = feed(Duration.ofSeconds(10), 100);
+
+        assertThat(after.snapshot().getSequence()).isEqualTo(2L);
+        assertThat(after.snapshot().getEntries()).hasSize(2);
+        assertThat(after.eventsAfter(2L)).isEmpty();
+        assertThat(after.eventsAfter(1L)).isNull();
+    }
+
+    @Test
+    void deniesTokensIssuedUpToTheLatestRevocationOfTheirUserOrSession() {
+        RevocationFeed feed = feed(Duration.ofSeconds(10), 100);
+        long before = System.currentTimeMillis() - 60_000;
+        feed.usersChanged(RevocationEvent.Type.USER_DISABLED, List.of(5L));
+        feed.sessionsRevoked(6L, List.of(40L));
+
+        // Applied on commit, before the poller has read the rows
+        assertThat(feed.denies(5L, null, before)).isTrue();
+        assertThat(feed.denies(6L, 40L, before)).isTrue();
+        assertThat(feed.denies(6L, 41L, before)).isFalse();
+        assertThat(feed.denies(5L, null, System.currentTimeMillis() + 60_000)).isFalse();
+
+        // Another instance only learns about them by polling
+        RevocationFeed other = feed(Duration.ofSeconds(10), 100);
+        assertThat(other.denies(5L, null, before)).isTrue();
+        feed.compact(System.currentTimeMillis() + TOKEN_LIFETIME + 1_000);
+        assertThat(feed.denies(5L, null, before)).isFalse();
+    }
+}
@@ -0,0 +1,175 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.dto.request.ClientCredentialsRequest;
+import com.kyedev.spring_security_jwt.dto.request.ServiceClientRequest;
+import com.kyedev.spring_security_jwt.dto.response.ClientTokenResponse;
+import com.kyedev.spring_security_jwt.entity.ServiceClient;
+import com.kyedev.spring_security_jwt.exceptions.BadRequestException;
+import com.kyedev.spring_security_jwt.exceptions.UnauthorizedException;
+import com.kyedev.spring_security_jwt.repository.ServiceClientRepository;
+import com.kyedev.spring_security_jwt.security.RoleRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ServiceClientServiceTests {
+
+    private static final String KEY = "c2VydmljZS1jbGllbnQtdGVzdC1rZXk=";
+
+    private final ServiceClientRepository serviceClientRepository = mock(ServiceClientRepository.class);
+    private final JwtService jwtService = mock(JwtService.class);
+    private final RoleRegistry roleRegistry = new RoleRegistry(List.of("ROLE_USER", "ROLE_MODERATOR", "ROLE_ADMIN"));
+    private final AtomicInteger signed = new AtomicInteger();
+
+    ServiceClientServiceTests() {
+        when(jwtService.getAccessTokenExpiration()).thenReturn(1_800_000L);
+        when(jwtService.generateClientToken(anyString(), any())).thenAnswer(invocation -> "token-" + signed.incrementAndGet());
+    }
+
+    private ServiceClientService service(Duration reuseMargin) {
+        return new ServiceClientService(serviceClientRepository, jwtService, roleRegistry, KEY, true, reuseMargin, 100);
+    }
+
+    // Registers the client through the service so the stored hash is the real one
+    private String register(ServiceClientService service, String clientId, String... scopes) {
+        when(serviceClientRepository.save(any())).thenAnswer(invocation -> {
+            ServiceClient client = invocation.getArgument(0);
+            when(serviceClientRepository.findByClientId(clientId)).thenReturn(Optional.of(client));
+            return client;
+        });
+        return service.create(ServiceClientRequest.builder().clientId(clientId).scopes(List.of(scopes)).build())
+                .getClientSecret();
+    }
+
+    private static ClientCredentialsRequest grant(String clientId, String secret, String scope) {
+        return ClientCredentialsRequest.builder().clientId(clientId).clientSecret(secret).scope(scope).build();
+    }
+
+    @Test
+    void freshTokensAreServedAgainWithoutALookupOrSigning() {
+        ServiceClientService service = service(Duration.ofMinutes(5));
+        String secret = register(service, "batch", "user", "MODERATOR");
+
+        ClientTokenResponse first = service.issueToken(grant("batch", secret, null));
+        for (int i = 0; i < 5; i++) {
+            assertThat(service.issueToken(grant("batch", secret, null)).getAccessToken()).isEqualTo(first.getAccessToken());
+        }
+
+        assertThat(first.getScopes()).containsExactly("ROLE_USER", "ROLE_MODERATOR");
+        assertThat(signed).hasValue(1);
+        verify(serviceClientRepository, times(1)).findByClientId("batch");
+        assertThat(service.stats()).containsEntry("reused", 5L);
+    }
+
+    @Test
+    void scopesAreCachedSeparatelyInAnyOrder() {
+        ServiceClientService service = service(Duration.ofMinutes(5));
+        String secret = register(service, "batch", "USER", "MODERATOR");
+
+        String narrow = service.issueToken(grant("batch", secret, "user")).getAccessToken();
+        String wide = service.issueToken(grant("batch", secret, "MODERATOR ROLE_USER")).getAccessToken();
+
+        assertThat(narrow).isNotEqualTo(wide);
+        assertThat(service.issueToken(grant("batch", secret, "role_user,moderator")).getAccessToken()).isEqualTo(wide);
+        assertThatThrownBy(() -> service.issueToken(grant("batch", secret, "ADMIN")))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void aCachedTokenStillRequiresTheRightSecret() {
+        ServiceClientService service = service(Duration.ofMinutes(5));
+        String secret = register(service, "batch", "USER");
+        service.issueToken(grant("batch", secret, null));
+
+        assertThatThrownBy(() -> service.issueToken(grant("batch", secret + "x", null)))
+                .isInstanceOf(UnauthorizedException.class);
+        assertThatThrownBy(() -> service.issueToken(grant("unknown", secret, null)))
+                .isInstanceOf(UnauthorizedException.class);
+        assertThat(service.stats()).containsEntry("rejected", 2L);
+    }
+
+    @Test
+    void tokensNearExpiryAreReplaced() {
+        // A margin longer than the token lifetime means nothing is ever reused
+        ServiceClientService service = service(Duration.ofHours(1));
+        String secret = register(service, "batch", "USER");
+
+        String first = service.issueToken(grant("batch", secret, null)).getAccessToken();
+        String second = service.issueToken(grant("batch", secret, null)).getAccessToken();
+
+        assertThat(second).isNotEqualTo(first);
+        assertThat(signed).hasValue(2);
+    }
+
+    @Test
+    void disablingAClientDropsItsCachedTokens() {
+        ServiceClientService service = service(Duration.ofMinutes(5));
+        String secret = register(service, "batch", "USER");
+        service.issueToken(grant("batch", secret, null));
+
+        service.disable("batch");
+
+        assertThat(service.stats()).containsEntry("cachedTokens", 0L);
+        assertThatThrownBy(() -> service.issueToken(grant("batch", secret, null)))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    void activeChecksAreAnsweredFromMemory() {
+        ServiceClientService service = service(Duration.ofMinutes(5));
+        register(service, "batch", "USER");
+        ServiceClient elsewhere = ServiceClient.builder().clientId("reports").enabled(true).build();
+        when(serviceClientRepository.findByClientId("reports")).thenReturn(Optional.of(elsewhere));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(service.isActive("batch")).isTrue();
+            assertThat(service.isActive("reports")).isTrue();
+        }
+        service.disable("batch");
+
+        assertThat(service.isActive("batch")).isFalse();
+        // Created on another instance: looked up once, then remembered
+        verify(serviceClientRepository, times(1)).findByClientId("reports");
+    }
+
+    @Test
+    void clientsDisabledElsewhereArePickedUpBySync() {
+        ServiceClientService service = service(Duration.ofMinutes(5));
+        String secret = register(service, "batch", "USER");
+        service.issueToken(grant("batch", secret, null));
+        ServiceClient client = serviceClientRepository.findByClientId("batch").orElseThrow();
+        client.setEnabled(false);
+        when(serviceClientRepository.findAll()).thenReturn(List.of(client));
+
+        service.sync();
+
+        assertThat(service.isActive("batch")).isFalse();
+        assertThatThrownBy(() -> service.issueToken(grant("batch", secret, null)))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    void aMissingSecretKeyFailsStartupWhenRequired() {
+        assertThatThrownBy(() -> new ServiceClientService(serviceClientRepository, jwtService, roleRegistry,
+                "", true, Duration.ofMinutes(5), 100))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("app.service-clients.secret-key");
+
+        ServiceClientService service = new ServiceClientService(serviceClientRepository, jwtService, roleRegistry,
+                "", false, Duration.ofMinutes(5), 100);
+        String secret = register(service, "batch", "USER");
+        assertThat(service.issueToken(grant("batch", secret, null)).getAccessToken()).isNotNull();
+    }
+}
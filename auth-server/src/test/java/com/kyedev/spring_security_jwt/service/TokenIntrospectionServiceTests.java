@@ -0,0 +1,160 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.dto.response.TokenIntrospectionResponse;
+import com.kyedev.spring_security_jwt.security.ReferenceTokenStore;
+import com.kyedev.spring_security_jwt.security.RoleRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TokenIntrospectionServiceTests {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private final RoleRegistry roleRegistry = new RoleRegistry(List.of("ROLE_USER", "ROLE_MODERATOR", "ROLE_ADMIN"));
+    private final RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final ServiceClientService serviceClientService = mock(ServiceClientService.class);
+    private final RevocationFeed revocationFeed = mock(RevocationFeed.class);
+    private final UserDetails alice = user("alice", true);
+
+    private JwtService jwtService(long accessTokenExpiration) {
+        JwtService jwtService = new JwtService(roleRegistry);
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", accessTokenExpiration);
+        ReflectionTestUtils.setField(jwtService, "claimProfile", JwtService.ClaimProfile.STANDARD);
+        jwtService.init();
+        return jwtService;
+    }
+
+    private TokenIntrospectionService service(JwtService jwtService) {
+        TokenIntrospectionService service = new TokenIntrospectionService(jwtService, refreshTokenService,
+                mock(ReferenceTokenStore.class), roleRegistry, userDetailsService, serviceClientService, revocationFeed);
+        ReflectionTestUtils.setField(service, "maxBatchSize", 10);
+        ReflectionTestUtils.setField(service, "poolSize", 2);
+        service.init();
+        return service;
+    }
+
+    private static UserDetails user(String username, boolean enabled) {
+        return User.withUsername(username).password("x").authorities("ROLE_USER").disabled(!enabled).build();
+    }
+
+    private static String accessToken(JwtService jwtService, UserDetails user, long sessionId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtService.CLAIM_USER_ID, 42L);
+        claims.put(JwtService.CLAIM_SESSION_ID, sessionId);
+        return jwtService.generateAccessToken(claims, user);
+    }
+
+    @Test
+    void activeAccessTokenReportsItsSubjectAndRoles() {
+        JwtService jwtService = jwtService(60_000L);
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice);
+        when(refreshTokenService.isSessionRevoked(7L)).thenReturn(false);
+
+        TokenIntrospectionResponse response = service(jwtService).introspect(accessToken(jwtService, alice, 7L));
+
+        assertThat(response.isActive()).isTrue();
+        assertThat(response.getRevoked()).isFalse();
+        assertThat(response.getSubject()).isEqualTo("alice");
+        assertThat(response.getRoles()).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void expiredAccessTokenIsInactive() {
+        JwtService jwtService = jwtService(-60_000L);
+
+        TokenIntrospectionResponse response = service(jwtService).introspect(accessToken(jwtService, alice, 7L));
+
+        assertThat(response.isActive()).isFalse();
+        assertThat(response.getSubject()).isNull();
+    }
+
+    @Test
+    void accessTokenOfARevokedSessionIsReportedRevoked() {
+        JwtService jwtService = jwtService(60_000L);
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice);
+        when(refreshTokenService.isSessionRevoked(7L)).thenReturn(true);
+
+        TokenIntrospectionResponse response = service(jwtService).introspect(accessToken(jwtService, alice, 7L));
+
+        assertThat(response.isActive()).isFalse();
+        assertThat(response.getRevoked()).isTrue();
+    }
+
+    @Test
+    void accessTokensOfDisabledOrDeletedUsersAreReportedRevoked() {
+        JwtService jwtService = jwtService(60_000L);
+        UserDetails bob = user("bob", false);
+        when(userDetailsService.loadUserByUsername("bob")).thenReturn(bob);
+        when(userDetailsService.loadUserByUsername("carol")).thenThrow(new UsernameNotFoundException("carol"));
+        TokenIntrospectionService service = service(jwtService);
+
+        TokenIntrospectionResponse disabled = service.introspect(accessToken(jwtService, bob, 8L));
+        TokenIntrospectionResponse deleted = service.introspect(accessToken(jwtService, user("carol", true), 9L));
+
+        assertThat(disabled.isActive()).isFalse();
+        assertThat(disabled.getRevoked()).isTrue();
+        assertThat(deleted.isActive()).isFalse();
+        assertThat(deleted.getRevoked()).isTrue();
+    }
+
+    @Test
+    void withTheRevocationFeedOnABatchAsksTheFeedInsteadOfTheDatabase() {
+        JwtService jwtService = jwtService(60_000L);
+        when(revocationFeed.isEnabled()).thenReturn(true);
+        when(revocationFeed.denies(eq(42L), eq(7L), anyLong())).thenReturn(false);
+        when(revocationFeed.denies(eq(42L), eq(8L), anyLong())).thenReturn(true);
+
+        List<TokenIntrospectionResponse> responses = service(jwtService).introspect(List.of(
+                accessToken(jwtService, alice, 7L), accessToken(jwtService, alice, 8L)));
+
+        assertThat(responses).extracting(TokenIntrospectionResponse::isActive).containsExactly(true, false);
+        assertThat(responses.get(1).getRevoked()).isTrue();
+        verifyNoInteractions(userDetailsService, refreshTokenService);
+    }
+
+    @Test
+    void aTokenIssuedJustAfterAUserEventInTheSameSecondStaysActive() throws Exception {
+        JwtService jwtService = jwtService(60_000L);
+        // Leave room for the event and the issue to fall into the same second
+        while (System.currentTimeMillis() % 1000 > 900) {
+            Thread.sleep(1);
+        }
+        long eventAt = System.currentTimeMillis();
+        Thread.sleep(5);
+        String token = accessToken(jwtService, alice, 7L);
+        when(revocationFeed.isEnabled()).thenReturn(true);
+        // What the feed does with a user event at eventAt
+        when(revocationFeed.denies(eq(42L), eq(7L), anyLong()))
+                .thenAnswer(invocation -> eventAt >= invocation.<Long>getArgument(2));
+
+        assertThat(service(jwtService).introspect(token).isActive()).isTrue();
+    }
+
+    @Test
+    void clientTokenFollowsTheClientState() {
+        JwtService jwtService = jwtService(60_000L);
+        String token = jwtService.generateClientToken("billing", alice.getAuthorities());
+        when(serviceClientService.isActive("billing")).thenReturn(true, false);
+        TokenIntrospectionService service = service(jwtService);
+
+        assertThat(service.introspect(token).isActive()).isTrue();
+        assertThat(service.introspect(token).getRevoked()).isTrue();
+    }
+}
@@ -0,0 +1,135 @@
+package com.kyedev.spring_security_jwt.service;
+
+import com.kyedev.spring_security_jwt.config.ReadYourWritesGuard;
+import com.kyedev.spring_security_jwt.dto.request.BulkRoleRequest;
+import com.kyedev.spring_security_jwt.dto.request.BulkUserRequest;
+import com.kyedev.spring_security_jwt.dto.response.BulkUserResponse;
+import com.kyedev.spring_security_jwt.entity.RevocationEvent;
+import com.kyedev.spring_security_jwt.entity.Role;
+import com.kyedev.spring_security_jwt.exceptions.BadRequestException;
+import com.kyedev.spring_security_jwt.repository.RefreshTokenRepository;
+import com.kyedev.spring_security_jwt.repository.RoleRepository;
+import com.kyedev.spring_security_jwt.repository.UserRepository;
+import com.kyedev.spring_security_jwt.security.ReferenceTokenStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserAdminServiceTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final RoleRepository roleRepository = mock(RoleRepository.class);
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+    private final ReferenceTokenStore referenceTokenStore = mock(ReferenceTokenStore.class);
+    private final RefreshCoalescer refreshCoalescer = mock(RefreshCoalescer.class);
+    private final EntityCacheService entityCacheService = mock(EntityCacheService.class);
+    private final RevocationFeed revocationFeed = mock(RevocationFeed.class);
+    private final UserAdminService service = new UserAdminService(userRepository, roleRepository,
+            refreshTokenRepository, referenceTokenStore, refreshCoalescer,
+            new ReadYourWritesGuard(false, Duration.ofSeconds(2)), mock(AccountAvailabilityService.class),
+            entityCacheService, revocationFeed);
+
+    UserAdminServiceTests() {
+        ReflectionTestUtils.setField(service, "maxUsers", 5000);
+        when(userRepository.updateEnabled(anyCollection(), anyBoolean(), any()))
+                .thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size());
+        when(refreshTokenRepository.revokeAllByUserIdIn(anyCollection()))
+                .thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size() * 2);
+    }
+
+    private void matches(long... ids) {
+        List<Object[]> rows = new ArrayList<>();
+        for (long id : ids) {
+            rows.add(new Object[]{id, "user" + id});
+        }
+        when(userRepository.findBulkTargets(anyBoolean(), any(), anyBoolean(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(rows);
+    }
+
+    @Test
+    void disableRunsChunkedSetStatementsAndRevokesAccessOnce() {
+        matches(LongStream.rangeClosed(1, 2500).toArray());
+
+        BulkUserResponse response = service.disable(BulkUserRequest.builder().emailDomain("evil.test").build(), 9999L);
+
+        assertThat(response.getMatchedUsers()).isEqualTo(2500);
+        assertThat(response.getUpdatedUsers()).isEqualTo(2500);
+        assertThat(response.getRefreshTokens()).isEqualTo(5000);
+        // 2500 ids in IN lists of at most 1000
+        verify(userRepository, times(3)).updateEnabled(anyCollection(), eq(false), any());
+        verify(refreshTokenRepository, times(3)).revokeAllByUserIdIn(anyCollection());
+        verify(referenceTokenStore, times(1)).revokeUsers(any());
+        verify(refreshCoalescer, times(1)).invalidateUsers(any());
+        verify(revocationFeed, times(1)).usersChanged(eq(RevocationEvent.Type.USER_DISABLED), anyCollection());
+    }
+
+    @Test
+    void emptySelectionIsRejected() {
+        assertThatThrownBy(() -> service.disable(new BulkUserRequest(), 1L))
+                .isInstanceOf(BadRequestException.class);
+        verify(userRepository, never()).updateEnabled(anyCollection(), anyBoolean(), any());
+    }
+
+    @Test
+    void actingAdminCannotDisableThemselves() {
+        matches(1, 2, 3);
+
+        assertThatThrownBy(() -> service.disable(BulkUserRequest.builder().role("USER").build(), 2L))
+                .isInstanceOf(BadRequestException.class);
+        verify(userRepository, never()).updateEnabled(anyCollection(), anyBoolean(), any());
+    }
+
+    @Test
+    void roleFilterAndRoleNamesAcceptBothForms() {
+        matches(1, 2);
+        when(roleRepository.findByName("ROLE_MODERATOR"))
+                .thenReturn(Optional.of(Role.builder().id(7L).name("ROLE_MODERATOR").build()));
+
+        service.reassignRoles(BulkRoleRequest.builder()
+                .users(BulkUserRequest.builder().role("user").build())
+                .roles(List.of("moderator", "ROLE_MODERATOR"))
+                .operation(BulkRoleRequest.Operation.ADD)
+                .build(), 1L);
+
+        verify(userRepository).findBulkTargets(eq(false), any(), eq(false), any(),
+                isNull(), isNull(), isNull(), isNull(), eq("ROLE_USER"), any());
+        verify(userRepository).addRoles(List.of(1L, 2L), List.of(7L));
+        verify(referenceTokenStore).revokeUsers(Set.of(1L, 2L));
+        // Cached role links are bypassed by the native statements, so they are evicted per user
+        verify(entityCacheService).evictUserRoles(List.of(1L, 2L));
+    }
+
+    @Test
+    void unknownRoleIsRejected() {
+        matches(1);
+        when(roleRepository.findByName(any())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.reassignRoles(BulkRoleRequest.builder()
+                .users(BulkUserRequest.builder().userIds(List.of(1L)).build())
+                .roles(List.of("NOPE"))
+                .operation(BulkRoleRequest.Operation.REPLACE)
+                .build(), 99L))
+                .isInstanceOf(BadRequestException.class);
+        verify(userRepository, never()).removeAllRoles(anyCollection());
+    }
+}
@@ -1,55 +0,0 @@
-package com.kyedev.spring_security_jwt.controller;
-
-
-import com.kyedev.spring_security_jwt.dto.response.ApiResponse;
-import com.kyedev.spring_security_jwt.entity.User;
-import com.kyedev.spring_security_jwt.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
-
-@RestController
-@RequestMapping("/api/v1/admin")
-@RequiredArgsConstructor
-@PreAuthorize("hasRole('ADMIN')") // All methods require ADMIN role
-public class AdminController {
-
-    private final UserRepository userRepository;
-
-    @GetMapping("/users")
-    public ResponseEntity<ApiResponse<List<User>>> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        return ResponseEntity.ok(
-                ApiResponse.success("Users retrieved successfully", users)
-        );
-    }
-
-    @GetMapping("/users/{id}")
-    public ResponseEntity<ApiResponse<User>> getUserById(@PathVariable Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return ResponseEntity.ok(
-                ApiResponse.success("User retrieved successfully", user)
-        );
-    }
-
-    @DeleteMapping("/users/{id}")
-    public ResponseEntity<ApiResponse<?>> deleteUser(@PathVariable Long id) {
-        userRepository.deleteById(id);
-        return ResponseEntity.ok(
-                ApiResponse.success("User deleted successfully", null)
-        );
-    }
-
-    @GetMapping("/dashboard")
-    public ResponseEntity<ApiResponse<String>> getAdminDashboard() {
-        return ResponseEntity.ok(
-                ApiResponse.success("Admin dashboard accessed successfully",
-                        "Welcome to admin dashboard")
-        );
-    }
-}
-
@@ -1,13 +0,0 @@
-package com.kyedev.spring_security_jwt.repository;
-
-import com.kyedev.spring_security_jwt.entity.Role;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
-
-import java.util.Optional;
-
-
-@Repository
-public interface RoleRepository extends JpaRepository<Role, Long> {
-    Optional<Role> findByName(String name);
-}
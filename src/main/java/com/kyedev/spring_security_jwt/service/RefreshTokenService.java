@@ -1,76 +0,0 @@
-package com.kyedev.spring_security_jwt.service;
-
-
-import com.kyedev.spring_security_jwt.entity.RefreshToken;
-import com.kyedev.spring_security_jwt.entity.User;
-import com.kyedev.spring_security_jwt.exceptions.TokenRefreshException;
-import com.kyedev.spring_security_jwt.repository.RefreshTokenRepository;
-import com.kyedev.spring_security_jwt.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.time.Instant;
-import java.util.Optional;
-import java.util.UUID;
-
-@Service
-@RequiredArgsConstructor
-public class RefreshTokenService {
-
-    @Value("${jwt.refresh-token-expiration}")
-    private Long refreshTokenDurationMs;
-
-    private final RefreshTokenRepository refreshTokenRepository;
-    private final UserRepository userRepository;
-
-    public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
-    }
-
-    public RefreshToken createRefreshToken(Long userID) {
-        User user  = userRepository.findById(userID)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        RefreshToken refreshToken = RefreshToken.builder()
-                .user(user)
-                .token(UUID.randomUUID().toString())
-                .expiryDate(Instant.now().plusMillis(refreshTokenDurationMs))
-                .revoked(false)
-                .build();
-
-        return refreshTokenRepository.save(refreshToken);
-    }
-
-    public RefreshToken verifyExpiration(RefreshToken token) {
-        if (token.isExpired()) {
-            throw new TokenRefreshException(token.getToken(), "Refresh token was expired. Please make a new signin request");
-        }
-        if (token.getRevoked()) {
-            throw new TokenRefreshException(token.getToken(), "Refresh token was revoked. Please make a new signin request");
-        }
-        return token;
-    }
-
-    @Transactional
-    public void deleteByUserId(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        refreshTokenRepository.deleteByUser(user);
-    }
-
-    @Transactional
-    public void revokeToken(String token) {
-        refreshTokenRepository.findByToken(token).ifPresent(rt -> {
-            rt.setRevoked(true);
-            refreshTokenRepository.save(rt);
-        });
-    }
-
-    @Transactional
-    public void deleteExpiredTokens() {
-        refreshTokenRepository.deleteExpiredTokens();
-    }
-
-}
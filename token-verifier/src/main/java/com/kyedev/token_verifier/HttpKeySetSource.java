@@ -0,0 +1,76 @@
+package com.kyedev.token_verifier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.io.Parser;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Reads a JWK set of public keys (EC, RSA or OKP), as served by the auth server's GET /api/v1/keys. That
+// endpoint requires ROLE_VERIFIER, so pass an X-API-Key or Authorization header in headers.
+public class HttpKeySetSource implements KeySetSource {
+
+    private static final Parser<Jwk<?>> JWK_PARSER = Jwks.parser().build();
+
+    private final URI uri;
+    private final Map<String, String> headers;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public HttpKeySetSource(URI uri, Map<String, String> headers, Duration timeout) {
+        this.uri = uri;
+        this.headers = Map.copyOf(headers);
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public List<VerificationKey> fetch() throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(timeout).GET();
+        headers.forEach(request::header);
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching " + uri, e);
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("Key set request to " + uri + " returned " + response.statusCode());
+        }
+        return parse(objectMapper.readTree(response.body()));
+    }
+
+    // Anything but a public key (symmetric and private keys included) is skipped, an empty result is an error
+    public static List<VerificationKey> parse(JsonNode document) throws IOException {
+        List<VerificationKey> keys = new ArrayList<>();
+        for (JsonNode node : document.path("keys")) {
+            Jwk<?> jwk;
+            try {
+                jwk = JWK_PARSER.parse(node.toString());
+            } catch (JwtException | IllegalArgumentException e) {
+                continue;
+            }
+            if (jwk instanceof PublicJwk<?> publicJwk) {
+                keys.add(new VerificationKey(publicJwk.getId(), publicJwk.toKey()));
+            }
+        }
+        if (keys.isEmpty()) {
+            throw new IOException("Key set contains no usable public keys");
+        }
+        return keys;
+    }
+}
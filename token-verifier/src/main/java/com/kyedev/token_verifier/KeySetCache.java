@@ -0,0 +1,119 @@
+package com.kyedev.token_verifier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Keeps the current key set in memory and refreshes it on a background thread, so verification never
+// waits on the auth server. A failed refresh keeps the last good set and is retried with exponential
+// backoff (min-retry doubling up to the refresh interval). A signature mismatch can ask for an early
+// refresh, which picks up a rotated key; those requests are rate limited to one per min-retry.
+public class KeySetCache implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(KeySetCache.class);
+
+    private final KeySetSource source;
+    private final long refreshIntervalMillis;
+    private final long minRetryMillis;
+    private final VerifierMetrics metrics;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile List<VerificationKey> keys = List.of();
+    private volatile long loadedAtMillis;
+    private volatile long lastAttemptMillis;
+    // Only touched by the scheduler thread
+    private long retryDelayMillis;
+    private ScheduledFuture<?> nextRefresh;
+
+    public KeySetCache(KeySetSource source, Duration refreshInterval, Duration minRetry, VerifierMetrics metrics) {
+        this.source = source;
+        this.refreshIntervalMillis = refreshInterval.toMillis();
+        this.minRetryMillis = minRetry.toMillis();
+        this.retryDelayMillis = minRetryMillis;
+        this.metrics = metrics;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-verifier-keys");
+            thread.setDaemon(true);
+            return thread;
+        });
+        metrics.keySet(this);
+    }
+
+    // Loads the first key set before returning, waiting at most initialLoadTimeout. Tokens are rejected
+    // with NO_KEYS until a load succeeds, which keeps being retried in the background.
+    public KeySetCache start(Duration initialLoadTimeout) {
+        try {
+            scheduler.submit(this::refresh).get(initialLoadTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Initial key set load did not finish: {}", e.getMessage());
+        }
+        return this;
+    }
+
+    public List<VerificationKey> keys() {
+        return keys;
+    }
+
+    public long ageMillis() {
+        return loadedAtMillis == 0 ? -1 : System.currentTimeMillis() - loadedAtMillis;
+    }
+
+    // Non-blocking; ignored while a refresh is running or one was attempted less than min-retry ago
+    public void requestRefresh() {
+        if (System.currentTimeMillis() - lastAttemptMillis < minRetryMillis || refreshing.get() || scheduler.isShutdown()) {
+            return;
+        }
+        scheduler.execute(this::refreshNow);
+    }
+
+    private void refreshNow() {
+        if (System.currentTimeMillis() - lastAttemptMillis >= minRetryMillis) {
+            refresh();
+        }
+    }
+
+    // Every run replaces the pending one, so the schedule survives failures and early refreshes
+    private void refresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        long nextDelay;
+        try {
+            lastAttemptMillis = System.currentTimeMillis();
+            List<VerificationKey> fetched = List.copyOf(source.fetch());
+            keys = fetched;
+            loadedAtMillis = System.currentTimeMillis();
+            retryDelayMillis = minRetryMillis;
+            metrics.keyRefreshed();
+            nextDelay = refreshIntervalMillis;
+        } catch (Exception e) {
+            metrics.keyRefreshFailed();
+            log.warn("Refreshing the key set failed, keeping {} cached keys: {}", keys.size(), e.getMessage());
+            nextDelay = retryDelayMillis;
+            retryDelayMillis = Math.min(retryDelayMillis * 2, refreshIntervalMillis);
+        } finally {
+            refreshing.set(false);
+        }
+        if (nextRefresh != null) {
+            nextRefresh.cancel(false);
+        }
+        if (!scheduler.isShutdown()) {
+            nextRefresh = scheduler.schedule(this::refresh, nextDelay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,11 @@
+package com.kyedev.token_verifier;
+
+import java.io.IOException;
+import java.util.List;
+
+// Where KeySetCache loads keys from; only ever called from its background thread
+@FunctionalInterface
+public interface KeySetSource {
+
+    List<VerificationKey> fetch() throws IOException;
+}
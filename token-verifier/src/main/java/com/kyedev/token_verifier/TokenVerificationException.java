@@ -0,0 +1,17 @@
+package com.kyedev.token_verifier;
+
+public class TokenVerificationException extends RuntimeException {
+
+    public enum Reason { MALFORMED, UNSUPPORTED, EXPIRED, BAD_SIGNATURE, NO_KEYS }
+
+    private final Reason reason;
+
+    public TokenVerificationException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,155 @@
+package com.kyedev.token_verifier;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SecurityException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+// Verifies the auth server's JWT access tokens in-process: signature against the cached key set, expiry,
+// then the claims of either claim profile (STANDARD or COMPACT). Nothing on this path calls the auth server.
+// Revocation is not checked here; services that need it follow the server's revocation feed.
+public class TokenVerifier {
+
+    // Must match the server's jwt.claims.role-registry, compact tokens encode roles as bits in this order
+    public static final List<String> DEFAULT_ROLE_REGISTRY =
+            List.of("ROLE_USER", "ROLE_MODERATOR", "ROLE_ADMIN", "ROLE_VERIFIER");
+
+    // Must match the server's app.security.role-hierarchy: "A > B > C" chains separated by "," or new lines
+    public static final String DEFAULT_ROLE_HIERARCHY = "ROLE_ADMIN > ROLE_MODERATOR > ROLE_USER, ROLE_ADMIN > ROLE_VERIFIER";
+
+    private static final String REFERENCE_TOKEN_PREFIX = "ref_";
+    private static final String API_KEY_PREFIX = "ak_";
+
+    // Parsers are built once per key set and swapped together with it
+    private record Parsers(List<VerificationKey> keys, List<JwtParser> parsers) {
+    }
+
+    private final KeySetCache keySet;
+    private final VerifierMetrics metrics;
+    private final List<String> roleRegistry;
+    private final long clockSkewSeconds;
+    private final VerifiedTokenCache cache;
+    private volatile Parsers parsers = new Parsers(List.of(), List.of());
+
+    public TokenVerifier(KeySetCache keySet, VerifierMetrics metrics, List<String> roleRegistry,
+                         Duration clockSkew, int cacheMaxSize) {
+        if (roleRegistry.size() > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " roles can be registered");
+        }
+        this.keySet = keySet;
+        this.metrics = metrics;
+        this.roleRegistry = List.copyOf(roleRegistry);
+        this.clockSkewSeconds = clockSkew.toSeconds();
+        this.cache = new VerifiedTokenCache(cacheMaxSize);
+        metrics.keySet(keySet);
+    }
+
+    public TokenVerifier(KeySetCache keySet, VerifierMetrics metrics) {
+        this(keySet, metrics, DEFAULT_ROLE_REGISTRY, Duration.ofSeconds(30), 10_000);
+    }
+
+    public VerifiedToken verify(String token) {
+        VerifiedToken cached = cache.get(token);
+        if (cached != null) {
+            metrics.cacheHit();
+            return cached;
+        }
+        if (token.startsWith(REFERENCE_TOKEN_PREFIX) || token.startsWith(API_KEY_PREFIX)) {
+            throw reject(TokenVerificationException.Reason.UNSUPPORTED,
+                    "Reference tokens and API keys can only be checked by the auth server");
+        }
+        List<JwtParser> candidates = parsers();
+        if (candidates.isEmpty()) {
+            throw reject(TokenVerificationException.Reason.NO_KEYS, "No verification keys loaded yet");
+        }
+
+        long start = System.nanoTime();
+        for (JwtParser parser : candidates) {
+            try {
+                VerifiedToken verified = toVerifiedToken(parser.parseSignedClaims(token).getPayload());
+                metrics.verified(System.nanoTime() - start);
+                cache.put(token, verified);
+                return verified;
+            } catch (SecurityException | UnsupportedJwtException e) {
+                // Signed with another key, possibly of another type (or not one of ours); try the next one
+            } catch (ExpiredJwtException e) {
+                throw reject(TokenVerificationException.Reason.EXPIRED, "Token has expired");
+            } catch (JwtException | IllegalArgumentException e) {
+                throw reject(TokenVerificationException.Reason.MALFORMED, "Token is malformed: " + e.getMessage());
+            }
+        }
+        // The server may have rotated its key since the last refresh
+        keySet.requestRefresh();
+        throw reject(TokenVerificationException.Reason.BAD_SIGNATURE, "Token signature does not match any known key");
+    }
+
+    public VerifierMetrics getMetrics() {
+        return metrics;
+    }
+
+    private List<JwtParser> parsers() {
+        Parsers current = parsers;
+        List<VerificationKey> keys = keySet.keys();
+        if (current.keys() != keys) {
+            List<JwtParser> built = new ArrayList<>(keys.size());
+            for (VerificationKey key : keys) {
+                built.add(Jwts.parser().verifyWith(key.key()).clockSkewSeconds(clockSkewSeconds).build());
+            }
+            current = new Parsers(keys, List.copyOf(built));
+            parsers = current;
+        }
+        return current.parsers();
+    }
+
+    // Understands both claim profiles, like the server's JwtService. issuedAt prefers iat_ms, which orders
+    // the token against revocation events in milliseconds.
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        Object userId = claims.containsKey("uid") ? claims.get("uid") : claims.get("userId");
+        return new VerifiedToken(
+                claims.getSubject(),
+                userId instanceof Number number ? number.longValue() : null,
+                claims.get("sid") instanceof Number sid ? sid.longValue() : null,
+                claims.get("client_id") instanceof String clientId ? clientId : null,
+                roles(claims),
+                claims.get("iat_ms") instanceof Number issuedAt
+                        ? Instant.ofEpochMilli(issuedAt.longValue()) : instant(claims.getIssuedAt()),
+                instant(claims.getExpiration()),
+                claims
+        );
+    }
+
+    private List<String> roles(Claims claims) {
+        if (claims.get("rm") instanceof Number mask) {
+            List<String> names = new ArrayList<>();
+            long bits = mask.longValue();
+            for (int bit = 0; bit < roleRegistry.size(); bit++) {
+                if ((bits & (1L << bit)) != 0) {
+                    names.add(roleRegistry.get(bit));
+                }
+            }
+            return List.copyOf(names);
+        }
+        if (claims.get("roles") instanceof List<?> roles) {
+            return roles.stream().map(String::valueOf).toList();
+        }
+        return List.of();
+    }
+
+    private static Instant instant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+
+    private TokenVerificationException reject(TokenVerificationException.Reason reason, String message) {
+        metrics.rejected(reason);
+        return new TokenVerificationException(reason, message);
+    }
+}
@@ -0,0 +1,86 @@
+package com.kyedev.token_verifier;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+// Drop-in counterpart of the auth server's JwtAuthenticationFilter for downstream services. The principal
+// is the VerifiedToken itself and the authorities are the token's roles expanded through the role
+// hierarchy, as on the server, so there is no user lookup and no call to the auth server. A token that
+// fails verification leaves the request unauthenticated.
+public class TokenVerifierFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenVerifierFilter.class);
+
+    private final TokenVerifier verifier;
+    private final RequestMatcher skipMatcher;
+    private final RoleHierarchy roleHierarchy;
+
+    // roleHierarchy uses the server's syntax, see TokenVerifier.DEFAULT_ROLE_HIERARCHY
+    public TokenVerifierFilter(TokenVerifier verifier, RequestMatcher skipMatcher, String roleHierarchy) {
+        this.verifier = verifier;
+        this.skipMatcher = skipMatcher;
+        this.roleHierarchy = RoleHierarchyImpl.fromHierarchy(roleHierarchy.replace(',', '\n'));
+    }
+
+    public TokenVerifierFilter(TokenVerifier verifier, RequestMatcher skipMatcher) {
+        this(verifier, skipMatcher, TokenVerifier.DEFAULT_ROLE_HIERARCHY);
+    }
+
+    public TokenVerifierFilter(TokenVerifier verifier) {
+        this(verifier, null);
+    }
+
+    // Routes that never need an authentication, e.g. public endpoints and health checks
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return skipMatcher != null && skipMatcher.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader("Authorization");
+        if (header == null || !header.startsWith("Bearer ")
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            VerifiedToken token = verifier.verify(header.substring(7));
+            UsernamePasswordAuthenticationToken authToken = UsernamePasswordAuthenticationToken.authenticated(
+                    token,
+                    null,
+                    authorities(token)
+            );
+            authToken.setDetails(new WebAuthenticationDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+        } catch (TokenVerificationException e) {
+            log.debug("Token rejected ({}): {}", e.getReason(), e.getMessage());
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private Collection<? extends GrantedAuthority> authorities(VerifiedToken token) {
+        List<GrantedAuthority> direct = token.roles().stream().<GrantedAuthority>map(SimpleGrantedAuthority::new).toList();
+        return roleHierarchy.getReachableGrantedAuthorities(direct);
+    }
+}
@@ -0,0 +1,7 @@
+package com.kyedev.token_verifier;
+
+import java.security.PublicKey;
+
+// One public key of the auth server's key set. Every key is tried in order, so rotation needs no key id match.
+public record VerificationKey(String kid, PublicKey key) {
+}
@@ -0,0 +1,29 @@
+package com.kyedev.token_verifier;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+// What a verified access token says about its caller. userId and sessionId are null for service-client
+// tokens, which carry clientId instead. Used as the principal of the authentication TokenVerifierFilter sets.
+public record VerifiedToken(
+        String subject,
+        Long userId,
+        Long sessionId,
+        String clientId,
+        List<String> roles,
+        Instant issuedAt,
+        Instant expiresAt,
+        Map<String, Object> claims
+) implements Principal {
+
+    @Override
+    public String getName() {
+        return subject;
+    }
+
+    public boolean isClient() {
+        return clientId != null;
+    }
+}
@@ -0,0 +1,44 @@
+package com.kyedev.token_verifier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+
+// Bounded cache of tokens whose signature has already been verified, the same scheme the auth server uses.
+// Entries are dropped once the token expires so an expired token is always re-parsed (and rejected).
+// Once full, the entries least likely to be used again are evicted one at a time, never the whole cache.
+class VerifiedTokenCache {
+
+    private final int maxSize;
+    private final Cache<String, VerifiedToken> entries;
+
+    VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = Caffeine.newBuilder()
+                .executor(Runnable::run)
+                .maximumSize(Math.max(maxSize, 0))
+                .expireAfter(Expiry.<String, VerifiedToken>writing((token, verified) ->
+                        Duration.ofMillis(Math.max(0, verified.expiresAt().toEpochMilli() - System.currentTimeMillis()))))
+                .build();
+    }
+
+    VerifiedToken get(String token) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        return entries.getIfPresent(token);
+    }
+
+    void put(String token, VerifiedToken verified) {
+        if (maxSize <= 0 || verified.expiresAt() == null) {
+            return;
+        }
+        entries.put(token, verified);
+    }
+
+    int size() {
+        return (int) entries.estimatedSize();
+    }
+}
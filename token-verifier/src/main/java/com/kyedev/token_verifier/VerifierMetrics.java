@@ -0,0 +1,69 @@
+package com.kyedev.token_verifier;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counters for one verifier, cheap enough to update on every request. stats() is meant to be exposed by
+// the host service, e.g. through an actuator endpoint or a gauge per entry.
+public class VerifierMetrics {
+
+    private final LongAdder verified = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder verifyNanos = new LongAdder();
+    private final Map<TokenVerificationException.Reason, LongAdder> rejected =
+            new EnumMap<>(TokenVerificationException.Reason.class);
+    private final LongAdder keyRefreshes = new LongAdder();
+    private final LongAdder keyRefreshFailures = new LongAdder();
+    private volatile KeySetCache keySet;
+
+    public VerifierMetrics() {
+        for (TokenVerificationException.Reason reason : TokenVerificationException.Reason.values()) {
+            rejected.put(reason, new LongAdder());
+        }
+    }
+
+    void keySet(KeySetCache keySet) {
+        this.keySet = keySet;
+    }
+
+    void cacheHit() {
+        cacheHits.increment();
+    }
+
+    // Signature checks only; cache hits are counted separately and take no measurable time
+    void verified(long nanos) {
+        verified.increment();
+        verifyNanos.add(nanos);
+    }
+
+    void rejected(TokenVerificationException.Reason reason) {
+        rejected.get(reason).increment();
+    }
+
+    void keyRefreshed() {
+        keyRefreshes.increment();
+    }
+
+    void keyRefreshFailed() {
+        keyRefreshFailures.increment();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long signatureChecks = verified.sum();
+        stats.put("verified", signatureChecks);
+        stats.put("cacheHits", cacheHits.sum());
+        stats.put("avgVerifyMicros", signatureChecks == 0 ? 0.0 : verifyNanos.sum() / 1_000.0 / signatureChecks);
+        Map<String, Long> rejections = new LinkedHashMap<>();
+        rejected.forEach((reason, count) -> rejections.put(reason.name(), count.sum()));
+        stats.put("rejected", rejections);
+        stats.put("keyRefreshes", keyRefreshes.sum());
+        stats.put("keyRefreshFailures", keyRefreshFailures.sum());
+        KeySetCache current = keySet;
+        stats.put("keys", current != null ? current.keys().size() : 0);
+        stats.put("keySetAgeMillis", current != null ? current.ageMillis() : -1L);
+        return stats;
+    }
+}
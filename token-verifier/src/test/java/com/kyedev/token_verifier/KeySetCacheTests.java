@@ -0,0 +1,85 @@
+package com.kyedev.token_verifier;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeySetCacheTests {
+
+    private final KeyPair first = Jwts.SIG.ES256.keyPair().build();
+    private final KeyPair second = Jwts.SIG.ES256.keyPair().build();
+    private final VerifierMetrics metrics = new VerifierMetrics();
+    private StubKeyServer server;
+    private KeySetCache cache;
+
+    @AfterEach
+    void tearDown() {
+        if (cache != null) {
+            cache.close();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void failedRefreshesKeepTheLastGoodKeys() throws Exception {
+        server = new StubKeyServer(first.getPublic());
+        cache = new KeySetCache(server.source(), Duration.ofMillis(100), Duration.ofMillis(50), metrics)
+                .start(Duration.ofSeconds(5));
+        assertThat(cache.keys()).extracting(key -> key.key().getEncoded()).containsExactly(first.getPublic().getEncoded());
+
+        server.failing(true);
+        await(() -> metrics.stats().get("keyRefreshFailures").equals(2L));
+        assertThat(metrics.stats().get("keyRefreshFailures")).isEqualTo(2L);
+        assertThat(cache.keys()).hasSize(1);
+
+        server.keys(second.getPublic());
+        server.failing(false);
+        await(() -> cache.keys().get(0).key().equals(second.getPublic()));
+        assertThat(cache.keys()).extracting(key -> key.key().getEncoded()).containsExactly(second.getPublic().getEncoded());
+    }
+
+    @Test
+    void earlyRefreshesAreRateLimited() throws Exception {
+        server = new StubKeyServer(first.getPublic());
+        cache = new KeySetCache(server.source(), Duration.ofHours(1), Duration.ofMinutes(1), metrics)
+                .start(Duration.ofSeconds(5));
+        server.keys(first.getPublic(), second.getPublic());
+
+        for (int i = 0; i < 100; i++) {
+            cache.requestRefresh();
+        }
+        Thread.sleep(200);
+
+        assertThat(server.requests()).isEqualTo(1);
+        assertThat(cache.keys()).hasSize(1);
+    }
+
+    @Test
+    void unreachableServerLeavesNoKeysUntilALoadSucceeds() throws Exception {
+        server = new StubKeyServer(first.getPublic());
+        server.failing(true);
+        cache = new KeySetCache(server.source(), Duration.ofMillis(200), Duration.ofMillis(20), metrics)
+                .start(Duration.ofSeconds(5));
+        assertThat(cache.keys()).isEmpty();
+        assertThat(cache.ageMillis()).isEqualTo(-1);
+
+        server.failing(false);
+        await(() -> !cache.keys().isEmpty());
+        assertThat(cache.keys()).hasSize(1);
+    }
+}
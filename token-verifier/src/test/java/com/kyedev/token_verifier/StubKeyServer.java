@@ -0,0 +1,77 @@
+package com.kyedev.token_verifier;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.security.Jwks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.security.PublicKey;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Stands in for the auth server's GET /api/v1/keys: serves the current keys as a JWK set, or 503 while failing
+class StubKeyServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile List<PublicKey> keys;
+    private volatile boolean failing;
+
+    StubKeyServer(PublicKey... keys) throws IOException {
+        this.keys = List.of(keys);
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/keys", exchange -> {
+            requests.incrementAndGet();
+            byte[] body = failing ? new byte[0] : document().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(failing ? 503 : 200, body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    URI uri() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1/keys");
+    }
+
+    HttpKeySetSource source() {
+        return new HttpKeySetSource(uri(), Map.of("X-API-Key", "ak_test"), Duration.ofSeconds(2));
+    }
+
+    void keys(PublicKey... keys) {
+        this.keys = List.of(keys);
+    }
+
+    void failing(boolean failing) {
+        this.failing = failing;
+    }
+
+    int requests() {
+        return requests.get();
+    }
+
+    private String document() {
+        try {
+            return new ObjectMapper().writeValueAsString(Map.of("keys", keys.stream()
+                    .map(key -> new LinkedHashMap<>(Jwks.builder().key(key).idFromThumbprint().build()))
+                    .toList()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,96 @@
+package com.kyedev.token_verifier;
+
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.security.KeyPair;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenVerifierFilterTests {
+
+    private final KeyPair key = Jwts.SIG.ES256.keyPair().build();
+    private final KeySetCache keySet = new KeySetCache(() -> List.of(new VerificationKey("k1", key.getPublic())),
+            Duration.ofHours(1), Duration.ofSeconds(1), new VerifierMetrics()).start(Duration.ofSeconds(5));
+    private final TokenVerifierFilter filter = new TokenVerifierFilter(new TokenVerifier(keySet, new VerifierMetrics()),
+            request -> request.getRequestURI().startsWith("/public/"));
+
+    @AfterEach
+    void tearDown() {
+        keySet.close();
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication filter(String path, String token) throws Exception {
+        return filterWith(filter, path, token);
+    }
+
+    // Captures what the rest of the chain sees, the filter itself never clears the context
+    private static Authentication filterWith(TokenVerifierFilter filter, String path, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                seen.set(SecurityContextHolder.getContext().getAuthentication());
+            }
+        });
+        SecurityContextHolder.clearContext();
+        return seen.get();
+    }
+
+    @Test
+    void authenticatesValidTokensWithTheirRoles() throws Exception {
+        String token = TokenVerifierTests.token(key, "alice", Map.of("roles", List.of("ROLE_ADMIN")), 60_000);
+
+        Authentication authentication = filter("/api/orders", token);
+
+        assertThat(authentication.isAuthenticated()).isTrue();
+        assertThat(authentication.getName()).isEqualTo("alice");
+        assertThat(authentication.getPrincipal()).isInstanceOf(VerifiedToken.class);
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_ADMIN", "ROLE_MODERATOR", "ROLE_USER", "ROLE_VERIFIER");
+    }
+
+    // Same expansion as the server, so hasRole("USER") admits a moderator here as it does there
+    @Test
+    void expandsRolesThroughTheHierarchy() throws Exception {
+        String moderator = TokenVerifierTests.token(key, "bob", Map.of("rm", 0b0010), 60_000);
+        String verifier = TokenVerifierTests.token(key, "billing", Map.of("roles", List.of("ROLE_VERIFIER")), 60_000);
+
+        assertThat(filter("/api/orders", moderator).getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_MODERATOR", "ROLE_USER");
+        assertThat(filter("/api/orders", verifier).getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_VERIFIER");
+
+        TokenVerifierFilter flat = new TokenVerifierFilter(new TokenVerifier(keySet, new VerifierMetrics()), null, "");
+        Authentication seen = filterWith(flat, "/api/orders", moderator);
+        assertThat(seen.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_MODERATOR");
+    }
+
+    @Test
+    void leavesInvalidTokensAndSkippedRoutesUnauthenticated() throws Exception {
+        String token = TokenVerifierTests.token(key, "alice", Map.of(), 60_000);
+        String forged = TokenVerifierTests.token(Jwts.SIG.ES256.keyPair().build(), "alice", Map.of(), 60_000);
+
+        assertThat(filter("/api/orders", forged)).isNull();
+        assertThat(filter("/api/orders", null)).isNull();
+        assertThat(filter("/public/health", token)).isNull();
+    }
+}
@@ -0,0 +1,98 @@
+package com.kyedev.token_verifier;
+
+import io.jsonwebtoken.Jwts;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Verification latency per request, cold (signature check) vs cached, with several threads sharing one
+// verifier, against a stub key server. Run with: ./mvnw -Pload-test test -pl token-verifier
+@Tag("load")
+class TokenVerifierLoadTest {
+
+    private static final int THREADS = Integer.getInteger("verifier.threads", 4);
+    private static final int TOKENS_PER_THREAD = Integer.getInteger("verifier.tokens", 20_000);
+    private static final int ROUNDS = 5;
+    // Gate on the signature check, generous enough for shared CI machines
+    private static final long MAX_COLD_P99_MICROS = Long.getLong("verifier.max-cold-p99-micros", 2_000);
+
+    private final KeyPair key = Jwts.SIG.ES256.keyPair().build();
+
+    @Test
+    void verificationStaysLocalAndFast() throws Exception {
+        try (StubKeyServer server = new StubKeyServer(key.getPublic());
+             KeySetCache keySet = new KeySetCache(server.source(), Duration.ofHours(1), Duration.ofSeconds(1),
+                     new VerifierMetrics()).start(Duration.ofSeconds(5));
+             ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            VerifierMetrics metrics = new VerifierMetrics();
+            TokenVerifier verifier = new TokenVerifier(keySet, metrics, TokenVerifier.DEFAULT_ROLE_REGISTRY,
+                    Duration.ofSeconds(30), 2 * THREADS * TOKENS_PER_THREAD);
+
+            // Warm-up pass on throwaway tokens so the measured rounds run compiled code
+            run(executor, verifier, tokens());
+            List<List<String>> tokens = tokens();
+            Histogram cold = run(executor, verifier, tokens);
+            Histogram cached = new Histogram(3);
+            for (int round = 0; round < ROUNDS; round++) {
+                cached.add(run(executor, verifier, tokens));
+            }
+
+            System.out.printf("Verifier cold: p50=%dus p99=%dus max=%dus, cached: p50=%dus p99=%dus, stats=%s%n",
+                    micros(cold, 50), micros(cold, 99), cold.getMaxValue() / 1_000,
+                    micros(cached, 50), micros(cached, 99), metrics.stats());
+
+            assertThat(server.requests()).as("key set fetches, none on the verification path").isEqualTo(1);
+            assertThat(micros(cold, 99)).isLessThanOrEqualTo(MAX_COLD_P99_MICROS);
+            assertThat(cached.getValueAtPercentile(50)).isLessThan(cold.getValueAtPercentile(50));
+        }
+    }
+
+    private List<List<String>> tokens() {
+        List<List<String>> perThread = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            List<String> tokens = new ArrayList<>(TOKENS_PER_THREAD);
+            for (int i = 0; i < TOKENS_PER_THREAD; i++) {
+                tokens.add(TokenVerifierTests.token(key, "user" + thread + "-" + i,
+                        Map.of("uid", i, "sid", i, "rm", 1), 600_000));
+            }
+            perThread.add(tokens);
+        }
+        return perThread;
+    }
+
+    private static Histogram run(ExecutorService executor, TokenVerifier verifier, List<List<String>> tokens)
+            throws Exception {
+        List<Future<Histogram>> results = new ArrayList<>();
+        for (List<String> batch : tokens) {
+            results.add(executor.submit(() -> {
+                Histogram histogram = new Histogram(3);
+                for (String token : batch) {
+                    long start = System.nanoTime();
+                    verifier.verify(token);
+                    histogram.recordValue(System.nanoTime() - start);
+                }
+                return histogram;
+            }));
+        }
+        Histogram merged = new Histogram(3);
+        for (Future<Histogram> result : results) {
+            merged.add(result.get());
+        }
+        return merged;
+    }
+
+    private static long micros(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1_000;
+    }
+}
@@ -0,0 +1,136 @@
+package com.kyedev.token_verifier;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenVerifierTests {
+
+    private final KeyPair key = Jwts.SIG.ES256.keyPair().build();
+    private final KeyPair rotated = Jwts.SIG.ES256.keyPair().build();
+    private final VerifierMetrics metrics = new VerifierMetrics();
+    private StubKeyServer server;
+    private KeySetCache keySet;
+    private TokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StubKeyServer(key.getPublic());
+        keySet = new KeySetCache(server.source(), Duration.ofHours(1), Duration.ofMillis(10), metrics)
+                .start(Duration.ofSeconds(5));
+        verifier = new TokenVerifier(keySet, metrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        keySet.close();
+        server.close();
+    }
+
+    static String token(KeyPair signingKey, String subject, Map<String, Object> claims, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder().claims(claims).subject(subject)
+                .issuedAt(new Date(now)).expiration(new Date(now + ttlMillis))
+                .signWith(signingKey.getPrivate()).compact();
+    }
+
+    private TokenVerificationException.Reason rejection(String token) {
+        try {
+            verifier.verify(token);
+        } catch (TokenVerificationException e) {
+            return e.getReason();
+        }
+        throw new AssertionError("token was accepted");
+    }
+
+    @Test
+    void verifiesStandardTokensOnceThenServesThemFromTheCache() {
+        String token = token(key, "alice",
+                Map.of("userId", 42, "sid", 7, "roles", List.of("ROLE_USER", "ROLE_ADMIN")), 60_000);
+
+        VerifiedToken verified = verifier.verify(token);
+        assertThat(verifier.verify(token)).isSameAs(verified);
+
+        assertThat(verified.getName()).isEqualTo("alice");
+        assertThat(verified.userId()).isEqualTo(42L);
+        assertThat(verified.sessionId()).isEqualTo(7L);
+        assertThat(verified.roles()).containsExactly("ROLE_USER", "ROLE_ADMIN");
+        assertThat(verified.isClient()).isFalse();
+        assertThat(metrics.stats()).containsEntry("verified", 1L).containsEntry("cacheHits", 1L);
+    }
+
+    @Test
+    void decodesCompactRoleMasks() {
+        VerifiedToken verified = verifier.verify(token(key, "bob", Map.of("uid", 5, "rm", 0b1010), 60_000));
+
+        assertThat(verified.userId()).isEqualTo(5L);
+        assertThat(verified.roles()).containsExactly("ROLE_MODERATOR", "ROLE_VERIFIER");
+    }
+
+    @Test
+    void rejectsWithTheReason() {
+        assertThat(rejection(token(key, "alice", Map.of(), -120_000))).isEqualTo(TokenVerificationException.Reason.EXPIRED);
+        assertThat(rejection("not.a.jwt")).isEqualTo(TokenVerificationException.Reason.MALFORMED);
+        assertThat(rejection("ref_abc")).isEqualTo(TokenVerificationException.Reason.UNSUPPORTED);
+        assertThat(rejection("ak_abc")).isEqualTo(TokenVerificationException.Reason.UNSUPPORTED);
+        // An HMAC token, e.g. minted with a leaked shared secret, never matches a public key
+        String hmac = Jwts.builder().subject("alice").signWith(Jwts.SIG.HS384.key().build()).compact();
+        assertThat(rejection(hmac)).isEqualTo(TokenVerificationException.Reason.BAD_SIGNATURE);
+        @SuppressWarnings("unchecked")
+        Map<String, Long> rejected = (Map<String, Long>) metrics.stats().get("rejected");
+        assertThat(rejected).containsEntry("EXPIRED", 1L).containsEntry("MALFORMED", 1L).containsEntry("UNSUPPORTED", 2L)
+                .containsEntry("BAD_SIGNATURE", 1L);
+    }
+
+    @Test
+    void unknownKeyTriggersARefreshThatPicksUpTheRotatedKey() throws Exception {
+        String token = token(rotated, "alice", Map.of(), 60_000);
+        server.keys(key.getPublic(), rotated.getPublic());
+        // Early refreshes are rate limited to one per min-retry after the initial load
+        Thread.sleep(20);
+
+        assertThat(rejection(token)).isEqualTo(TokenVerificationException.Reason.BAD_SIGNATURE);
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (keySet.keys().size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(verifier.verify(token).subject()).isEqualTo("alice");
+        assertThat(server.requests()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsEverythingUntilKeysAreLoaded() {
+        KeySetCache empty = new KeySetCache(() -> {
+            throw new IOException("unreachable");
+        }, Duration.ofHours(1), Duration.ofHours(1), new VerifierMetrics());
+        try (empty) {
+            TokenVerifier cold = new TokenVerifier(empty, new VerifierMetrics());
+
+            assertThatThrownBy(() -> cold.verify(token(key, "alice", Map.of(), 60_000)))
+                    .isInstanceOfSatisfying(TokenVerificationException.class,
+                            e -> assertThat(e.getReason()).isEqualTo(TokenVerificationException.Reason.NO_KEYS));
+        }
+    }
+
+    @Test
+    void exposesClientTokens() {
+        VerifiedToken verified = verifier.verify(token(key, "billing",
+                Map.of("client_id", "billing", "roles", List.of("ROLE_VERIFIER")), 60_000));
+
+        assertThat(verified.isClient()).isTrue();
+        assertThat(verified.userId()).isNull();
+        assertThat(verified.clientId()).isEqualTo("billing");
+    }
+}